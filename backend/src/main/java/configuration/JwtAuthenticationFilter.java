@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import model.User;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,7 +18,12 @@ import org.springframework.util.AntPathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import repository.TokenRepository;
+import service.AuthenticatedUser;
 import service.JwtService;
+import service.ParsedToken;
+import service.TokenValidationCache;
+import service.TokenVersionRegistry;
+import util.Hashing;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -31,6 +37,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
     private final TokenRepository tokenRepository;
+    private final TokenValidationCache tokenValidationCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     // path không cần authentication
     private static final List<String> PUBLIC_PATHS = Arrays.asList(
@@ -74,8 +82,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // extract username từ token
-        final String username = jwtService.extractUsername(jwt);
+        // token đã validate trước đó (chữ ký, hạn, bảng tokens) -> dùng cache, không query db
+        // chế độ token version: vẫn so version lưu kèm entry với version hiện tại (trong bộ nhớ)
+        final TokenValidationCache.CachedToken cached = tokenValidationCache.get(jwt);
+        if (cached != null && (!tokenVersionRegistry.isEnabled()
+                || tokenVersionRegistry.isCurrent(cached.user().username(), cached.tokenVersion()))) {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                setAuthentication(request, cached.user());
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // verify chữ ký + parse claims một lần, dùng lại cho các bước sau
+        final ParsedToken parsedToken = jwtService.tryParse(jwt).orElse(null);
+        final String username = parsedToken != null ? parsedToken.subject() : null;
 
         // nếu ko có username hoặc user đã authenticate, continue
         if (username == null || SecurityContextHolder.getContext().getAuthentication() != null) {
@@ -88,23 +109,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
 
             // check token có valid trong db
-            boolean isTokenValid = tokenRepository.findByToken(jwt)
-                    .map(token -> !token.isExpired() && !token.isRevoked())
-                    .orElse(false);
-
-            // validate token và set authentication
-            if (jwtService.isTokenValid(jwt, userDetails) && isTokenValid) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            // chế độ token version: so claim với version trong bộ nhớ, không query bảng tokens
+            // còn lại: bảng tokens chỉ lưu SHA-256 của token, query COUNT không load entity
+            boolean isTokenValid = tokenVersionRegistry.isEnabled()
+                    ? tokenVersionRegistry.isCurrent(username, parsedToken.tokenVersion())
+                    : tokenRepository.existsValidByTokenHash(Hashing.sha256Hex(jwt));
+
+            // validate token và set authentication; tài khoản bị khoá/ban thì không xác thực
+            // principal chỉ giữ id, username, role; thông tin hồ sơ đọc lại từ db
+            if (jwtService.isTokenValid(parsedToken, userDetails) && isTokenValid
+                    && userDetails.isEnabled() && userDetails.isAccountNonLocked()) {
+                AuthenticatedUser principal = AuthenticatedUser.of((User) userDetails);
+                setAuthentication(request, principal);
+                tokenValidationCache.put(jwt, principal, parsedToken.tokenVersion(), parsedToken.expiration());
                 log.debug("Authentication set for user: {}", username);
             }
         } catch (Exception e) {
@@ -115,6 +132,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private void setAuthentication(HttpServletRequest request, AuthenticatedUser principal) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                principal.authorities()
+        );
+
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+
     /**
      * extract JWT token từ request's Authorization header
      *
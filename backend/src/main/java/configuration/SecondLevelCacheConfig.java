@@ -0,0 +1,72 @@
+package configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import model.ClassSchedule;
+import model.Homeroom;
+import model.Subject;
+import model.Teacher;
+import model.TeacherInformation;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache (JCache over Caffeine) cho dữ liệu tham chiếu: môn học, lịch học,
+ * giáo viên, thông tin giáo viên, lớp chủ nhiệm.
+ * Các region được tạo sẵn ở đây để có giới hạn kích thước và TTL thay vì cấu hình mặc định không giới hạn.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /**
+     * Entity cache theo @Cache, tên region mặc định là tên class
+     */
+    public static final List<Class<?>> CACHED_ENTITIES = List.of(
+            Subject.class, ClassSchedule.class, Teacher.class, TeacherInformation.class, Homeroom.class);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${application.second-level-cache.maximum-size:10000}") long maximumSize,
+            @Value("${application.second-level-cache.ttl:PT10M}") Duration ttl
+    ) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        CaffeineConfiguration<Object, Object> regionConfig = new CaffeineConfiguration<>();
+        regionConfig.setMaximumSize(OptionalLong.of(maximumSize));
+        regionConfig.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        regionConfig.setStatisticsEnabled(true);
+        for (Class<?> entity : CACHED_ENTITIES) {
+            createIfAbsent(cacheManager, entity.getName(), regionConfig);
+        }
+        createIfAbsent(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, regionConfig);
+
+        // Timestamps region không được evict hay hết hạn, nếu không query cache có thể trả về kết quả cũ
+        CaffeineConfiguration<Object, Object> timestampsConfig = new CaffeineConfiguration<>();
+        timestampsConfig.setStatisticsEnabled(true);
+        createIfAbsent(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestampsConfig);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static void createIfAbsent(CacheManager cacheManager, String region, CaffeineConfiguration<Object, Object> config) {
+        if (cacheManager.getCache(region) == null) {
+            cacheManager.createCache(region, config);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import dto.request.admin.BatchCreateAccountRequest;
 import dto.request.admin.ChangePasswordRequest;
 import dto.request.admin.CreateAccountRequest;
 import dto.request.admin.ResetPasswordRequest;
+import dto.request.admin.UserListFilter;
 import dto.response.BaseResponse;
 import dto.response.admin.AccountListResponse;
 import dto.response.shared.AccountInformationResponse;
@@ -12,16 +13,25 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import service.admin.AccountImportService;
 import service.admin.AdminAccountServiceImpl;
+import service.admin.UserListExporter;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -33,6 +43,8 @@ import java.util.Map;
 public class AdminAccountController extends BaseController {
 
     private final AdminAccountServiceImpl adminAccountService;
+    private final AccountImportService accountImportService;
+    private final UserListExporter userListExporter;
 
     /**
      * For personal account management
@@ -54,9 +66,20 @@ public class AdminAccountController extends BaseController {
      */
 
     @GetMapping("/all")
-    @Operation(summary = "Get all accounts", description = "Retrieves a list of all accounts in the system")
-    public ResponseEntity<BaseResponse<List<AccountListResponse>>> getAllAccounts() {
-        return new ResponseEntity<>(adminAccountService.getAllAccounts(), HttpStatus.OK);
+    @Operation(summary = "Get all accounts", description = "Retrieves a page of accounts, filtered by role, status and creation time. Pass the returned cursor to read the next page by keyset")
+    public ResponseEntity<BaseResponse<List<AccountListResponse>>> getAllAccounts(@ParameterObject UserListFilter filter,
+                                                                                  @RequestParam(defaultValue = "0") int page,
+                                                                                  @RequestParam(defaultValue = "50") int size,
+                                                                                  @RequestParam(required = false) String cursor) {
+        return new ResponseEntity<>(adminAccountService.getAllAccounts(filter, page, size, cursor), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/export", produces = UserListExporter.NDJSON)
+    @Operation(summary = "Export accounts", description = "Streams every account matching the filters, one JSON object per line")
+    public ResponseEntity<StreamingResponseBody> exportAccounts(@ParameterObject UserListFilter filter) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(UserListExporter.NDJSON))
+                .body(userListExporter.exportAccounts(filter));
     }
 
     @PostMapping("/reset-password")
@@ -71,5 +94,16 @@ public class AdminAccountController extends BaseController {
         return new ResponseEntity<>(adminAccountService.createSingleAccount(request), HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = "text/csv")
+    @Operation(summary = "Import accounts from CSV",
+            description = "Creates the accounts of a CSV file (header: username,password,role,fullName,email,phoneNumber,gender,dob) "
+                    + "and streams back one result line per row")
+    public ResponseEntity<StreamingResponseBody> importAccounts(@RequestParam("file") MultipartFile file) throws IOException {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"account-import-report.csv\"")
+                .body(accountImportService.importCsv(file));
+    }
+
 
 }
@@ -1,12 +1,15 @@
 package controller.business.admin;
 
 import dto.response.BaseResponse;
+import dto.response.admin.AttendanceDetailResponse;
+import dto.response.admin.AttendanceMatrixResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import service.admin.AdminAttendanceServiceImpl;
 
 @RestController
 @RequestMapping("/admin/attendance")
@@ -14,6 +17,8 @@ import org.springframework.web.bind.annotation.RestController;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminAttendanceController {
 
+    private final AdminAttendanceServiceImpl adminAttendanceService;
+
     /**
      * Desired flow: from a list of class, select a class -> show all attendance
      */
@@ -25,15 +30,14 @@ public class AdminAttendanceController {
     }
 
     @GetMapping("/byClass/{classId}")
-    public BaseResponse<String> getAttendanceByClass(@PathVariable String classId) {
-        // return a list of existing roll call
-        // should also return some meta data (class name, class id, anticipated/all, ...)
-        return BaseResponse.ok(null, "List of attendance for class " + classId + " retrieved successfully", null);
+    public BaseResponse<AttendanceMatrixResponse> getAttendanceByClass(@PathVariable Long classId) {
+        // students x roll calls, one status code per cell (see AttendanceMatrixResponse)
+        return BaseResponse.ok(adminAttendanceService.getAttendanceByClass(classId),
+                "List of attendance for class " + classId + " retrieved successfully", null);
     }
 
     @GetMapping("/detail/{attendanceId}")
-    public BaseResponse<String> getAttendance(@PathVariable String attendanceId) {
-        // return all detail of an attendance (list of students, attendance status, reasons, ...)
-        return BaseResponse.ok(null, "Attendance retrieved successfully");
+    public BaseResponse<AttendanceDetailResponse> getAttendance(@PathVariable Long attendanceId) {
+        return BaseResponse.ok(adminAttendanceService.getAttendanceDetail(attendanceId), "Attendance retrieved successfully");
     }
 }
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 import service.admin.AdminClassServiceImpl;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/admin/class")
@@ -25,10 +26,11 @@ public class AdminClassController {
     @GetMapping("/all")
     @Operation(summary = "Get All class", description = "")
     public BaseResponse<List<ClassListResponse>> getAllClasses(@RequestParam(defaultValue = "1") int page,
-                                                               @RequestParam(defaultValue = "10") int size){
+                                                               @RequestParam(defaultValue = "10") int size,
+                                                               @RequestParam(required = false) String cursor){
 
 
-        return adminClassService.getAllClasses(page,size);
+        return adminClassService.getAllClasses(page,size,cursor);
     }
 
     @PostMapping("/create")
@@ -61,6 +63,15 @@ public class AdminClassController {
         return BaseResponse.created(null, "Students added to class successfully");
     }
 
+    @PostMapping("/{id}/students/add/bulk")
+    @Operation(summary = "Bulk enroll students", description = "Adds the valid students and reports the rest per student")
+    public BaseResponse<Map<String, Object>> enrollStudentsBulk(@PathVariable Long id,
+                                                                @RequestBody AddStudentToClassRequest studentIds) {
+        Map<String, Object> report = adminClassService.enrollStudentsBulk(id, studentIds.getStudentIds());
+        return BaseResponse.created(report, "Bulk enrollment completed. " + report.get("totalAdded")
+                + " students added successfully, " + report.get("totalFailed") + " students failed to add");
+    }
+
     // remove students from class = update student status in class
     @DeleteMapping("/{id}/students/remove")
     public BaseResponse<String> removeClassStudents(@PathVariable Long id){
@@ -36,4 +36,22 @@ public class AdminSearch {
     public BaseResponse<List<SearchSubjectResponse>> searchSubject(@RequestParam String query) {
         return BaseResponse.ok(adminSearchService.searchSubject(query), " Tìm kiếm môn học thành công ");
     }
+
+    @GetMapping("/typeahead/teacher")
+    public BaseResponse<List<SearchTeacherResponse>> typeaheadTeacher(@RequestParam String query,
+                                                                      @RequestParam(defaultValue = "10") int limit) {
+        return BaseResponse.ok(adminSearchService.typeaheadTeacher(query, limit), " Tìm kiếm giáo viên thành công ");
+    }
+
+    @GetMapping("/typeahead/student")
+    public BaseResponse<List<SearchStudentResponse>> typeaheadStudent(@RequestParam String query,
+                                                                      @RequestParam(defaultValue = "10") int limit) {
+        return BaseResponse.ok(adminSearchService.typeaheadStudent(query, limit), " Tìm kiếm học sinh thành công ");
+    }
+
+    @GetMapping("/typeahead/subject")
+    public BaseResponse<List<SearchSubjectResponse>> typeaheadSubject(@RequestParam String query,
+                                                                      @RequestParam(defaultValue = "10") int limit) {
+        return BaseResponse.ok(adminSearchService.typeaheadSubject(query, limit), " Tìm kiếm môn học thành công ");
+    }
 }
@@ -4,6 +4,7 @@ import controller.BaseController;
 import dto.request.admin.AdminUpdateProfileRequest;
 import dto.request.admin.UpdateStudentRequest;
 import dto.request.admin.UpdateTeacherRequest;
+import dto.request.admin.UserListFilter;
 import dto.response.BaseResponse;
 import dto.response.admin.AdminDetailResponse;
 import dto.response.admin.StudentDetailResponse;
@@ -13,6 +14,8 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,8 +23,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import service.admin.AdminUserServiceImpl;
+import service.admin.UserListExporter;
 
 import java.util.List;
 
@@ -33,14 +39,29 @@ import java.util.List;
 public class AdminUserController extends BaseController {
 
     private final AdminUserServiceImpl adminUserService;
+    private final UserListExporter userListExporter;
 
     /**
-     * Get all users
+     * Get all users, page by page
      */
     @GetMapping("/all")
-    @Operation(summary = "Get all users", description = "Retrieves a list of all users in the system with basic information")
-    public ResponseEntity<BaseResponse<List<UserListResponse>>> getAllUsers() {
-        return ResponseEntity.ok(adminUserService.getAllUsers());
+    @Operation(summary = "Get all users", description = "Retrieves a page of users with basic information, filtered by role, status and creation time. Pass the returned cursor to read the next page by keyset")
+    public ResponseEntity<BaseResponse<List<UserListResponse>>> getAllUsers(@ParameterObject UserListFilter filter,
+                                                                            @RequestParam(defaultValue = "0") int page,
+                                                                            @RequestParam(defaultValue = "50") int size,
+                                                                            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(adminUserService.getAllUsers(filter, page, size, cursor));
+    }
+
+    /**
+     * Export all users as NDJSON
+     */
+    @GetMapping(value = "/export", produces = UserListExporter.NDJSON)
+    @Operation(summary = "Export users", description = "Streams every user matching the filters, one JSON object per line")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@ParameterObject UserListFilter filter) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(UserListExporter.NDJSON))
+                .body(userListExporter.exportUsers(filter));
     }
 
     /**
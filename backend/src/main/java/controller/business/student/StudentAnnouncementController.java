@@ -4,8 +4,12 @@ import dto.response.BaseResponse;
 import dto.response.student.StudentAnnouncementDetailResponse;
 import dto.response.student.StudentAnnouncementListResponse;
 import lombok.RequiredArgsConstructor;
+import model.enums.AnnouncementTarget;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import service.AnnouncementFeedCache;
+import service.AnnouncementFeedCache.FeedKey;
 import service.student.StudentAnnouncementService;
 
 import java.util.Calendar;
@@ -19,25 +23,28 @@ import java.util.List;
 public class StudentAnnouncementController {
 
     private final StudentAnnouncementService studentAnnouncementService;
+    private final AnnouncementFeedCache announcementFeedCache;
 
     /**
      * Get announcements for the current week
-     * Returns announcements targeted at students for the current week
+     * Returns announcements targeted at students for the current week, cached and answered with 304 while unchanged
      */
     @GetMapping("/week")
-    public BaseResponse<List<StudentAnnouncementListResponse>> getAnnouncementCurrentWeek() {
-        return studentAnnouncementService.getAnnouncementsForCurrentWeek();
+    public ResponseEntity<BaseResponse<List<StudentAnnouncementListResponse>>> getAnnouncementCurrentWeek() {
+        return announcementFeedCache.get(FeedKey.currentWeek(AnnouncementTarget.STUDENT),
+                studentAnnouncementService::getAnnouncementsForCurrentWeek).toResponseEntity();
     }
 
     /**
      * Get all announcements with pagination
-     * Returns all announcements targeted at students
+     * Returns all announcements targeted at students, cached and answered with 304 while unchanged
      */
     @GetMapping("/all")
-    public BaseResponse<List<StudentAnnouncementListResponse>> getAllAnnouncements(
+    public ResponseEntity<BaseResponse<List<StudentAnnouncementListResponse>>> getAllAnnouncements(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        return studentAnnouncementService.getAllAnnouncements(page, size);
+        return announcementFeedCache.get(FeedKey.page(AnnouncementTarget.STUDENT, page, size),
+                () -> studentAnnouncementService.getAllAnnouncements(page, size)).toResponseEntity();
     }
     
     /**
@@ -4,12 +4,16 @@ import dto.response.BaseResponse;
 import dto.response.teacher.TeacherAnnouncementDetailResponse;
 import dto.response.teacher.TeacherAnnouncementListResponse;
 import lombok.RequiredArgsConstructor;
+import model.enums.AnnouncementTarget;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import service.AnnouncementFeedCache;
+import service.AnnouncementFeedCache.FeedKey;
 import service.teacher.TeacherAnnouncementService;
 
 import java.util.List;
@@ -21,25 +25,28 @@ import java.util.List;
 public class TeacherAnnouncementController {
 
     private final TeacherAnnouncementService teacherAnnouncementService;
+    private final AnnouncementFeedCache announcementFeedCache;
 
     /**
      * Get announcements for the current week
-     * Returns announcements targeted at teachers for the current week
+     * Returns announcements targeted at teachers for the current week, cached and answered with 304 while unchanged
      */
     @GetMapping("/week")
-    public BaseResponse<List<TeacherAnnouncementListResponse>> getAnnouncementCurrentWeek() {
-        return teacherAnnouncementService.getAnnouncementsForCurrentWeek();
+    public ResponseEntity<BaseResponse<List<TeacherAnnouncementListResponse>>> getAnnouncementCurrentWeek() {
+        return announcementFeedCache.get(FeedKey.currentWeek(AnnouncementTarget.TEACHER),
+                teacherAnnouncementService::getAnnouncementsForCurrentWeek).toResponseEntity();
     }
 
     /**
      * Get all announcements with pagination
-     * Returns all announcements targeted at teachers
+     * Returns all announcements targeted at teachers, cached and answered with 304 while unchanged
      */
     @GetMapping("/all")
-    public BaseResponse<List<TeacherAnnouncementListResponse>> getAllAnnouncements(
+    public ResponseEntity<BaseResponse<List<TeacherAnnouncementListResponse>>> getAllAnnouncements(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        return teacherAnnouncementService.getAllAnnouncements(page, size);
+        return announcementFeedCache.get(FeedKey.page(AnnouncementTarget.TEACHER, page, size),
+                () -> teacherAnnouncementService.getAllAnnouncements(page, size)).toResponseEntity();
     }
     
     /**
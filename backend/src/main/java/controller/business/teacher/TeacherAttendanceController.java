@@ -2,6 +2,8 @@ package controller.business.teacher;
 
 import dto.request.teacher.TeacherAttendanceCreateRequest;
 import dto.response.BaseResponse;
+import dto.response.admin.AttendanceMatrixResponse;
+import dto.response.teacher.AbsenceAlertResponse;
 import dto.response.teacher.AttendanceListResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +27,16 @@ public class TeacherAttendanceController {
     }
 
 
+    @GetMapping("/matrix/{classId}")
+    public BaseResponse<AttendanceMatrixResponse> getAttendanceMatrix(@PathVariable Long classId) {
+        return BaseResponse.ok(teacherAttendanceService.getAttendanceMatrix(classId), "Attendance matrix for class " + classId + " retrieved successfully", null);
+    }
+
+    @GetMapping("/alerts")
+    public BaseResponse<List<AbsenceAlertResponse>> getAbsenceAlerts(@RequestParam(required = false) Long after) {
+        return BaseResponse.ok(teacherAttendanceService.getAbsenceAlerts(after), "Absence alerts retrieved successfully", null);
+    }
+
     @PostMapping("/create/{classId}")
     public BaseResponse<String> createAttendance(@PathVariable Long classId,
                                                  @Valid  @RequestBody TeacherAttendanceCreateRequest teacherAttendanceCreateRequest) {
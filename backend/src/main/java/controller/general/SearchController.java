@@ -24,15 +24,16 @@ public class SearchController {
     private final SearchServiceImpl searchService;
 
     /**
-     * User search by username or email
-     * @param query The search query (username or email)
-     * @return List of matching users
+     * User search by username, full name or email
+     * @param query The search query (accents are ignored)
+     * @return Page of matching users, best match first
      */
-    @Operation(summary = "Search users", description = "Search users by username or email")
+    @Operation(summary = "Search users", description = "Search users by username, full name or email")
     @GetMapping("/user")
-    public BaseResponse<List<UserSearchResponse>> searchUser(@RequestParam(required = false) String query) {
-        List<UserSearchResponse> results = searchService.searchUser(query);
-        return BaseResponse.ok(results, "Search result");
+    public BaseResponse<List<UserSearchResponse>> searchUser(@RequestParam(required = false) String query,
+                                                             @RequestParam(defaultValue = "0") int page,
+                                                             @RequestParam(defaultValue = "10") int size) {
+        return searchService.searchUser(query, page, size);
     }
 
     /**
@@ -49,14 +50,15 @@ public class SearchController {
 
     /**
      * Subject search by name or code
-     * @param query The search query (name or code)
-     * @return List of matching subjects
+     * @param query The search query (accents are ignored)
+     * @return Page of matching subjects, best match first
      */
     @Operation(summary = "Search subjects", description = "Search subjects by name or code")
     @GetMapping("/subject")
-    public BaseResponse<List<SubjectListResponse>> searchSubject(@RequestParam(required = false) String query) {
-        List<SubjectListResponse> results = searchService.searchSubject(query);
-        return BaseResponse.ok(results, "Search result");
+    public BaseResponse<List<SubjectListResponse>> searchSubject(@RequestParam(required = false) String query,
+                                                                 @RequestParam(defaultValue = "0") int page,
+                                                                 @RequestParam(defaultValue = "10") int size) {
+        return searchService.searchSubject(query, page, size);
     }
 
     /**
@@ -0,0 +1,113 @@
+package db;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Base of the versioned schema migrations in {@code db.migration}, run by Flyway before Hibernate.
+ * <p>
+ * New tables and nullable columns are still created by Hibernate ({@code ddl-auto: update}).
+ * Migrations cover what Hibernate cannot do safely on a table that already holds data:
+ * backfills, removing duplicates before a unique key, nullability changes. On an empty database
+ * the tables do not exist yet when Flyway runs, so each migration checks the live schema first
+ * and leaves a missing table to Hibernate, which creates it with its final constraints.
+ * <p>
+ * Migrations run outside a transaction: MySQL commits every DDL statement anyway, and data
+ * changes are made in chunks that commit one by one so no lock is held for the whole table.
+ */
+public abstract class SchemaMigration extends BaseJavaMigration {
+
+    private static final int CHUNK_SIZE = 5000;
+
+    private Context context;
+    private Connection connection;
+
+    @Override
+    public final void migrate(Context context) throws Exception {
+        this.context = context;
+        this.connection = context.getConnection();
+        migrate(new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+    }
+
+    protected abstract void migrate(JdbcTemplate jdbc) throws Exception;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    /**
+     * @return a value from {@code spring.flyway.placeholders}
+     */
+    protected String placeholder(String name) {
+        String value = context.getConfiguration().getPlaceholders().get(name);
+        if (value == null) {
+            throw new IllegalStateException("Missing Flyway placeholder: " + name);
+        }
+        return value;
+    }
+
+    protected boolean tableExists(JdbcTemplate jdbc, String table) {
+        return count(jdbc, """
+                SELECT COUNT(*) FROM information_schema.tables
+                WHERE table_schema = DATABASE() AND table_name = ?
+                """, table) > 0;
+    }
+
+    protected boolean columnExists(JdbcTemplate jdbc, String table, String column) {
+        return count(jdbc, """
+                SELECT COUNT(*) FROM information_schema.columns
+                WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?
+                """, table, column) > 0;
+    }
+
+    protected boolean indexExists(JdbcTemplate jdbc, String table, String index) {
+        return count(jdbc, """
+                SELECT COUNT(*) FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?
+                """, table, index) > 0;
+    }
+
+    /**
+     * @return the full column type, e.g. {@code varchar(255)}, to redefine a column without changing it
+     */
+    protected String columnType(JdbcTemplate jdbc, String table, String column) {
+        return jdbc.queryForObject("""
+                SELECT column_type FROM information_schema.columns
+                WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?
+                """, String.class, table, column);
+    }
+
+    /**
+     * Run {@code sql}, which must end with {@code LIMIT ?}, until it changes no more rows,
+     * committing after every chunk
+     *
+     * @return total rows changed
+     */
+    protected long updateInChunks(JdbcTemplate jdbc, String sql) throws SQLException {
+        long total = 0;
+        int updated;
+        do {
+            updated = jdbc.update(sql, CHUNK_SIZE);
+            commit();
+            total += updated;
+        } while (updated > 0);
+        return total;
+    }
+
+    protected void commit() throws SQLException {
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    private int count(JdbcTemplate jdbc, String sql, Object... args) {
+        Integer count = jdbc.queryForObject(sql, Integer.class, args);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,56 @@
+package db.migration;
+
+import db.SchemaMigration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * First half of moving the tokens table from the full JWT to its SHA-256 (see {@code model.Token}).
+ * <p>
+ * Adds token_hash as a nullable column, hashes the stored tokens into it, then adds the unique
+ * key. Stored tokens also get an expires_at so the token purge can delete them. The legacy token column is only made nullable, because this release no longer writes it:
+ * nodes of the previous release keep running against the same table during a rolling deploy.
+ * Dropping token and making token_hash NOT NULL is left to a migration of a later release, once
+ * no node of the previous release is left; it must backfill rows those nodes wrote meanwhile.
+ */
+@Slf4j
+public class V1__Hash_stored_tokens extends SchemaMigration {
+
+    // same hex encoding as util.Hashing#sha256Hex
+    private static final String BACKFILL_HASHES = """
+            UPDATE tokens SET token_hash = SHA2(token, 256)
+            WHERE token_hash IS NULL AND token IS NOT NULL
+            LIMIT ?
+            """;
+    private static final String BACKFILL_EXPIRY = """
+            UPDATE tokens SET expires_at = COALESCE(created_at, NOW()) + INTERVAL %d SECOND
+            WHERE expires_at IS NULL
+            LIMIT ?
+            """;
+
+    @Override
+    protected void migrate(JdbcTemplate jdbc) throws Exception {
+        if (!tableExists(jdbc, "tokens")) {
+            return;
+        }
+        if (!columnExists(jdbc, "tokens", "token_hash")) {
+            jdbc.execute("ALTER TABLE tokens ADD COLUMN token_hash VARCHAR(64) NULL");
+        }
+        if (!columnExists(jdbc, "tokens", "token")) {
+            return;
+        }
+        String legacyType = columnType(jdbc, "tokens", "token");
+        jdbc.execute("ALTER TABLE tokens MODIFY COLUMN token " + legacyType + " NULL");
+
+        long hashed = updateInChunks(jdbc, BACKFILL_HASHES);
+        if (!columnExists(jdbc, "tokens", "expires_at")) {
+            jdbc.execute("ALTER TABLE tokens ADD COLUMN expires_at DATETIME(6) NULL");
+        }
+        long ttlSeconds = Long.parseLong(placeholder("access-token-expiration-ms")) / 1000;
+        updateInChunks(jdbc, BACKFILL_EXPIRY.formatted(ttlSeconds));
+        if (!indexExists(jdbc, "tokens", "uk_tokens_token_hash")) {
+            jdbc.execute("ALTER TABLE tokens ADD CONSTRAINT uk_tokens_token_hash UNIQUE (token_hash)");
+        }
+        log.info("Hashed {} stored tokens", hashed);
+    }
+}
@@ -0,0 +1,75 @@
+package db.migration;
+
+import db.SchemaMigration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds uk_class_student_class_student: a student is enrolled in a class at most once.
+ * <p>
+ * Enrollments were not unique before, so existing duplicates are merged into the oldest row of
+ * each (class_id, student_id) first. Attendance and exam rows of a duplicate move to the kept row
+ * unless it already has one for the same session or exam; its tuition record moves only if the
+ * kept row has none. Whatever is left of the duplicate is deleted with it. Duplicates are rare,
+ * so they are merged one by one.
+ */
+@Slf4j
+public class V2__Unique_class_enrollment extends SchemaMigration {
+
+    private static final String SELECT_DUPLICATES = """
+            SELECT cs.id AS duplicate_id, k.keep_id
+            FROM class_student cs
+            JOIN (
+                SELECT class_id, student_id, MIN(id) AS keep_id FROM class_student
+                GROUP BY class_id, student_id HAVING COUNT(*) > 1
+            ) k ON k.class_id = cs.class_id AND k.student_id = cs.student_id
+            WHERE cs.id <> k.keep_id
+            ORDER BY cs.id
+            """;
+
+    @Override
+    protected void migrate(JdbcTemplate jdbc) throws Exception {
+        if (!tableExists(jdbc, "class_student") || indexExists(jdbc, "class_student", "uk_class_student_class_student")) {
+            return;
+        }
+        List<Map<String, Object>> duplicates = jdbc.queryForList(SELECT_DUPLICATES);
+        for (Map<String, Object> duplicate : duplicates) {
+            long duplicateId = ((Number) duplicate.get("duplicate_id")).longValue();
+            long keepId = ((Number) duplicate.get("keep_id")).longValue();
+            moveChildren(jdbc, "attendance_hist", "attendance_id", duplicateId, keepId);
+            moveChildren(jdbc, "student_examination", "examination_id", duplicateId, keepId);
+            moveChildren(jdbc, "tuition_records", null, duplicateId, keepId);
+            jdbc.update("DELETE FROM class_student WHERE id = ?", duplicateId);
+            commit();
+        }
+        jdbc.execute("ALTER TABLE class_student ADD CONSTRAINT uk_class_student_class_student UNIQUE (class_id, student_id)");
+        log.info("Merged {} duplicate enrollments", duplicates.size());
+    }
+
+    /**
+     * Move the rows of {@code table} from the duplicate to the kept enrollment, dropping those the kept
+     * enrollment already has for the same {@code parentColumn} (any row at all when it is null)
+     */
+    private void moveChildren(JdbcTemplate jdbc, String table, String parentColumn, long duplicateId, long keepId) {
+        if (!tableExists(jdbc, table)) {
+            return;
+        }
+        String sameParent = parentColumn != null ? " AND kept.%1$s = c.%1$s".formatted(parentColumn) : "";
+        List<Long> rowIds = jdbc.queryForList("SELECT id FROM " + table + " WHERE class_student_id = ? ORDER BY id",
+                Long.class, duplicateId);
+        for (Long rowId : rowIds) {
+            Integer taken = jdbc.queryForObject("""
+                    SELECT COUNT(*) FROM %s c JOIN %s kept ON kept.class_student_id = ?%s
+                    WHERE c.id = ?
+                    """.formatted(table, table, sameParent), Integer.class, keepId, rowId);
+            if (taken != null && taken > 0) {
+                jdbc.update("DELETE FROM " + table + " WHERE id = ?", rowId);
+            } else {
+                jdbc.update("UPDATE " + table + " SET class_student_id = ? WHERE id = ?", keepId, rowId);
+            }
+        }
+    }
+}
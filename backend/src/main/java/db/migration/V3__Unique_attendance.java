@@ -0,0 +1,75 @@
+package db.migration;
+
+import db.SchemaMigration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Adds the keys the roll-call upsert relies on: uk_attendances_class_date_type (one session per
+ * class, date and type) and uk_attendance_hist_session_student (one result per session and student).
+ * <p>
+ * Without them the upsert inserts instead of updating, so existing duplicates are removed first.
+ * Duplicate sessions are merged into the oldest one, which receives their results. Of several
+ * results for the same session and student the latest written one is kept, as the upsert would
+ * have done. Absence counters are recomputed by the nightly AbsenceCounterReconciler.
+ */
+@Slf4j
+public class V3__Unique_attendance extends SchemaMigration {
+
+    private static final String SESSION_KEY = "uk_attendances_class_date_type";
+    private static final String RESULT_KEY = "uk_attendance_hist_session_student";
+
+    private static final String DUPLICATE_SESSIONS = """
+            SELECT class_id, `date`, type, MIN(id) AS keep_id FROM attendances
+            GROUP BY class_id, `date`, type HAVING COUNT(*) > 1
+            """;
+    private static final String MOVE_RESULTS = """
+            UPDATE attendance_hist h
+            JOIN attendances a ON a.id = h.attendance_id
+            JOIN (%s) k ON k.class_id = a.class_id AND k.`date` = a.`date` AND k.type = a.type
+            SET h.attendance_id = k.keep_id
+            WHERE a.id <> k.keep_id
+            """.formatted(DUPLICATE_SESSIONS);
+    private static final String DELETE_SESSIONS = """
+            DELETE a FROM attendances a
+            JOIN (%s) k ON k.class_id = a.class_id AND k.`date` = a.`date` AND k.type = a.type
+            WHERE a.id <> k.keep_id
+            """.formatted(DUPLICATE_SESSIONS);
+    private static final String DELETE_OLDER_RESULTS = """
+            DELETE h FROM attendance_hist h
+            JOIN attendance_hist newer
+            ON newer.attendance_id = h.attendance_id AND newer.class_student_id = h.class_student_id
+            AND newer.id > h.id
+            """;
+
+    @Override
+    protected void migrate(JdbcTemplate jdbc) throws Exception {
+        if (!tableExists(jdbc, "attendances") || !tableExists(jdbc, "attendance_hist")) {
+            return;
+        }
+        boolean hasSessionKey = indexExists(jdbc, "attendances", SESSION_KEY);
+        boolean hasResultKey = indexExists(jdbc, "attendance_hist", RESULT_KEY);
+
+        if (!hasSessionKey) {
+            // merged results may collide until the older ones are deleted below
+            if (hasResultKey) {
+                jdbc.execute("ALTER TABLE attendance_hist DROP INDEX " + RESULT_KEY);
+                hasResultKey = false;
+            }
+            int moved = jdbc.update(MOVE_RESULTS);
+            int sessions = jdbc.update(DELETE_SESSIONS);
+            commit();
+            log.info("Merged {} duplicate attendance sessions, moved {} results", sessions, moved);
+        }
+        if (!hasResultKey) {
+            int results = jdbc.update(DELETE_OLDER_RESULTS);
+            commit();
+            log.info("Deleted {} duplicate attendance results", results);
+            jdbc.execute("ALTER TABLE attendance_hist ADD CONSTRAINT " + RESULT_KEY
+                    + " UNIQUE (attendance_id, class_student_id)");
+        }
+        if (!hasSessionKey) {
+            jdbc.execute("ALTER TABLE attendances ADD CONSTRAINT " + SESSION_KEY + " UNIQUE (class_id, `date`, type)");
+        }
+    }
+}
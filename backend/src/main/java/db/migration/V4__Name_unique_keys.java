@@ -0,0 +1,45 @@
+package db.migration;
+
+import db.SchemaMigration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Gives the username and email unique keys fixed names, uk_accounts_username and uk_users_email.
+ * <p>
+ * They used to be declared with {@code @Column(unique = true)}, so Hibernate named them with a hash.
+ * UniquenessValidator recognises a duplicate username or email by the key name in the MySQL error,
+ * so the existing keys are renamed in place; Hibernate would otherwise add a second index.
+ */
+@Slf4j
+public class V4__Name_unique_keys extends SchemaMigration {
+
+    // unique indexes on exactly one column
+    private static final String SINGLE_COLUMN_UNIQUE_INDEXES = """
+            SELECT index_name FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = ? AND non_unique = 0 AND index_name <> 'PRIMARY'
+            GROUP BY index_name
+            HAVING COUNT(*) = 1 AND MAX(column_name) = ?
+            """;
+
+    @Override
+    protected void migrate(JdbcTemplate jdbc) throws Exception {
+        renameUniqueKey(jdbc, "accounts", "username", "uk_accounts_username");
+        renameUniqueKey(jdbc, "users", "email", "uk_users_email");
+    }
+
+    private void renameUniqueKey(JdbcTemplate jdbc, String table, String column, String name) {
+        if (!tableExists(jdbc, table) || indexExists(jdbc, table, name)) {
+            return;
+        }
+        List<String> indexes = jdbc.queryForList(SINGLE_COLUMN_UNIQUE_INDEXES, String.class, table, column);
+        if (indexes.isEmpty()) {
+            // Hibernate creates the key under its new name
+            return;
+        }
+        jdbc.execute("ALTER TABLE " + table + " RENAME INDEX `" + indexes.get(0) + "` TO " + name);
+        log.info("Renamed unique key {}.{} to {}", table, indexes.get(0), name);
+    }
+}
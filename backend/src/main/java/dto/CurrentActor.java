@@ -0,0 +1,10 @@
+package dto;
+
+import model.enums.Role;
+
+/**
+ * Identifiers of the authenticated caller, resolved once per username by {@link service.CurrentActorResolver}.
+ * Only the id matching {@code role} is non-null.
+ */
+public record CurrentActor(Long userId, String username, Role role, Long adminId, Long teacherId, Long studentId) {
+}
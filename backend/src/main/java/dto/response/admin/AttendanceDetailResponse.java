@@ -0,0 +1,32 @@
+package dto.response.admin;
+
+import lombok.Builder;
+import lombok.Getter;
+import model.enums.AttendanceStatus;
+import model.enums.AttendanceType;
+
+import java.util.Date;
+import java.util.List;
+
+@Getter
+@Builder
+public class AttendanceDetailResponse {
+    private Long attendanceId;
+    private Long classId;
+    private String className;
+    private Date date;
+    private AttendanceType type;
+    private Integer totalStudents;
+    private Integer totalRecorded;
+    private List<StudentStatus> students;
+
+    @Getter
+    @Builder
+    public static class StudentStatus {
+        private Long classStudentId;
+        private String studentName;
+        private String studentEmail;
+        // null when the student was not recorded in this roll call
+        private AttendanceStatus status;
+    }
+}
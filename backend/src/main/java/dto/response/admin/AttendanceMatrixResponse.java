@@ -0,0 +1,40 @@
+package dto.response.admin;
+
+import lombok.Builder;
+import lombok.Getter;
+import model.enums.AttendanceType;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Students x sessions attendance grid of a class.
+ * <p>
+ * Each student's {@code statuses} holds one character per entry of {@code sessions}, in the same order:
+ * P present, A absent, L late, E excused, - not recorded.
+ */
+@Getter
+@Builder
+public class AttendanceMatrixResponse {
+    private Long classId;
+    private String className;
+    private List<Session> sessions;
+    private List<StudentRow> students;
+
+    @Getter
+    @Builder
+    public static class Session {
+        private Long attendanceId;
+        private Date date;
+        private AttendanceType type;
+    }
+
+    @Getter
+    @Builder
+    public static class StudentRow {
+        private Long classStudentId;
+        private String studentName;
+        private String studentEmail;
+        private String statuses;
+    }
+}
@@ -15,4 +15,13 @@ public class UserSearchResponse {
     private String email;
     private Role role;
     private String avatarUrl;
+
+    public UserSearchResponse(Long id, String username, String fullName, String email, Role role, String avatarUrl) {
+        this.id = id;
+        this.username = username;
+        this.fullName = fullName;
+        this.email = email;
+        this.role = role;
+        this.avatarUrl = avatarUrl;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package dto.response.teacher;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import model.enums.AbsenceAlertLevel;
+
+import java.time.LocalDateTime;
+
+@Builder
+@Getter
+public class AbsenceAlertResponse {
+    @Setter
+    private Long id;
+    private Long classId;
+    private String className;
+    private Long classStudentId;
+    private String studentName;
+    private String studentEmail;
+    private AbsenceAlertLevel level;
+    private Integer absenceCount;
+    private Integer threshold;
+    private LocalDateTime createdAt;
+}
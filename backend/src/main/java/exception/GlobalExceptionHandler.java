@@ -18,10 +18,12 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import service.UniquenessValidator;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Global exception handler for the application
@@ -135,10 +137,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.ok(BaseResponse.badRequest(ex.getMessage(), ex, null));
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<BaseResponse<Object>> handleServiceBusyException(ServiceBusyException ex, WebRequest request) {
+        log.warn("Service busy: {}", ex.getMessage());
+        return ResponseEntity.ok(
+                BaseResponse.error(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage(), ex, null));
+    }
+
     // ====== Database Exceptions ======
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<BaseResponse<Object>> handleDataIntegrityViolationException(DataIntegrityViolationException ex, WebRequest request) {
+        // A duplicate username/email is a problem with the submitted data, not a conflict of the server
+        Optional<String> duplicate = UniquenessValidator.describeDuplicate(ex);
+        if (duplicate.isPresent()) {
+            log.warn("Duplicate value: {}", ex.getMostSpecificCause().getMessage());
+            return ResponseEntity.ok(BaseResponse.badRequest(duplicate.get(), ex, null));
+        }
         log.error("Data integrity violation: {}", ex.getMessage());
         
         // Extract more specific information from the exception message if possible
@@ -0,0 +1,15 @@
+package exception;
+
+/**
+ * Exception thrown when a bounded worker pool cannot take more work; the client should retry later
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
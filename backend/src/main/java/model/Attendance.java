@@ -15,7 +15,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "attendances")
+@Table(name = "attendances", uniqueConstraints = @UniqueConstraint(
+        name = "uk_attendances_class_date_type", columnNames = {"class_id", "date", "type"}))
 public class Attendance extends BaseModel {
 
     @Id
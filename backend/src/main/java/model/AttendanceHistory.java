@@ -12,7 +12,8 @@ import model.enums.AttendanceStatus;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "attendance_hist")
+@Table(name = "attendance_hist", uniqueConstraints = @UniqueConstraint(
+        name = "uk_attendance_hist_session_student", columnNames = {"attendance_id", "class_student_id"}))
 public class AttendanceHistory extends BaseModel {
 
     @Id
@@ -6,13 +6,19 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import model.enums.DayOfWeek;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "class_schedule")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(
+        name = "class_schedule",
+        indexes = @Index(name = "idx_class_schedule_day_room", columnList = "day_of_week, room")
+)
 public class ClassSchedule extends BaseModel {
 
     @Id
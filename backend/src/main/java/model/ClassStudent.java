@@ -14,7 +14,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "class_student")
+@Table(name = "class_student", uniqueConstraints = @UniqueConstraint(
+        name = "uk_class_student_class_student", columnNames = {"class_id", "student_id"}))
 public class ClassStudent extends BaseModel {
 
     @Id
@@ -43,6 +44,13 @@ public class ClassStudent extends BaseModel {
     @Column(name = "final_grade")
     private Double finalGrade;
 
+    /**
+     * ABSENT + LATE roll calls, maintained by AttendanceBatchWriter and reconciled by AbsenceCounterReconciler
+     */
+    @Builder.Default
+    @Column(name = "absence_count", nullable = false, columnDefinition = "int default 0")
+    private Integer absenceCount = 0;
+
     @OneToOne(mappedBy = "classStudent" ,cascade = CascadeType.ALL)
     private TuitionRecord tuitionRecord;
 
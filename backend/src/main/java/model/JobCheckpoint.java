@@ -0,0 +1,32 @@
+package model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last position reached by a resumable background job
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint extends BaseModel {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "run_key", nullable = false)
+    private String runKey;
+
+    @Column(name = "position")
+    private String position;
+
+    @Column(nullable = false)
+    private boolean completed;
+}
@@ -0,0 +1,35 @@
+package model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cluster-wide lock of a scheduled job. Rows are written by JobRunner with plain SQL so that
+ * acquiring and renewing are single atomic statements evaluated against the database clock.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "job_leases")
+public class JobLease {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "owner", length = 200)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false, columnDefinition = "datetime(3)")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "acquired_at", columnDefinition = "datetime(3)")
+    private LocalDateTime acquiredAt;
+}
@@ -0,0 +1,53 @@
+package model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One refresh token family: a login and every refresh rotated from it.
+ * Only the hash of the latest refresh token is kept; presenting an older one revokes the family.
+ * Rows are written by {@code service.RefreshSessionStore}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "refresh_sessions",
+        indexes = {
+                @Index(name = "idx_refresh_sessions_user", columnList = "user_id, revoked"),
+                @Index(name = "idx_refresh_sessions_expires_at", columnList = "expires_at")
+        }
+)
+public class RefreshSession extends BaseModel {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "token_hash", length = 64, nullable = false)
+    private String tokenHash;
+
+    // the token rotated away last, accepted as a harmless race for a short grace period
+    @Column(name = "previous_token_hash", length = 64)
+    private String previousTokenHash;
+
+    @Column(name = "rotated_at")
+    private LocalDateTime rotatedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+}
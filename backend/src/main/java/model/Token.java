@@ -6,20 +6,42 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "tokens")
+@Table(
+        name = "tokens",
+        uniqueConstraints = @UniqueConstraint(name = "uk_tokens_token_hash", columnNames = "token_hash"),
+        indexes = {
+                @Index(name = "idx_tokens_user_state", columnList = "user_id, revoked, expired"),
+                @Index(name = "idx_tokens_expires_at", columnList = "expires_at"),
+                @Index(name = "idx_tokens_session", columnList = "session_id")
+        }
+)
 public class Token extends BaseModel {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false)
-    private String token;
+    /**
+     * SHA-256 (hex) of the JWT, see {@link util.Hashing#sha256Hex(String)}; the token itself is not stored
+     */
+    @Column(name = "token_hash", length = 64, nullable = false)
+    private String tokenHash;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    /**
+     * Refresh session the token was issued for, see {@link RefreshSession}
+     */
+    @Column(name = "session_id", length = 36)
+    private String sessionId;
 
     @Column(nullable = false)
     private boolean revoked;
@@ -0,0 +1,39 @@
+package model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A revocation to be applied by every node: either one token ({@code tokenHash} set) or every
+ * token of {@code username}. Rows are written and polled by {@code service.TokenRevocationFeed}
+ * and deleted by the token purge once every node has seen them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "token_revocations",
+        indexes = @Index(name = "idx_token_revocations_created_at", columnList = "created_at")
+)
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "username", nullable = false)
+    private String username;
+
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(name = "created_at", nullable = false, columnDefinition = "datetime(3)")
+    private LocalDateTime createdAt;
+}
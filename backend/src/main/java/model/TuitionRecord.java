@@ -13,7 +13,11 @@ import model.enums.TuitionStatus;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "tuition_records")
+@Table(
+        name = "tuition_records",
+        // the overdue sweep starts from the PROCESSING rows
+        indexes = @Index(name = "idx_tuition_records_status", columnList = "status, class_student_id")
+)
 public class TuitionRecord extends BaseModel {
 
     @Id
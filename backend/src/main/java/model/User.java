@@ -23,7 +23,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = "uk_users_email", columnNames = "email"))
 public class User extends BaseModel implements UserDetails {
 
     @Id
@@ -50,11 +50,17 @@ public class User extends BaseModel implements UserDetails {
     @Column(name = "phone_number")
     private String phoneNumber;
     
-    @Column(unique = true)
     private String email;
     
     @Column(name = "avatar_url")
     private String avatarUrl;
+
+    /**
+     * Generation of the user's JWTs, embedded as the "tv" claim; incrementing it revokes every older token
+     */
+    @Builder.Default
+    @Column(name = "token_version", nullable = false, columnDefinition = "int default 0")
+    private Integer tokenVersion = 0;
     
     @OneToMany(mappedBy = "user")
     private List<Token> tokens;
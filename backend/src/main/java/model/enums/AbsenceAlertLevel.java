@@ -0,0 +1,6 @@
+package model.enums;
+
+public enum AbsenceAlertLevel {
+    WARNING,
+    LIMIT_REACHED
+}
@@ -4,5 +4,12 @@ public enum AttendanceStatus {
     PRESENT,
     ABSENT,
     LATE,
-    EXCUSED
+    EXCUSED;
+
+    /**
+     * Whether this status counts towards the class absence limit
+     */
+    public boolean isAbsence() {
+        return this == ABSENT || this == LATE;
+    }
 }
@@ -3,11 +3,26 @@ package repository;
 import model.Account;
 import model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByUsername(String username);
 
+    boolean existsByUsername(String username);
+
     String user(User user);
+
+    @Query("SELECT a.username FROM Account a WHERE a.username IN :usernames")
+    List<String> findExistingUsernames(Collection<String> usernames);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Account a SET a.password = :password WHERE a.username = :username")
+    int updatePassword(String username, String password);
 }
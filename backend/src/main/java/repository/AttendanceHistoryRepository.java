@@ -1,16 +1,29 @@
 package repository;
 
+import jakarta.persistence.QueryHint;
 import model.AttendanceHistory;
 import model.ClassStudent;
 import model.enums.AttendanceStatus;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AttendanceHistoryRepository extends JpaRepository<AttendanceHistory, Long> {
 
+    interface AttendanceCell {
+        Long getClassStudentId();
+
+        Long getAttendanceId();
+
+        AttendanceStatus getStatus();
+    }
+
     @Query("""
             SELECT ah FROM AttendanceHistory ah
             JOIN FETCH ah.attendance a
@@ -19,17 +32,24 @@ public interface AttendanceHistoryRepository extends JpaRepository<AttendanceHis
             """)
     List<AttendanceHistory> findByClassStudent(ClassStudent classStudent);
 
+    /**
+     * Connector/J buffers the whole result set for any positive fetch size unless useCursorFetch is on;
+     * Integer.MIN_VALUE switches it to row-by-row streaming. The connection can run nothing else until
+     * the stream is closed, so callers consume it in a try-with-resources without issuing other queries.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
     @Query("""
-            SELECT COUNT(ah) FROM AttendanceHistory ah
-            WHERE ah.status IN (:attendanceStatus, :attendanceStatus1)
-            AND ah.classStudent = :classStudent
+            SELECT ah.classStudent.id AS classStudentId, a.id AS attendanceId, ah.status AS status
+            FROM AttendanceHistory ah
+            JOIN ah.attendance a
+            WHERE a.classEntity.id = :classId
             """)
-    Integer findByTypeAndClassStudent(AttendanceStatus attendanceStatus, AttendanceStatus attendanceStatus1, ClassStudent classStudent);
+    Stream<AttendanceCell> streamCellsByClassId(@Param("classId") Long classId);
 
     @Query("""
-            SELECT COUNT(ah) FROM AttendanceHistory ah
-            WHERE ah.classStudent = :classStudent
-            AND ah.status IN (:status, :status1)
+            SELECT ah.classStudent.id AS classStudentId, ah.attendance.id AS attendanceId, ah.status AS status
+            FROM AttendanceHistory ah
+            WHERE ah.attendance.id = :attendanceId
             """)
-    Integer countByClassStudentAndStatusAndStatus(ClassStudent classStudent, AttendanceStatus status, AttendanceStatus status1);
+    List<AttendanceCell> findCellsByAttendanceId(@Param("attendanceId") Long attendanceId);
 }
@@ -3,10 +3,45 @@ package repository;
 import model.Account;
 import model.Attendance;
 import model.User;
+import model.enums.AttendanceType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
 
+    Optional<Attendance> findByClassEntityIdAndDateAndType(Long classId, Date date, AttendanceType type);
+
+    interface SessionRow {
+        Long getId();
+
+        Date getDate();
+
+        AttendanceType getType();
+
+        Long getClassId();
+
+        String getClassName();
+    }
+
+    @Query("""
+            SELECT a.id AS id, a.date AS date, a.type AS type, c.id AS classId, c.className AS className
+            FROM Attendance a
+            JOIN a.classEntity c
+            WHERE c.id = :classId
+            ORDER BY a.date, a.id
+            """)
+    List<SessionRow> findSessionRowsByClassId(@Param("classId") Long classId);
+
+    @Query("""
+            SELECT a.id AS id, a.date AS date, a.type AS type, c.id AS classId, c.className AS className
+            FROM Attendance a
+            JOIN a.classEntity c
+            WHERE a.id = :id
+            """)
+    Optional<SessionRow> findSessionRowById(@Param("id") Long id);
 }
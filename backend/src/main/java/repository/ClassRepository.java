@@ -1,5 +1,6 @@
 package repository;
 
+import jakarta.persistence.LockModeType;
 import model.Teacher;
 import model.enums.DayOfWeek;
 import org.springframework.data.domain.Page;
@@ -8,10 +9,13 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import model.Class;
 import model.Student;
 
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -19,35 +23,156 @@ import java.util.Optional;
 @Repository
 public interface ClassRepository extends JpaRepository<Class, Long> {
 
+    interface SubjectClassCount {
+        Long getSubjectId();
+
+        Long getTotal();
+    }
+
+    @Query("SELECT c.subject.id AS subjectId, COUNT(c) AS total FROM Class c WHERE c.subject.id IN :subjectIds GROUP BY c.subject.id")
+    List<SubjectClassCount> countBySubjectIds(@Param("subjectIds") Collection<Long> subjectIds);
+
+    /**
+     * Only to-one associations are fetched so the database can paginate.
+     * Use {@link util.IdPagination} when a page also needs a collection.
+     */
     @Override
-    @Query("SELECT c FROM Class c JOIN FETCH c.teacher t JOIN FETCH t.user JOIN FETCH c.subject s JOIN FETCH c.schedules LEFT JOIN FETCH c.students")
+    @Query(value = "SELECT c FROM Class c JOIN FETCH c.teacher t JOIN FETCH t.user JOIN FETCH c.subject s JOIN FETCH c.schedules",
+            countQuery = "SELECT COUNT(c) FROM Class c")
     Page<Class> findAll(Pageable pageable);
 
+    interface ClassListRow {
+        Long getId();
+
+        String getClassName();
+
+        Long getTeacherId();
+
+        String getTeacherFullName();
+
+        String getTeacherEmail();
+
+        String getTeacherAvatarUrl();
+
+        Long getSubjectId();
+
+        String getSubjectName();
+
+        Date getStartDate();
+
+        Date getEndDate();
+
+        String getDescription();
+
+        BigDecimal getTuition();
+
+        Date getTuitionDueDate();
+
+        Float getFinalTermWeight();
+
+        DayOfWeek getDayOfWeek();
+
+        Integer getPeriodStart();
+
+        Integer getPeriodEnd();
+
+        String getRoom();
+
+        Long getStudentCount();
+    }
+
+    @Query(value = "SELECT c.id FROM Class c ORDER BY c.id",
+            countQuery = "SELECT COUNT(c) FROM Class c")
+    Page<Long> findPageIds(Pageable pageable);
+
+    @Query(value = "SELECT c.id FROM Class c WHERE c.teacher.id = :teacherId ORDER BY c.id",
+            countQuery = "SELECT COUNT(c) FROM Class c WHERE c.teacher.id = :teacherId")
+    Page<Long> findPageIdsByTeacherId(@Param("teacherId") Long teacherId, Pageable pageable);
+
+    @Query(value = "SELECT cs.classEntity.id FROM ClassStudent cs WHERE cs.student.id = :studentId ORDER BY cs.classEntity.id",
+            countQuery = "SELECT COUNT(cs) FROM ClassStudent cs WHERE cs.student.id = :studentId")
+    Page<Long> findPageIdsByStudentId(@Param("studentId") Long studentId, Pageable pageable);
+
+    /**
+     * Keyset page of class ids, call with {@code PageRequest.of(0, size + 1)}
+     */
+    @Query("SELECT c.id FROM Class c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(value = "SELECT c.id FROM Class c WHERE EXISTS (SELECT e.id FROM Examination e WHERE e.classEntity = c) ORDER BY c.id",
+            countQuery = "SELECT COUNT(c) FROM Class c WHERE EXISTS (SELECT e.id FROM Examination e WHERE e.classEntity = c)")
+    Page<Long> findPageIdsWithExaminations(Pageable pageable);
+
+    @Query("SELECT DISTINCT c FROM Class c LEFT JOIN FETCH c.examinations WHERE c.id IN :ids")
+    List<Class> findAllWithExaminationsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * One row per class with teacher, subject, schedule and enrollment count, for a page of ids
+     */
+    @Query("""
+            SELECT c.id AS id, c.className AS className,
+                   t.id AS teacherId, tu.fullName AS teacherFullName, tu.email AS teacherEmail, tu.avatarUrl AS teacherAvatarUrl,
+                   s.id AS subjectId, s.name AS subjectName,
+                   c.startDate AS startDate, c.endDate AS endDate, c.description AS description,
+                   c.tuition AS tuition, c.tuitionDueDate AS tuitionDueDate, c.finalTermWeight AS finalTermWeight,
+                   sc.dayOfWeek AS dayOfWeek, sc.periodStart AS periodStart, sc.periodEnd AS periodEnd, sc.room AS room,
+                   (SELECT COUNT(cs) FROM ClassStudent cs WHERE cs.classEntity.id = c.id) AS studentCount
+            FROM Class c
+            JOIN c.teacher t
+            JOIN t.user tu
+            JOIN c.subject s
+            LEFT JOIN c.schedules sc
+            WHERE c.id IN :ids
+            """)
+    List<ClassListRow> findListRowsByIds(@Param("ids") Collection<Long> ids);
+
     @Override
     @Query("SELECT c FROM Class c JOIN FETCH c.teacher t JOIN FETCH t.user JOIN FETCH c.subject s JOIN FETCH c.schedules LEFT JOIN FETCH c.students WHERE c.id = :id")
     Optional<Class> findById(Long id);
 
-    @Query("""
-            SELECT c FROM Class c
-            JOIN FETCH c.schedules
-            WHERE c.teacher=:teacher
-            """)
-    List<Class> findByTeacher(Teacher teacher);
+    /**
+     * Class header for the detail view: to-one associations only, the roster is read as rows
+     */
+    @Query("SELECT c FROM Class c JOIN FETCH c.teacher t JOIN FETCH t.user JOIN FETCH c.subject s JOIN FETCH c.schedules WHERE c.id = :id")
+    Optional<Class> findDetailById(@Param("id") Long id);
+
+    interface AbsenceAlertSettings {
+        Long getId();
+
+        String getClassName();
+
+        Long getTeacherId();
+
+        Integer getAbsenceWarningThreshold();
+
+        Integer getAbsenceLimit();
+    }
 
     @Query("""
-            SELECT c FROM Class c
-            JOIN FETCH c.schedules s
-            WHERE s.room = :room
+            SELECT c.id AS id, c.className AS className, c.teacher.id AS teacherId,
+                   c.absenceWarningThreshold AS absenceWarningThreshold, c.absenceLimit AS absenceLimit
+            FROM Class c
+            WHERE c.id IN :ids
             """)
-    List<Class> findBySchedule(String room);
+    List<AbsenceAlertSettings> findAbsenceAlertSettingsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c FROM Class c JOIN FETCH c.schedules WHERE c.id = :id")
+    Optional<Class> findWithScheduleById(@Param("id") Long id);
+
+    /**
+     * Same as {@link #findWithScheduleById} but locks the class row until the transaction ends,
+     * so enrollments into one class run one at a time
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Class c JOIN FETCH c.schedules WHERE c.id = :id")
+    Optional<Class> findWithScheduleForUpdateById(@Param("id") Long id);
 
     @Query("""
-                SELECT cs.classEntity
-                FROM ClassStudent cs
-                JOIN cs.classEntity c
-                WHERE cs.student = :student
+            SELECT c FROM Class c
+            JOIN FETCH c.schedules
+            WHERE c.teacher=:teacher
             """)
-    List<Class> findByStudent(@Param("student") Student student);
+    List<Class> findByTeacher(Teacher teacher);
 
     @Query("""
             SELECT COUNT(cs) FROM ClassStudent cs
@@ -77,19 +202,5 @@ public interface ClassRepository extends JpaRepository<Class, Long> {
             """)
     List<Class> findByAndTeacherMonthAndYear(Teacher teacher, Integer month, Integer year);
 
-    @Query("""
-            SELECT c FROM Class c
-            JOIN FETCH c.examinations e
-            """)
-    Page<Class> findAllAddExam(Pageable pageable);
-
-    @Query("""
-            SELECT c FROM Class c
-            JOIN FETCH c.students cs
-            JOIN FETCH cs.student s
-            WHERE s = :student
-            """)
-    Page<Class> findAllAddExamAndStudent(Pageable pageable, Student student);
-
     Page<Class> findByStudents_Student(Student student,Pageable pageable);
 }
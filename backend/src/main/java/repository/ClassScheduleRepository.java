@@ -8,11 +8,47 @@ import model.User;
 import model.enums.DayOfWeek;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ClassScheduleRepository extends JpaRepository<ClassSchedule, Long> {
+
+    /**
+     * Classes of the teacher whose weekly slot overlaps the given one; touching date or period
+     * ranges overlap. {@code ignoreClassId} excludes the class being rescheduled, null for a new class.
+     */
+    @Query("""
+            SELECT c.id FROM ClassSchedule cs
+            JOIN cs.classEntity c
+            WHERE c.teacher.id = :teacherId AND cs.dayOfWeek = :day
+            AND cs.periodStart <= :periodEnd AND cs.periodEnd >= :periodStart
+            AND c.startDate <= :endDate AND c.endDate >= :startDate
+            AND (:ignoreClassId IS NULL OR c.id <> :ignoreClassId)
+            """)
+    List<Long> findTeacherConflicts(@Param("teacherId") Long teacherId, @Param("day") DayOfWeek day,
+                                    @Param("startDate") Date startDate, @Param("endDate") Date endDate,
+                                    @Param("periodStart") Integer periodStart, @Param("periodEnd") Integer periodEnd,
+                                    @Param("ignoreClassId") Long ignoreClassId);
+
+    /**
+     * Classes in the room whose weekly slot overlaps the given one, same rules as {@link #findTeacherConflicts}.
+     * Rooms match ignoring case and surrounding spaces, so "a101 " and "A101" are the same room.
+     */
+    @Query("""
+            SELECT c.id FROM ClassSchedule cs
+            JOIN cs.classEntity c
+            WHERE LOWER(TRIM(cs.room)) = LOWER(TRIM(:room)) AND cs.dayOfWeek = :day
+            AND cs.periodStart <= :periodEnd AND cs.periodEnd >= :periodStart
+            AND c.startDate <= :endDate AND c.endDate >= :startDate
+            AND (:ignoreClassId IS NULL OR c.id <> :ignoreClassId)
+            """)
+    List<Long> findRoomConflicts(@Param("room") String room, @Param("day") DayOfWeek day,
+                                 @Param("startDate") Date startDate, @Param("endDate") Date endDate,
+                                 @Param("periodStart") Integer periodStart, @Param("periodEnd") Integer periodEnd,
+                                 @Param("ignoreClassId") Long ignoreClassId);
 }
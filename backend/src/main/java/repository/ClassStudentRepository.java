@@ -3,18 +3,111 @@ package repository;
 import model.Class;
 import model.ClassStudent;
 import model.Student;
+import model.enums.DayOfWeek;
+import model.enums.TuitionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ClassStudentRepository extends JpaRepository<ClassStudent, Long> {
 
+    interface ScheduleConflictRow {
+        Long getStudentId();
+
+        Long getClassId();
+    }
+
+    /**
+     * Enrollments of the given students in classes whose weekly slot overlaps the given one;
+     * touching date or period ranges overlap. Callers pass at most a few thousand ids per call.
+     */
+    @Query("""
+            SELECT cs.student.id AS studentId, c.id AS classId
+            FROM ClassStudent cs
+            JOIN cs.classEntity c
+            JOIN c.schedules sch
+            WHERE cs.student.id IN :studentIds AND sch.dayOfWeek = :day
+            AND sch.periodStart <= :periodEnd AND sch.periodEnd >= :periodStart
+            AND c.startDate <= :endDate AND c.endDate >= :startDate
+            """)
+    List<ScheduleConflictRow> findScheduleConflicts(@Param("studentIds") Collection<Long> studentIds,
+                                                    @Param("day") DayOfWeek day,
+                                                    @Param("startDate") Date startDate, @Param("endDate") Date endDate,
+                                                    @Param("periodStart") Integer periodStart,
+                                                    @Param("periodEnd") Integer periodEnd);
+
+    @Query("SELECT cs.id FROM ClassStudent cs WHERE cs.classEntity.id = :classId")
+    List<Long> findIdsByClassId(@Param("classId") Long classId);
+
+    @Query("SELECT cs.student.id FROM ClassStudent cs WHERE cs.classEntity.id = :classId AND cs.student.id IN :studentIds")
+    List<Long> findEnrolledStudentIds(@Param("classId") Long classId, @Param("studentIds") Collection<Long> studentIds);
+
+    interface RosterRow {
+        Long getClassStudentId();
+
+        String getFullName();
+
+        String getEmail();
+    }
+
+    @Query("""
+            SELECT cs.id AS classStudentId, u.fullName AS fullName, u.email AS email
+            FROM ClassStudent cs
+            JOIN cs.student s
+            JOIN s.user u
+            WHERE cs.classEntity.id = :classId
+            ORDER BY cs.id
+            """)
+    List<RosterRow> findRosterRowsByClassId(@Param("classId") Long classId);
+
+    @Query("""
+            SELECT cs.id AS classStudentId, u.fullName AS fullName, u.email AS email
+            FROM ClassStudent cs
+            JOIN cs.student s
+            JOIN s.user u
+            WHERE cs.id IN :ids
+            """)
+    List<RosterRow> findRosterRowsByIds(@Param("ids") Collection<Long> ids);
+
+    interface DetailRosterRow {
+        Long getClassStudentId();
+
+        String getFullName();
+
+        String getEmail();
+
+        String getAvatarUrl();
+
+        Integer getAbsenceCount();
+
+        TuitionStatus getTuitionStatus();
+    }
+
+    /**
+     * Roster of the class detail as plain rows: loading ClassStudent entities would also load the
+     * eager one-to-ones of every student and user (one query each), the rows need none of them
+     */
+    @Query("""
+            SELECT cs.id AS classStudentId, u.fullName AS fullName, u.email AS email, u.avatarUrl AS avatarUrl,
+                   cs.absenceCount AS absenceCount, t.status AS tuitionStatus
+            FROM ClassStudent cs
+            JOIN cs.student s
+            JOIN s.user u
+            LEFT JOIN cs.tuitionRecord t
+            WHERE cs.classEntity.id = :classId
+            ORDER BY cs.id
+            """)
+    List<DetailRosterRow> findDetailRosterRowsByClassId(@Param("classId") Long classId);
+
     @Query("""
             SELECT cs FROM ClassStudent cs
             JOIN FETCH cs.classEntity c
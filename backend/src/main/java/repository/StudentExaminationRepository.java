@@ -6,12 +6,36 @@ import model.StudentExamination;
 import model.User;
 import model.enums.ExaminationType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StudentExaminationRepository extends JpaRepository<StudentExamination, Long> {
 
     StudentExamination findByClassStudentAndExamination_Type(ClassStudent classStudent, ExaminationType type);
+
+    interface GradeRow {
+        Long getClassStudentId();
+
+        ExaminationType getType();
+
+        Double getGrade();
+
+        Boolean getAbsent();
+    }
+
+    @Query("""
+            SELECT se.classStudent.id AS classStudentId, e.type AS type, se.grade AS grade, se.isAbsent AS absent
+            FROM StudentExamination se
+            JOIN se.examination e
+            WHERE e.classEntity.id = :classId
+            AND e.type IN :types
+            ORDER BY se.id
+            """)
+    List<GradeRow> findGradeRowsByClassIdAndTypes(@Param("classId") Long classId, @Param("types") Collection<ExaminationType> types);
 }
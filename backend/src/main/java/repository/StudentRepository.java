@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -27,4 +29,11 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      */
     @Query("SELECT s FROM Student s JOIN FETCH s.user u JOIN FETCH u.account a WHERE a.username = :username")
     Optional<Student> findByUserAccountUsername(@Param("username") String username);
+
+    /**
+     * The ids that exist, with their rows locked until the transaction ends. Rows are locked in id
+     * order, so two enrollments sharing students cannot deadlock on them.
+     */
+    @Query(value = "SELECT id FROM students WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,11 +1,14 @@
 package repository;
 
 import dto.request.admin.SearchSubjectResponse;
+import jakarta.persistence.QueryHint;
 import model.Subject;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -18,6 +21,7 @@ public interface SubjectRepository extends JpaRepository<Subject, Long> {
     /**
      * Find subject by code
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Subject> findByCode(String code);
     
     /**
@@ -28,6 +32,7 @@ public interface SubjectRepository extends JpaRepository<Subject, Long> {
     /**
      * Find all subjects with pagination
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT s FROM Subject s")
     Page<Subject> findAllSubjects(Pageable pageable);
     
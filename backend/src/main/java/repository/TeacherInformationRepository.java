@@ -1,13 +1,17 @@
 package repository;
 
+import jakarta.persistence.QueryHint;
 import model.Teacher;
 import model.TeacherInformation;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface TeacherInformationRepository extends JpaRepository<TeacherInformation, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<TeacherInformation> findByTeacher(Teacher teacher);
 }
@@ -8,17 +8,48 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface TokenRepository extends JpaRepository<Token, Long> {
-    @Query("SELECT t FROM Token t WHERE t.user.id = :userId AND t.expired = false AND t.revoked = false")
-    List<Token> findAllValidTokensByUser(Long userId);
 
-    Optional<Token> findByToken(String token);
-    
+    @Query("SELECT COUNT(t) > 0 FROM Token t WHERE t.tokenHash = :tokenHash AND t.revoked = false AND t.expired = false")
+    boolean existsValidByTokenHash(String tokenHash);
+
+    /**
+     * Callers must also evict the user's tokens from TokenValidationCache
+     *
+     * @return number of tokens revoked
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Token t SET t.revoked = true, t.expired = true " +
+            "WHERE t.user.id = :userId AND (t.revoked = false OR t.expired = false)")
+    int revokeAllByUserId(Long userId);
+
+    /**
+     * Callers must also evict the token from TokenValidationCache
+     *
+     * @return number of matching tokens, 0 if the token is unknown
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Token t SET t.revoked = true, t.expired = true WHERE t.tokenHash = :tokenHash")
+    int revokeByTokenHash(String tokenHash);
+
+    /**
+     * Hashes of the session's access tokens that are still valid, read before
+     * {@link #revokeBySessionId(String)} so exactly those can be evicted from the caches
+     */
+    @Query("SELECT t.tokenHash FROM Token t WHERE t.sessionId = :sessionId AND t.revoked = false AND t.expired = false")
+    List<String> findValidTokenHashesBySessionId(String sessionId);
+
+    /**
+     * Revoke the access tokens of one refresh session.
+     * Callers must also evict the session's tokens from TokenValidationCache
+     */
     @Transactional
     @Modifying
-    @Query("UPDATE Token t SET t.revoked = true, t.expired = true WHERE t.token = :token")
-    int revokeToken(String token);
+    @Query("UPDATE Token t SET t.revoked = true, t.expired = true " +
+            "WHERE t.sessionId = :sessionId AND (t.revoked = false OR t.expired = false)")
+    int revokeBySessionId(String sessionId);
 }
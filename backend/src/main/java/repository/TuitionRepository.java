@@ -24,13 +24,4 @@ public interface TuitionRepository extends JpaRepository<TuitionRecord, Long> {
             WHERE t.id = :id
             """)
     Optional<TuitionRecord> findById(Long id);
-
-    @Query("""
-            SELECT t FROM TuitionRecord t
-            JOIN FETCH t.classStudent cs
-            JOIN FETCH cs.classEntity c
-            WHERE c.tuitionDueDate < :now
-            AND t.status = :tuitionStatus
-            """)
-    List<TuitionRecord> findByTuitionDateBeforeAndTuitionStatusProcessing(Date now, TuitionStatus tuitionStatus);
 }
@@ -1,23 +1,131 @@
 package repository;
 
+import dto.CurrentActor;
+import dto.response.admin.AccountListResponse;
 import dto.response.admin.SearchStudentResponse;
 import dto.response.admin.SearchTeacherResponse;
+import dto.response.admin.UserListResponse;
+import dto.response.search.UserSearchResponse;
 import model.Account;
 import model.User;
+import model.enums.AccountStatus;
+import model.enums.Role;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    String LIST_FROM = """
+                FROM User u
+                JOIN u.account a
+                LEFT JOIN Student s ON s.user.id = u.id
+                LEFT JOIN Teacher t ON t.user.id = u.id
+                LEFT JOIN Admin ad ON ad.user.id = u.id
+            """;
+    String LIST_FILTER = """
+                WHERE (:role IS NULL OR u.role = :role)
+                AND (:status IS NULL OR a.status = :status)
+                AND (:createdFrom IS NULL OR u.createdAt >= :createdFrom)
+                AND (:createdTo IS NULL OR u.createdAt < :createdTo)
+            """;
+    String USER_LIST_SELECT = """
+               SELECT new dto.response.admin.UserListResponse(
+                   u.id, a.username, u.fullName, u.role, u.gender, u.dob, u.email, u.phoneNumber,
+                   u.avatarUrl, u.createdAt, u.updatedAt, s.id, t.id, ad.id
+               )
+            """;
+    String ACCOUNT_LIST_SELECT = """
+               SELECT new dto.response.admin.AccountListResponse(
+                   a.id, a.username, u.fullName, u.role, u.email, u.phoneNumber, a.status, a.createdAt,
+                   u.id, s.id, t.id, ad.id
+               )
+            """;
+    String LIST_COUNT = "SELECT COUNT(u) FROM User u JOIN u.account a ";
+
     Optional<User> findByAccount(Account account);
 
+    @Query("SELECT u FROM User u JOIN FETCH u.account a WHERE a.username = :username")
+    Optional<User> findWithAccountByUsername(String username);
+
+    @Query("""
+               SELECT new dto.CurrentActor(
+                   u.id,
+                   a.username,
+                   u.role,
+                   ad.id,
+                   t.id,
+                   s.id
+               )
+                FROM User u
+                JOIN u.account a
+                LEFT JOIN Admin ad ON ad.user.id = u.id
+                LEFT JOIN Teacher t ON t.user.id = u.id
+                LEFT JOIN Student s ON s.user.id = u.id
+                WHERE a.username = :username
+            """)
+    Optional<CurrentActor> findCurrentActorByUsername(String username);
+
+    /**
+     * Admin user list in one query: the account and the admin/teacher/student ids are joined in
+     */
+    @Query(value = USER_LIST_SELECT + LIST_FROM + LIST_FILTER + "ORDER BY u.id",
+            countQuery = LIST_COUNT + LIST_FILTER)
+    Page<UserListResponse> findUserList(Role role, AccountStatus status, LocalDateTime createdFrom,
+                                        LocalDateTime createdTo, Pageable pageable);
+
+    /**
+     * Keyset variant of {@link #findUserList}, call with {@code PageRequest.of(0, limit)}
+     */
+    @Query(USER_LIST_SELECT + LIST_FROM + LIST_FILTER + "AND u.id > :afterId ORDER BY u.id")
+    List<UserListResponse> findUserListAfter(Long afterId, Role role, AccountStatus status, LocalDateTime createdFrom,
+                                             LocalDateTime createdTo, Pageable pageable);
+
+    @Query(value = ACCOUNT_LIST_SELECT + LIST_FROM + LIST_FILTER + "ORDER BY u.id",
+            countQuery = LIST_COUNT + LIST_FILTER)
+    Page<AccountListResponse> findAccountList(Role role, AccountStatus status, LocalDateTime createdFrom,
+                                              LocalDateTime createdTo, Pageable pageable);
+
+    /**
+     * Keyset variant of {@link #findAccountList}, ordered by user id; call with {@code PageRequest.of(0, limit)}
+     */
+    @Query(ACCOUNT_LIST_SELECT + LIST_FROM + LIST_FILTER + "AND u.id > :afterId ORDER BY u.id")
+    List<AccountListResponse> findAccountListAfter(Long afterId, Role role, AccountStatus status, LocalDateTime createdFrom,
+                                                   LocalDateTime createdTo, Pageable pageable);
+
     boolean existsByEmail(String email);
 
+    boolean existsByEmailAndIdNot(String email, Long id);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @Query("SELECT u.fullName FROM User u WHERE u.id = :id")
+    Optional<String> findFullNameById(Long id);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.account.username = :username")
+    Optional<Integer> findTokenVersionByUsername(String username);
+
+    /**
+     * Callers must also evict the user from TokenVersionRegistry and TokenValidationCache
+     */
+    @Modifying
+    @Query("""
+               UPDATE User u SET u.tokenVersion = u.tokenVersion + 1
+                WHERE u.account.id IN (SELECT a.id FROM Account a WHERE a.username = :username)
+            """)
+    int incrementTokenVersion(String username);
+
     @Query("""
                SELECT new dto.response.admin.SearchTeacherResponse(
                    u.fullName,
@@ -43,4 +151,42 @@ public interface UserRepository extends JpaRepository<User, Long> {
                 WHERE u.fullName LIKE %:query% OR u.email LIKE %:query%
             """)
     List<SearchStudentResponse> searchStudentByFullNameAndEmail(String query);
+
+    @Query("""
+               SELECT new dto.response.admin.SearchTeacherResponse(
+                   u.fullName,
+                   u.avatarUrl,
+                   u.email,
+                   t.id
+               )
+                FROM User u
+                JOIN Teacher t ON u.id = t.user.id
+            """)
+    List<SearchTeacherResponse> findAllTeachersForTypeahead();
+
+    @Query("""
+               SELECT new dto.response.admin.SearchStudentResponse(
+                   u.fullName,
+                   u.avatarUrl,
+                   u.email,
+                   s.id
+               )
+                FROM User u
+                JOIN Student s ON u.id = s.user.id
+            """)
+    List<SearchStudentResponse> findAllStudentsForTypeahead();
+
+    @Query("""
+               SELECT new dto.response.search.UserSearchResponse(
+                   u.id,
+                   a.username,
+                   u.fullName,
+                   u.email,
+                   u.role,
+                   u.avatarUrl
+               )
+                FROM User u
+                JOIN u.account a
+            """)
+    List<UserSearchResponse> findAllForSearchIndex();
 }
@@ -0,0 +1,7 @@
+package service;
+
+/**
+ * Absence counter of one enrollment before and after a roll call was recorded
+ */
+public record AbsenceCountChange(Long classStudentId, int before, int after) {
+}
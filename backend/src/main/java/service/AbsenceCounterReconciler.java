@@ -0,0 +1,71 @@
+package service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import service.job.JobRunner;
+
+/**
+ * Rebuilds {@code class_student.absence_count} from attendance_hist.
+ * <p>
+ * The counters are maintained by {@link AttendanceBatchWriter}; this job repairs drift from
+ * concurrent first submissions of the same roll call and from rows written outside the services.
+ * It works through class_student in id ranges, one short transaction per range, and only
+ * rewrites rows whose counter is wrong.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AbsenceCounterReconciler {
+
+    static final String JOB_NAME = "absence-counter-reconcile";
+    static final int RANGE_SIZE = 5000;
+
+    // both counts are index lookups on attendance_hist.class_student_id, the SET one only for drifted rows
+    private static final String RECONCILE_RANGE = """
+            UPDATE class_student
+            SET absence_count = (
+                SELECT COUNT(*) FROM attendance_hist ah
+                WHERE ah.class_student_id = class_student.id AND ah.status IN ('ABSENT', 'LATE')
+            )
+            WHERE id BETWEEN ? AND ?
+            AND absence_count <> (
+                SELECT COUNT(*) FROM attendance_hist ah
+                WHERE ah.class_student_id = class_student.id AND ah.status IN ('ABSENT', 'LATE')
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobRunner jobRunner;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${application.attendance.absence-reconcile-cron:0 15 4 * * *}")
+    public void reconcile() {
+        jobRunner.runExclusive(JOB_NAME, this::reconcileAll);
+    }
+
+    private void reconcileAll() {
+        long start = System.currentTimeMillis();
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM class_student", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        int fixed = 0;
+        for (long rangeStart = 1; rangeStart <= maxId; rangeStart += RANGE_SIZE) {
+            long from = rangeStart;
+            long to = rangeStart + RANGE_SIZE - 1;
+            Integer updated = transactionTemplate.execute(status -> {
+                jobRunner.checkLease(JOB_NAME);
+                return jdbcTemplate.update(RECONCILE_RANGE, from, to);
+            });
+            fixed += updated != null ? updated : 0;
+        }
+        log.info("Absence counters reconciled: {} rows corrected in {} ms", fixed, System.currentTimeMillis() - start);
+    }
+}
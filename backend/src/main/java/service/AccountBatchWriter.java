@@ -0,0 +1,182 @@
+package service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import model.enums.AccountStatus;
+import model.enums.DiplomaLevel;
+import model.enums.Gender;
+import model.enums.Role;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates accounts with their user, role (admin/teacher/student) and information rows using
+ * JDBC batches, the same rows {@code AdminAccountServiceImpl.createSingleAccount} writes one at
+ * a time. Generated ids are read back with one query per table, keyed by username, account id
+ * and user id. It joins the caller's transaction; the rows bypass Hibernate, so callers must
+ * update the search and typeahead indexes themselves (cached queries are evicted here).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountBatchWriter {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_ACCOUNT = """
+            INSERT INTO accounts (username, password, status, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_USER = """
+            INSERT INTO users (account_id, role, full_name, dob, gender, phone_number, email, token_version, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?)
+            """;
+    private static final String INSERT_TEACHER_INFORMATION = """
+            INSERT INTO teacher_information (teacher_id, diploma_level, created_at, updated_at)
+            VALUES (?, ?, ?, ?)
+            """;
+    private static final String INSERT_STUDENT_INFORMATION = """
+            INSERT INTO student_information (student_id, created_at, updated_at)
+            VALUES (?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ReferenceDataCache referenceDataCache;
+
+    /**
+     * @param passwordHash already encoded password
+     */
+    public record NewAccount(String username, String passwordHash, Role role, String fullName,
+                             LocalDate dob, Gender gender, String phoneNumber, String email) {
+    }
+
+    /**
+     * @param roleId id of the admins, teachers or students row
+     */
+    public record CreatedAccount(NewAccount account, Long userId, Long roleId) {
+    }
+
+    /**
+     * @return the created rows, in the order of {@code accounts}
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<CreatedAccount> create(List<NewAccount> accounts) {
+        if (accounts.isEmpty()) {
+            return List.of();
+        }
+        long start = System.currentTimeMillis();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(INSERT_ACCOUNT, accounts, BATCH_SIZE, (ps, account) -> {
+            ps.setString(1, account.username());
+            ps.setString(2, account.passwordHash());
+            ps.setString(3, AccountStatus.ACTIVE.name());
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+        Map<String, Long> accountIds = readIds("SELECT id, username AS owner FROM accounts WHERE username IN (:keys)",
+                accounts.stream().map(NewAccount::username).toList());
+
+        jdbcTemplate.batchUpdate(INSERT_USER, accounts, BATCH_SIZE, (ps, account) -> {
+            ps.setLong(1, accountIds.get(account.username()));
+            ps.setString(2, account.role().name());
+            ps.setString(3, account.fullName());
+            if (account.dob() != null) {
+                ps.setDate(4, Date.valueOf(account.dob()));
+            } else {
+                ps.setNull(4, Types.DATE);
+            }
+            ps.setString(5, account.gender() != null ? account.gender().name() : null);
+            ps.setString(6, account.phoneNumber());
+            ps.setString(7, account.email());
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+        Map<String, Long> userIds = readIds("SELECT id, account_id AS owner FROM users WHERE account_id IN (:keys)",
+                new ArrayList<>(accountIds.values()));
+
+        Map<Role, List<Long>> userIdsByRole = new HashMap<>();
+        for (NewAccount account : accounts) {
+            Long userId = userIds.get(String.valueOf(accountIds.get(account.username())));
+            userIdsByRole.computeIfAbsent(account.role(), role -> new ArrayList<>()).add(userId);
+        }
+        Map<String, Long> roleIds = new HashMap<>();
+        roleIds.putAll(insertRoleRows("admins", userIdsByRole.getOrDefault(Role.ADMIN, List.of()), now));
+        Map<String, Long> teacherIds = insertRoleRows("teachers", userIdsByRole.getOrDefault(Role.TEACHER, List.of()), now);
+        Map<String, Long> studentIds = insertRoleRows("students", userIdsByRole.getOrDefault(Role.STUDENT, List.of()), now);
+        roleIds.putAll(teacherIds);
+        roleIds.putAll(studentIds);
+
+        jdbcTemplate.batchUpdate(INSERT_TEACHER_INFORMATION, new ArrayList<>(teacherIds.values()), BATCH_SIZE, (ps, teacherId) -> {
+            ps.setLong(1, teacherId);
+            ps.setString(2, DiplomaLevel.BACHELOR.name());
+            ps.setTimestamp(3, now);
+            ps.setTimestamp(4, now);
+        });
+        jdbcTemplate.batchUpdate(INSERT_STUDENT_INFORMATION, new ArrayList<>(studentIds.values()), BATCH_SIZE, (ps, studentId) -> {
+            ps.setLong(1, studentId);
+            ps.setTimestamp(2, now);
+            ps.setTimestamp(3, now);
+        });
+
+        if (!teacherIds.isEmpty()) {
+            referenceDataCache.evictQueriesAfterCommit();
+        }
+
+        List<CreatedAccount> created = new ArrayList<>(accounts.size());
+        for (NewAccount account : accounts) {
+            Long userId = userIds.get(String.valueOf(accountIds.get(account.username())));
+            created.add(new CreatedAccount(account, userId, roleIds.get(String.valueOf(userId))));
+        }
+        log.info("Created {} accounts in {} ms", accounts.size(), System.currentTimeMillis() - start);
+        return created;
+    }
+
+    /**
+     * @return id of the new row by user id (as string)
+     */
+    private Map<String, Long> insertRoleRows(String table, List<Long> userIds, Timestamp now) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + table + " (user_id, created_at, updated_at) VALUES (?, ?, ?)",
+                userIds, BATCH_SIZE, (ps, userId) -> {
+                    ps.setLong(1, userId);
+                    ps.setTimestamp(2, now);
+                    ps.setTimestamp(3, now);
+                });
+        return readIds("SELECT id, user_id AS owner FROM " + table + " WHERE user_id IN (:keys)", userIds);
+    }
+
+    /**
+     * Read generated ids back in slices of {@value #BATCH_SIZE} keys
+     *
+     * @param sql query selecting {@code id} and {@code owner} for {@code :keys}
+     * @return generated id by owner key (as string)
+     */
+    private Map<String, Long> readIds(String sql, List<?> keys) {
+        Map<String, Long> ids = new HashMap<>(keys.size() * 2);
+        for (int from = 0; from < keys.size(); from += BATCH_SIZE) {
+            List<?> slice = keys.subList(from, Math.min(from + BATCH_SIZE, keys.size()));
+            namedParameterJdbcTemplate.query(sql, Map.of("keys", slice),
+                    rs -> {
+                        ids.put(rs.getString("owner"), rs.getLong("id"));
+                    });
+        }
+        return ids;
+    }
+}
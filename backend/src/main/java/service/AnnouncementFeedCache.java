@@ -0,0 +1,136 @@
+package service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dto.response.BaseResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import model.enums.AnnouncementTarget;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import util.Hashing;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of the student and teacher announcement feeds (current week and list pages),
+ * keyed by target and view, evicted by the admin announcement writes.
+ * <p>
+ * Each cached feed carries an ETag hashed from its data and paging, and the time it was loaded as
+ * its Last-Modified date, so the feed endpoints answer conditional GETs (If-None-Match /
+ * If-Modified-Since) with 304 from memory. Because the ETag depends only on the content, every
+ * instance computes the same one; writes made on another instance are picked up when the entry
+ * expires ({@code ttl}).
+ */
+@Service
+public class AnnouncementFeedCache {
+
+    private final Cache<FeedKey, Feed<?>> cache;
+    private final ObjectMapper objectMapper;
+
+    public AnnouncementFeedCache(
+            ObjectMapper objectMapper,
+            @Value("${application.announcements.feed-cache.maximum-size:1000}") long maximumSize,
+            @Value("${application.announcements.feed-cache.ttl:PT5M}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "announcement.feed");
+    }
+
+    /**
+     * @param view e.g. {@code week:2025-06-02} or {@code page:0:10}
+     */
+    public record FeedKey(AnnouncementTarget target, String view) {
+
+        public static FeedKey currentWeek(AnnouncementTarget target) {
+            LocalDate monday = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            return new FeedKey(target, "week:" + monday);
+        }
+
+        public static FeedKey page(AnnouncementTarget target, int page, int size) {
+            return new FeedKey(target, "page:" + page + ":" + size);
+        }
+    }
+
+    /**
+     * @param lastModified epoch millis, truncated to seconds as HTTP dates are
+     */
+    public record Feed<T>(BaseResponse<T> response, String etag, long lastModified) {
+
+        /**
+         * Clients must revalidate, Spring answers 304 when the request's ETag or date still matches
+         */
+        public ResponseEntity<BaseResponse<T>> toResponseEntity() {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .body(response);
+        }
+    }
+
+    /**
+     * @param loader builds the feed on a miss; error responses are returned but not cached
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Feed<T> get(FeedKey key, Supplier<BaseResponse<T>> loader) {
+        Feed<T> cached = (Feed<T>) cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        BaseResponse<T> response = loader.get();
+        Feed<T> feed = new Feed<>(response, etagOf(response), System.currentTimeMillis() / 1000 * 1000);
+        if (response.getCode() == 200) {
+            cache.put(key, feed);
+        }
+        return feed;
+    }
+
+    /**
+     * Evict the feeds of the given targets, now and again after the surrounding transaction commits
+     * so a feed loaded meanwhile from the old rows does not stay cached
+     */
+    public void evict(AnnouncementTarget... targets) {
+        Set<AnnouncementTarget> evicted = EnumSet.noneOf(AnnouncementTarget.class);
+        Collections.addAll(evicted, targets);
+        Runnable evict = () -> cache.asMap().keySet().removeIf(key -> evicted.contains(key.target()));
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    private String etagOf(BaseResponse<?> response) {
+        try {
+            String content = objectMapper.writeValueAsString(Arrays.asList(response.getData(), response.getPaging()));
+            return "\"" + Hashing.sha256Hex(content).substring(0, 32) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize announcement feed", e);
+        }
+    }
+}
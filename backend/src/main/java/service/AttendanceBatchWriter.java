@@ -0,0 +1,106 @@
+package service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import model.enums.AttendanceStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the results of one roll call with a single JDBC batch.
+ * <p>
+ * Rows are upserted on (attendance_id, class_student_id), so submitting the same session again
+ * overwrites the statuses instead of adding duplicate history rows. {@code class_student.absence_count}
+ * is adjusted in the same transaction by the difference between the previous and the new statuses.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceBatchWriter {
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final String SELECT_PREVIOUS = """
+            SELECT class_student_id, status FROM attendance_hist
+            WHERE attendance_id = ?
+            FOR UPDATE
+            """;
+    private static final String UPSERT_HISTORY = """
+            INSERT INTO attendance_hist (attendance_id, class_student_id, status, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE status = VALUES(status), updated_at = VALUES(updated_at)
+            """;
+    private static final String ADJUST_ABSENCE_COUNT = """
+            UPDATE class_student SET absence_count = GREATEST(absence_count + ?, 0)
+            WHERE id = ?
+            """;
+
+    private static final String SELECT_ABSENCE_COUNTS = """
+            SELECT id, absence_count FROM class_student WHERE id IN (:ids)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * @return counter changes, only for students whose absence counter changed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<AbsenceCountChange> upsert(Long attendanceId, Map<Long, AttendanceStatus> statusByClassStudentId) {
+        if (statusByClassStudentId.isEmpty()) {
+            return List.of();
+        }
+        long start = System.currentTimeMillis();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        Map<Long, AttendanceStatus> previous = new HashMap<>();
+        jdbcTemplate.query(SELECT_PREVIOUS, rs -> {
+            previous.put(rs.getLong("class_student_id"), AttendanceStatus.valueOf(rs.getString("status")));
+        }, attendanceId);
+
+        List<Map.Entry<Long, AttendanceStatus>> rows = new ArrayList<>(statusByClassStudentId.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_HISTORY, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, attendanceId);
+            ps.setLong(2, row.getKey());
+            ps.setString(3, row.getValue().name());
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+
+        Map<Long, Integer> deltas = new HashMap<>();
+        statusByClassStudentId.forEach((classStudentId, status) -> {
+            AttendanceStatus before = previous.get(classStudentId);
+            int delta = (status.isAbsence() ? 1 : 0) - (before != null && before.isAbsence() ? 1 : 0);
+            if (delta != 0) {
+                deltas.put(classStudentId, delta);
+            }
+        });
+        List<AbsenceCountChange> changes = new ArrayList<>(deltas.size());
+        if (!deltas.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADJUST_ABSENCE_COUNT, new ArrayList<>(deltas.entrySet()), BATCH_SIZE, (ps, row) -> {
+                ps.setInt(1, row.getValue());
+                ps.setLong(2, row.getKey());
+            });
+            // the rows are locked by the UPDATE above, so these are exactly the values this roll call produced
+            namedParameterJdbcTemplate.query(SELECT_ABSENCE_COUNTS, Map.of("ids", deltas.keySet()), rs -> {
+                int after = rs.getInt("absence_count");
+                long classStudentId = rs.getLong("id");
+                changes.add(new AbsenceCountChange(classStudentId, Math.max(after - deltas.get(classStudentId), 0), after));
+            });
+        }
+
+        log.info("Recorded {} attendance results for attendance {} ({} absence counters changed) in {} ms",
+                rows.size(), attendanceId, changes.size(), System.currentTimeMillis() - start);
+        return changes;
+    }
+}
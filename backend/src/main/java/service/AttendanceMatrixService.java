@@ -0,0 +1,186 @@
+package service;
+
+import dto.response.admin.AttendanceDetailResponse;
+import dto.response.admin.AttendanceMatrixResponse;
+import dto.response.teacher.AttendanceListResponse;
+import exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import model.Class;
+import model.enums.AttendanceStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import repository.AttendanceHistoryRepository;
+import repository.AttendanceRepository;
+import repository.ClassRepository;
+import repository.ClassStudentRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Shared attendance read model for the teacher and admin attendance endpoints.
+ * <p>
+ * A class grid is assembled from the session list, the roster and one streamed query over
+ * attendance_hist joined to attendances. Only scalar projections are read, never entity graphs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceMatrixService {
+
+    private static final char NOT_RECORDED = '-';
+
+    private final ClassRepository classRepository;
+    private final ClassStudentRepository classStudentRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceHistoryRepository attendanceHistoryRepository;
+
+    @Transactional(readOnly = true)
+    public AttendanceMatrixResponse getMatrix(Long classId) {
+        Grid grid = loadGrid(classId);
+
+        List<AttendanceMatrixResponse.StudentRow> students = new ArrayList<>(grid.roster().size());
+        for (int row = 0; row < grid.roster().size(); row++) {
+            ClassStudentRepository.RosterRow student = grid.roster().get(row);
+            char[] codes = new char[grid.sessions().size()];
+            for (int column = 0; column < codes.length; column++) {
+                codes[column] = code(grid.cells()[row][column]);
+            }
+            students.add(AttendanceMatrixResponse.StudentRow.builder()
+                    .classStudentId(student.getClassStudentId())
+                    .studentName(student.getFullName())
+                    .studentEmail(student.getEmail())
+                    .statuses(new String(codes))
+                    .build());
+        }
+
+        return AttendanceMatrixResponse.builder()
+                .classId(grid.classEntity().getId())
+                .className(grid.classEntity().getClassName())
+                .sessions(grid.sessions().stream()
+                        .map(session -> AttendanceMatrixResponse.Session.builder()
+                                .attendanceId(session.getId())
+                                .date(session.getDate())
+                                .type(session.getType())
+                                .build())
+                        .toList())
+                .students(students)
+                .build();
+    }
+
+    /**
+     * Per-student history list, same data as {@link #getMatrix(Long)} in the teacher list format
+     */
+    @Transactional(readOnly = true)
+    public List<AttendanceListResponse> getHistoryList(Long classId) {
+        Grid grid = loadGrid(classId);
+
+        List<AttendanceListResponse> responses = new ArrayList<>(grid.roster().size());
+        for (int row = 0; row < grid.roster().size(); row++) {
+            ClassStudentRepository.RosterRow student = grid.roster().get(row);
+            List<AttendanceListResponse.AttendanceHistoriesResponse> histories = new ArrayList<>();
+            for (int column = 0; column < grid.sessions().size(); column++) {
+                AttendanceStatus status = grid.cells()[row][column];
+                if (status == null) {
+                    continue;
+                }
+                AttendanceRepository.SessionRow session = grid.sessions().get(column);
+                histories.add(AttendanceListResponse.AttendanceHistoriesResponse.builder()
+                        .attendanceId(session.getId())
+                        .date(session.getDate())
+                        .attendanceType(session.getType())
+                        .attendanceStatus(status)
+                        .build());
+            }
+            responses.add(AttendanceListResponse.builder()
+                    .classStudentId(student.getClassStudentId())
+                    .studentName(student.getFullName())
+                    .studentEmail(student.getEmail())
+                    .attendanceHistories(histories)
+                    .build());
+        }
+        return responses;
+    }
+
+    /**
+     * One roll call with every enrolled student, including the ones not recorded in it
+     */
+    @Transactional(readOnly = true)
+    public AttendanceDetailResponse getDetail(Long attendanceId) {
+        AttendanceRepository.SessionRow session = attendanceRepository.findSessionRowById(attendanceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Attendance not found with id: " + attendanceId));
+        List<ClassStudentRepository.RosterRow> roster = classStudentRepository.findRosterRowsByClassId(session.getClassId());
+        Map<Long, AttendanceStatus> statuses = new HashMap<>();
+        for (AttendanceHistoryRepository.AttendanceCell cell : attendanceHistoryRepository.findCellsByAttendanceId(attendanceId)) {
+            statuses.put(cell.getClassStudentId(), cell.getStatus());
+        }
+
+        return AttendanceDetailResponse.builder()
+                .attendanceId(session.getId())
+                .classId(session.getClassId())
+                .className(session.getClassName())
+                .date(session.getDate())
+                .type(session.getType())
+                .totalStudents(roster.size())
+                .totalRecorded(statuses.size())
+                .students(roster.stream()
+                        .map(student -> AttendanceDetailResponse.StudentStatus.builder()
+                                .classStudentId(student.getClassStudentId())
+                                .studentName(student.getFullName())
+                                .studentEmail(student.getEmail())
+                                .status(statuses.get(student.getClassStudentId()))
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private Grid loadGrid(Long classId) {
+        Class classEntity = classRepository.findWithScheduleById(classId)
+                .orElseThrow(() -> new ResourceNotFoundException("Class not found with id: " + classId));
+        List<AttendanceRepository.SessionRow> sessions = attendanceRepository.findSessionRowsByClassId(classId);
+        List<ClassStudentRepository.RosterRow> roster = classStudentRepository.findRosterRowsByClassId(classId);
+
+        Map<Long, Integer> columnBySession = new HashMap<>(sessions.size() * 2);
+        for (int column = 0; column < sessions.size(); column++) {
+            columnBySession.put(sessions.get(column).getId(), column);
+        }
+        Map<Long, Integer> rowByStudent = new HashMap<>(roster.size() * 2);
+        for (int row = 0; row < roster.size(); row++) {
+            rowByStudent.put(roster.get(row).getClassStudentId(), row);
+        }
+
+        AttendanceStatus[][] cells = new AttendanceStatus[roster.size()][sessions.size()];
+        try (Stream<AttendanceHistoryRepository.AttendanceCell> stream = attendanceHistoryRepository.streamCellsByClassId(classId)) {
+            stream.forEach(cell -> {
+                Integer row = rowByStudent.get(cell.getClassStudentId());
+                Integer column = columnBySession.get(cell.getAttendanceId());
+                if (row != null && column != null) {
+                    cells[row][column] = cell.getStatus();
+                }
+            });
+        }
+        return new Grid(classEntity, sessions, roster, cells);
+    }
+
+    private static char code(AttendanceStatus status) {
+        if (status == null) {
+            return NOT_RECORDED;
+        }
+        return switch (status) {
+            case PRESENT -> 'P';
+            case ABSENT -> 'A';
+            case LATE -> 'L';
+            case EXCUSED -> 'E';
+        };
+    }
+
+    private record Grid(Class classEntity,
+                        List<AttendanceRepository.SessionRow> sessions,
+                        List<ClassStudentRepository.RosterRow> roster,
+                        AttendanceStatus[][] cells) {
+    }
+}
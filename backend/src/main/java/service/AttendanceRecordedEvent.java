@@ -0,0 +1,11 @@
+package service;
+
+import java.util.List;
+
+/**
+ * Published when a roll call is recorded; delivered to listeners after the transaction commits.
+ *
+ * @param changes enrollments whose absence counter changed
+ */
+public record AttendanceRecordedEvent(Long classId, Long attendanceId, List<AbsenceCountChange> changes) {
+}
@@ -4,6 +4,7 @@ import dto.request.shared.AuthenticationRequest;
 import dto.request.shared.RefreshTokenRequest;
 import dto.response.shared.AuthenticationResponse;
 import exception.AuthenticationException;
+import exception.ServiceBusyException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import model.Account;
@@ -14,14 +15,15 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import repository.AccountRepository;
 import repository.TokenRepository;
 import repository.UserRepository;
+import util.Hashing;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -33,6 +35,10 @@ public class AuthenticationService {
     private final AccountRepository accountRepository;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final TokenValidationCache tokenValidationCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final RefreshSessionStore refreshSessionStore;
+    private final TokenRevocationFeed tokenRevocationFeed;
 
     /**
      * Authenticate a user and return JWT tokens
@@ -61,12 +67,17 @@ public class AuthenticationService {
             User user = userRepository.findByAccount(account)
                     .orElseThrow(() -> new AuthenticationException("Can't find user information, try again later"));
 
-            // Generate tokens
-            String accessToken = jwtService.generateAccessToken(user);
-            String refreshToken = jwtService.generateRefreshToken(user);
+            // Generate tokens, both belong to a new refresh session
+            TokenSubject subject = TokenSubject.of(user, refreshSessionStore.newSessionId());
+            String accessToken = jwtService.generateAccessToken(subject);
+            String refreshToken = jwtService.generateRefreshToken(subject);
+            refreshSessionStore.create(subject.sessionId(), user.getId(),
+                    Hashing.sha256Hex(refreshToken), jwtService.refreshTokenTtl());
 
-            // Save the token
-            saveUserToken(user, accessToken);
+            // Save the token, not needed when tokens are revoked through their version
+            if (!tokenVersionRegistry.isEnabled()) {
+                saveUserToken(user, accessToken, subject.sessionId());
+            }
 
             return AuthenticationResponse.builder()
                     .accessToken(accessToken)
@@ -78,18 +89,23 @@ public class AuthenticationService {
 
         } catch (BadCredentialsException e) {
             throw new AuthenticationException("Invalid username or password");
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             throw new AuthenticationException("Authentication failed", e);
         }
     }
 
     /**
-     * Save user token
+     * Save user token. Only the SHA-256 of the JWT is stored, so rows have a fixed size
+     * and the unique index stays small.
      */
-    private void saveUserToken(User user, String jwtToken) {
+    private void saveUserToken(User user, String jwtToken, String sessionId) {
         Token token = Token.builder()
                 .user(user)
-                .token(jwtToken)
+                .tokenHash(Hashing.sha256Hex(jwtToken))
+                .sessionId(sessionId)
+                .expiresAt(LocalDateTime.now().plus(jwtService.accessTokenTtl()))
                 .expired(false)
                 .revoked(false)
                 .build();
@@ -98,70 +114,118 @@ public class AuthenticationService {
     }
 
     /**
-     * Revoke all tokens for user
+     * Revoke all tokens for user with a single UPDATE
      */
     private void revokeAllUserTokens(User user) {
-        var validUserTokens = tokenRepository.findAllValidTokensByUser(user.getId());
-        if (validUserTokens.isEmpty()) {
+        refreshSessionStore.revokeAllOfUser(user.getId());
+        if (tokenVersionRegistry.isEnabled()) {
+            tokenVersionRegistry.revokeAll(user.getUsername());
+            tokenRevocationFeed.publishUser(user.getUsername());
+            return;
+        }
+        int revoked = tokenRepository.revokeAllByUserId(user.getId());
+        if (revoked == 0) {
             return;
         }
 
-        validUserTokens.forEach(token -> {
-            token.setExpired(true);
-            token.setRevoked(true);
-        });
-
-        tokenRepository.saveAll(validUserTokens);
+        tokenValidationCache.invalidateUser(user.getUsername());
+        tokenRevocationFeed.publishUser(user.getUsername());
         // Log the number of tokens revoked for debugging
-        log.info("Revoked {} tokens for user ID: {}", validUserTokens.size(), user.getId());
+        log.info("Revoked {} tokens for user ID: {}", revoked, user.getId());
     }
 
     /**
-     * Refresh a JWT token
+     * Refresh a JWT token. The user comes from the token's claims and the refresh session is
+     * rotated with one UPDATE, so a refresh runs the same few statements however many sessions
+     * the user has. A refresh token that was already rotated away revokes its whole session and
+     * its access tokens, unless it was rotated less than the reuse grace ago: two tabs refreshing
+     * at once then get one success and one rejection, and the session stays alive.
      * @param request refresh token request containing the refresh token
      * @return new access and refresh tokens
      */
-    @Transactional
+    @Transactional(noRollbackFor = AuthenticationException.class)
     public AuthenticationResponse refreshToken(RefreshTokenRequest request) {
         final String refreshToken = request.getRefreshToken();
-        final String username = jwtService.extractUsername(refreshToken);
-        
-        if (username == null) {
-            throw new AuthenticationException("Invalid refresh token");
-        }
+        final ParsedToken parsedToken = jwtService.tryParse(refreshToken)
+                .filter(token -> !token.isExpired())
+                .orElseThrow(() -> new AuthenticationException("Invalid refresh token"));
+        final String sessionId = parsedToken.sessionId();
 
-        Account account = accountRepository.findByUsername(username)
-                .orElseThrow(() -> new AuthenticationException("Account not found with username: " + username));
+        // Tokens issued before refresh sessions existed carry no session, the user signs in again
+        if (sessionId == null || parsedToken.userId() == null || parsedToken.role() == null) {
+            throw new AuthenticationException("Invalid or expired refresh token");
+        }
 
-        if (account.getStatus() == AccountStatus.BANNED) {
-            throw new AuthenticationException("Account is banned");
+        // Refresh tokens from before a revocation carry an old version
+        if (tokenVersionRegistry.isEnabled()
+                && !tokenVersionRegistry.isCurrent(parsedToken.subject(), parsedToken.tokenVersion())) {
+            throw new AuthenticationException("Invalid or expired refresh token");
         }
 
-        User user = userRepository.findByAccount(account)
-                .orElseThrow(() -> new AuthenticationException("Can't find user information, try again later"));
+        // Generate new tokens for the same session
+        TokenSubject subject = TokenSubject.of(parsedToken);
+        String accessToken = jwtService.generateAccessToken(subject);
+        String newRefreshToken = jwtService.generateRefreshToken(subject);
 
-        if (!jwtService.isTokenValid(refreshToken, user)) {
+        // Fails for a reused, revoked or expired refresh token and for banned accounts
+        final String refreshTokenHash = Hashing.sha256Hex(refreshToken);
+        if (!refreshSessionStore.rotate(sessionId, refreshTokenHash,
+                Hashing.sha256Hex(newRefreshToken), jwtService.refreshTokenTtl())) {
+            // A concurrent refresh of the same token won, the client uses the tokens it returned
+            if (refreshSessionStore.wasJustRotatedFrom(sessionId, refreshTokenHash)) {
+                throw new AuthenticationException("Refresh token was already rotated");
+            }
+            revokeSession(sessionId, subject.username());
             throw new AuthenticationException("Invalid or expired refresh token");
         }
 
-        // Generate new tokens
-        String accessToken = jwtService.generateAccessToken(user);
-        String newRefreshToken = jwtService.generateRefreshToken(user);
-
-        // Update user's tokens - revoke old ones
-        revokeAllUserTokens(user);
-        // Save new token
-        saveUserToken(user, accessToken);
+        if (!tokenVersionRegistry.isEnabled()) {
+            // Revoke the session's previous access tokens and save the new one
+            revokeSessionAccessTokens(sessionId, subject.username());
+            saveUserToken(userRepository.getReferenceById(subject.userId()), accessToken, sessionId);
+        }
 
         return AuthenticationResponse.builder()
                 .accessToken(accessToken)
                 .refreshToken(newRefreshToken)
-                .username(user.getUsername())
-                .fullName(user.getFullName())
-                .role(user.getRole())
+                .username(subject.username())
+                .fullName(userRepository.findFullNameById(subject.userId()).orElse(null))
+                .role(subject.role())
                 .build();
     }
     
+    /**
+     * End a refresh session whose token was replayed, together with the access tokens issued for it.
+     * In token version mode access tokens cannot be revoked per session, so every token of the
+     * user is revoked.
+     */
+    private void revokeSession(String sessionId, String username) {
+        refreshSessionStore.revoke(sessionId);
+        if (tokenVersionRegistry.isEnabled()) {
+            tokenVersionRegistry.revokeAll(username);
+            tokenRevocationFeed.publishUser(username);
+        } else {
+            revokeSessionAccessTokens(sessionId, username);
+        }
+        log.warn("Refresh token of session {} was reused, session revoked", sessionId);
+    }
+
+    /**
+     * Table mode: revoke the access tokens issued for one session and evict just those, here and
+     * on the other nodes; the user's other sessions keep their cached tokens
+     */
+    private void revokeSessionAccessTokens(String sessionId, String username) {
+        List<String> tokenHashes = tokenRepository.findValidTokenHashesBySessionId(sessionId);
+        if (tokenHashes.isEmpty()) {
+            return;
+        }
+        tokenRepository.revokeBySessionId(sessionId);
+        for (String tokenHash : tokenHashes) {
+            tokenValidationCache.invalidateHash(tokenHash);
+            tokenRevocationFeed.publishToken(username, tokenHash);
+        }
+    }
+
     /**
      * Logout a user by directly invalidating the token from the request
      * This is a more direct approach than trying to find the user from the security context
@@ -179,42 +243,38 @@ public class AuthenticationService {
         try {
             // Extract the token from the Authorization header
             String token = authHeader.substring(7);
-            log.debug("Processing logout for token: {}", token);
-            
-            // Get token info from repository (optional, for detailed logging)
-            Optional<Token> tokenInfo = tokenRepository.findByToken(token);
-            
-            if (tokenInfo.isPresent()) {
-                Token tokenEntity = tokenInfo.get();
-                
-                // If token is already invalidated, return success
-                if (tokenEntity.isExpired() && tokenEntity.isRevoked()) {
-                    log.info("Token was already invalidated");
-                    return true;
-                }
-                
-                // Get user for logging purposes
-                User user = tokenEntity.getUser();
-                log.info("Found token for user: {}", user.getUsername());
-                
-                // Update the token status directly
-                tokenEntity.setExpired(true);
-                tokenEntity.setRevoked(true);
-                tokenRepository.save(tokenEntity);
-                
-                log.info("Successfully invalidated token for user: {}", user.getUsername());
-            } else {
-                // Use the direct revoke method to ensure we catch tokens that might not be
-                // properly connected to a user (fallback mechanism)
-                int affected = tokenRepository.revokeToken(token);
-                log.info("Token invalidation affected {} records", affected);
-                
-                if (affected == 0) {
-                    log.warn("Token not found in database");
+            tokenValidationCache.invalidate(token);
+
+            // End the refresh session the token was issued for
+            ParsedToken parsedToken = jwtService.tryParse(token).orElse(null);
+            if (parsedToken != null && parsedToken.sessionId() != null) {
+                refreshSessionStore.revoke(parsedToken.sessionId());
+            }
+
+            if (tokenVersionRegistry.isEnabled()) {
+                // A single token cannot be revoked in this mode, end every session of its user
+                String username = parsedToken != null ? parsedToken.subject() : null;
+                if (username == null || !tokenVersionRegistry.revokeAll(username)) {
+                    log.warn("Logout failed: token does not belong to a known user");
                     return false;
                 }
+                tokenRevocationFeed.publishUser(username);
+                SecurityContextHolder.clearContext();
+                return true;
             }
-            
+
+            // Matched rows are counted, so an already revoked token still succeeds
+            String tokenHash = Hashing.sha256Hex(token);
+            int affected = tokenRepository.revokeByTokenHash(tokenHash);
+            if (affected == 0) {
+                log.warn("Token not found in database");
+                return false;
+            }
+            if (parsedToken != null) {
+                tokenRevocationFeed.publishToken(parsedToken.subject(), tokenHash);
+            }
+            log.info("Token invalidated");
+
             // Clear security context
             SecurityContextHolder.clearContext();
             return true;
@@ -237,12 +297,12 @@ public class AuthenticationService {
                 return null;
             }
             
-            if (!(authentication.getPrincipal() instanceof UserDetails userDetails)) {
-                log.warn("Logout failed: Authentication principal is not a UserDetails instance");
+            if (!(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
+                log.warn("Logout failed: Authentication principal is not an authenticated user");
                 return null;
             }
             
-            String username = userDetails.getUsername();
+            String username = principal.username();
             log.debug("Processing logout for username: {}", username);
             
             // Find the account first, then use it to find the user
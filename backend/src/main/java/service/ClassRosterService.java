@@ -0,0 +1,137 @@
+package service;
+
+import dto.response.admin.ClassDetailResponse;
+import dto.response.admin.ClassListResponse;
+import exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import model.Class;
+import model.enums.ExaminationType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import repository.ClassRepository;
+import repository.ClassStudentRepository;
+import repository.StudentExaminationRepository;
+import util.IdPagination;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared class read model for the admin, teacher and student class endpoints.
+ * <p>
+ * Detail: the roster and the grades of the whole class are read as projected rows with one query
+ * each, absence counts come from the counters on each enrollment. Entities are avoided there: the
+ * eager one-to-ones of Student and User would cost one query per student.
+ * List: a page of class ids is turned into rows with a single query.
+ * Neither path issues queries per student or per row.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClassRosterService {
+
+    private static final List<ExaminationType> ROSTER_EXAMS = List.of(ExaminationType.MIDTERM, ExaminationType.FINAL);
+
+    private final ClassRepository classRepository;
+    private final ClassStudentRepository classStudentRepository;
+    private final StudentExaminationRepository studentExaminationRepository;
+
+    /**
+     * @param id                   class id
+     * @param includeTuitionStatus whether the caller may see each student's tuition status (admin only)
+     */
+    @Transactional(readOnly = true)
+    public ClassDetailResponse getClassDetail(Long id, boolean includeTuitionStatus) {
+        Class classEntity = classRepository.findDetailById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Class not found"));
+        List<ClassStudentRepository.DetailRosterRow> roster = classStudentRepository.findDetailRosterRowsByClassId(id);
+        Integer studentCount = classRepository.countByStudent(id);
+
+        Map<Long, Map<ExaminationType, StudentExaminationRepository.GradeRow>> exams = new HashMap<>();
+        for (StudentExaminationRepository.GradeRow exam : studentExaminationRepository.findGradeRowsByClassIdAndTypes(id, ROSTER_EXAMS)) {
+            exams.computeIfAbsent(exam.getClassStudentId(), k -> new EnumMap<>(ExaminationType.class))
+                    .putIfAbsent(exam.getType(), exam);
+        }
+
+        return ClassDetailResponse.builder()
+                .id(classEntity.getId())
+                .className(classEntity.getClassName())
+                .teacherId(classEntity.getTeacher().getId())
+                .teacherFullName(classEntity.getTeacher().getUser().getFullName())
+                .teacherEmail(classEntity.getTeacher().getUser().getEmail())
+                .teacherAvatarUrl(classEntity.getTeacher().getUser().getAvatarUrl())
+                .subjectId(classEntity.getSubject().getId())
+                .subjectCode(classEntity.getSubject().getCode())
+                .subjectName(classEntity.getSubject().getName())
+                .startDate(classEntity.getStartDate())
+                .endDate(classEntity.getEndDate())
+                .description(classEntity.getDescription())
+                .tuition(classEntity.getTuition())
+                .tuitionDueDate(classEntity.getTuitionDueDate())
+                .finalTermWeight(classEntity.getFinalTermWeight())
+                .dayOfWeek(classEntity.getSchedules().getDayOfWeek())
+                .periodStart(classEntity.getSchedules().getPeriodStart())
+                .periodEnd(classEntity.getSchedules().getPeriodEnd())
+                .room(classEntity.getSchedules().getRoom())
+                .studentCount(studentCount)
+                .absenceWarningThreshold(classEntity.getAbsenceWarningThreshold())
+                .absenceLimit(classEntity.getAbsenceLimit())
+                .classStudentResponses(roster.stream().map(row -> {
+                    Map<ExaminationType, StudentExaminationRepository.GradeRow> studentExams =
+                            exams.getOrDefault(row.getClassStudentId(), Map.of());
+                    StudentExaminationRepository.GradeRow midtermExam = studentExams.get(ExaminationType.MIDTERM);
+                    StudentExaminationRepository.GradeRow finalExam = studentExams.get(ExaminationType.FINAL);
+                    return ClassDetailResponse.ClassStudentResponse.builder()
+                            .id(row.getClassStudentId())
+                            .fullName(row.getFullName())
+                            .email(row.getEmail())
+                            .avatarUrl(row.getAvatarUrl())
+                            .absenceCount(row.getAbsenceCount())
+                            .tuitionStatus(includeTuitionStatus ? row.getTuitionStatus() : null)
+                            .midtermGrade(midtermExam != null ? midtermExam.getGrade() : null)
+                            .isAbsentMidterm(midtermExam != null && Boolean.TRUE.equals(midtermExam.getAbsent()))
+                            .finalTermGrade(finalExam != null ? finalExam.getGrade() : null)
+                            .isAbsentFinalTerm(finalExam != null && Boolean.TRUE.equals(finalExam.getAbsent()))
+                            .build();
+                }).toList())
+                .build();
+    }
+
+    /**
+     * @param classIds one page of class ids, in display order
+     * @return list rows in the same order as {@code classIds}
+     */
+    @Transactional(readOnly = true)
+    public List<ClassListResponse> getClassList(List<Long> classIds) {
+        if (classIds.isEmpty()) {
+            return List.of();
+        }
+        return IdPagination.inIdOrder(classIds, classRepository.findListRowsByIds(classIds), ClassRepository.ClassListRow::getId)
+                .stream()
+                .map(row -> ClassListResponse.builder()
+                        .id(row.getId())
+                        .className(row.getClassName())
+                        .teacherId(row.getTeacherId())
+                        .teacherFullName(row.getTeacherFullName())
+                        .teacherEmail(row.getTeacherEmail())
+                        .teacherAvatarUrl(row.getTeacherAvatarUrl())
+                        .subjectId(row.getSubjectId())
+                        .subjectName(row.getSubjectName())
+                        .startDate(row.getStartDate())
+                        .endDate(row.getEndDate())
+                        .description(row.getDescription())
+                        .tuition(row.getTuition())
+                        .tuitionDueDate(row.getTuitionDueDate())
+                        .finalTermWeight(row.getFinalTermWeight())
+                        .dayOfWeek(row.getDayOfWeek())
+                        .periodStart(row.getPeriodStart())
+                        .periodEnd(row.getPeriodEnd())
+                        .room(row.getRoom())
+                        .studentCount(row.getStudentCount() != null ? row.getStudentCount().intValue() : 0)
+                        .build())
+                .toList();
+    }
+}
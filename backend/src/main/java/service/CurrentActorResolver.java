@@ -0,0 +1,89 @@
+package service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dto.CurrentActor;
+import exception.AuthenticationException;
+import exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Resolves the authenticated caller to its user/admin/teacher/student ids.
+ * Results are cached per username for a short time, so services no longer walk
+ * account → user → student/teacher on every request.
+ */
+@Service
+@Slf4j
+public class CurrentActorResolver {
+
+    private final UserRepository userRepository;
+    private final Cache<String, CurrentActor> cache;
+
+    public CurrentActorResolver(
+            UserRepository userRepository,
+            @Value("${application.security.actor-cache.maximum-size:10000}") long maximumSize,
+            @Value("${application.security.actor-cache.ttl:PT5M}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "current.actor");
+    }
+
+    /**
+     * @return the caller of the current request
+     * @throws AuthenticationException if the request is not authenticated or the account no longer exists
+     */
+    public CurrentActor current() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth.getName() == null) {
+            throw new AuthenticationException("User is not authenticated");
+        }
+        return resolve(auth.getName());
+    }
+
+    public CurrentActor resolve(String username) {
+        CurrentActor actor = cache.get(username, key -> userRepository.findCurrentActorByUsername(key).orElse(null));
+        if (actor == null) {
+            throw new AuthenticationException("User not found with username: " + username);
+        }
+        return actor;
+    }
+
+    public Long currentStudentId() {
+        CurrentActor actor = current();
+        if (actor.studentId() == null) {
+            throw new ResourceNotFoundException("Student", "username", actor.username());
+        }
+        return actor.studentId();
+    }
+
+    public Long currentTeacherId() {
+        CurrentActor actor = current();
+        if (actor.teacherId() == null) {
+            throw new ResourceNotFoundException("Teacher", "username", actor.username());
+        }
+        return actor.teacherId();
+    }
+
+    public Long currentAdminId() {
+        CurrentActor actor = current();
+        if (actor.adminId() == null) {
+            throw new ResourceNotFoundException("Admin", "username", actor.username());
+        }
+        return actor.adminId();
+    }
+}
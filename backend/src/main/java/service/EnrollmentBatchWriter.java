@@ -0,0 +1,107 @@
+package service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import model.enums.ClassStudentStatus;
+import model.enums.PaymentMethod;
+import model.enums.TuitionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes class enrollments and their tuition records with JDBC batches.
+ * <p>
+ * {@code ClassStudent} and {@code TuitionRecord} use IDENTITY ids, which makes Hibernate insert
+ * one row per statement. This writer sends {@value #BATCH_SIZE} rows per batch instead (the driver
+ * rewrites each batch into a multi-row INSERT) and reads the generated enrollment ids back with
+ * one query per batch. It joins the caller's transaction, so the rows are not in the persistence
+ * context: callers should not touch {@code Class.students} afterwards in the same session.
+ * <p>
+ * Ids are read back by (class_id, student_id), which uk_class_student_class_student makes unique.
+ * Callers hold the class and student row locks and pass only students not yet enrolled, so every
+ * row read back was inserted by this call. An enrollment written around the locks fails the insert
+ * on the unique key and rolls the transaction back, so it cannot be mapped to a second tuition record.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EnrollmentBatchWriter {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_ENROLLMENT = """
+            INSERT INTO class_student (student_id, class_id, status, absence_count, created_at, updated_at)
+            VALUES (?, ?, ?, 0, ?, ?)
+            """;
+    private static final String SELECT_ENROLLMENT_IDS = """
+            SELECT id, student_id FROM class_student
+            WHERE class_id = :classId AND student_id IN (:studentIds)
+            """;
+    private static final String INSERT_TUITION = """
+            INSERT INTO tuition_records (class_student_id, status, method, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * @return generated enrollment (class_student) id by student id
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, Long> enroll(Long classId, List<Long> studentIds, TuitionStatus tuitionStatus, PaymentMethod method) {
+        if (studentIds.isEmpty()) {
+            return Map.of();
+        }
+        long start = System.currentTimeMillis();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(INSERT_ENROLLMENT, studentIds, BATCH_SIZE, (ps, studentId) -> {
+            ps.setLong(1, studentId);
+            ps.setLong(2, classId);
+            ps.setString(3, ClassStudentStatus.ENROLLED.name());
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+
+        Map<Long, Long> enrollmentIds = new HashMap<>(studentIds.size() * 2);
+        for (int from = 0; from < studentIds.size(); from += BATCH_SIZE) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("classId", classId)
+                    .addValue("studentIds", studentIds.subList(from, Math.min(from + BATCH_SIZE, studentIds.size())));
+            namedParameterJdbcTemplate.query(SELECT_ENROLLMENT_IDS, params,
+                    rs -> {
+                        enrollmentIds.put(rs.getLong("student_id"), rs.getLong("id"));
+                    });
+        }
+
+        if (enrollmentIds.size() != studentIds.size()) {
+            throw new IllegalStateException("Read back " + enrollmentIds.size() + " enrollments of class "
+                    + classId + " for " + studentIds.size() + " students, duplicate student ids?");
+        }
+
+        List<Long> classStudentIds = new ArrayList<>(enrollmentIds.values());
+        jdbcTemplate.batchUpdate(INSERT_TUITION, classStudentIds, BATCH_SIZE, (ps, classStudentId) -> {
+            ps.setLong(1, classStudentId);
+            ps.setString(2, tuitionStatus.name());
+            ps.setString(3, method.name());
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+
+        log.info("Enrolled {} students into class {} in {} ms",
+                studentIds.size(), classId, System.currentTimeMillis() - start);
+        return enrollmentIds;
+    }
+}
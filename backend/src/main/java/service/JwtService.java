@@ -2,21 +2,24 @@ package service;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
-import model.User;
-import model.enums.Role;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
@@ -32,6 +35,40 @@ public class JwtService {
     @Value("${application.security.jwt.refresh-token.expiration}")
     private long refreshTokenExpiration;
 
+    // decode secret và build parser một lần, dùng lại cho mọi request
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    /**
+     * verify chữ ký và parse token một lần duy nhất
+     *
+     * @param token JWT token dạng string
+     * @return ParsedToken chứa subject, role, expiry
+     * @throws JwtException nếu token không hợp lệ hoặc đã hết hạn
+     */
+    public ParsedToken parse(String token) {
+        return ParsedToken.from(extractAllClaims(token));
+    }
+
+    /**
+     * giống {@link #parse(String)} nhưng trả về empty thay vì throw
+     */
+    public Optional<ParsedToken> tryParse(String token) {
+        try {
+            return Optional.of(parse(token));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -47,26 +84,36 @@ public class JwtService {
 
     /**
      * generate standard access token cho user.
-     * token chứa username và standard JWT claims.
+     * token chứa username, role, token version, user id và session id (refresh token family).
      *
-     * @param userDetails user details để generate token
+     * @param subject identity ghi vào claims
      * @return JWT access token
      */
-    public String generateAccessToken(User userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("role", userDetails.getRole());
-        return generateToken(claims, userDetails, accessTokenExpiration);
+    public String generateAccessToken(TokenSubject subject) {
+        return generateToken(claimsOf(subject), subject.username(), accessTokenExpiration);
     }
 
-    public String generateRefreshToken(User userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("role", userDetails.getRole());
-        return generateToken(claims, userDetails, refreshTokenExpiration);
+    public String generateRefreshToken(TokenSubject subject) {
+        return generateToken(claimsOf(subject), subject.username(), refreshTokenExpiration);
+    }
+
+    /**
+     * thời gian sống của access token, dùng để tính expires_at khi lưu token
+     */
+    public Duration accessTokenTtl() {
+        return Duration.ofMillis(accessTokenExpiration);
+    }
+
+    /**
+     * thời gian sống của refresh token, cũng là hạn của refresh session
+     */
+    public Duration refreshTokenTtl() {
+        return Duration.ofMillis(refreshTokenExpiration);
     }
 
     public String generateToken(
             Map<String, Object> extraClaims,
-            User userDetails,
+            String subject,
             long expiration
     ) {
         final long now = System.currentTimeMillis();
@@ -74,10 +121,12 @@ public class JwtService {
         try {
             return Jwts.builder()
                     .claims(extraClaims)
-                    .subject(userDetails.getUsername())
+                    .subject(subject)
+                    // jti: hai token cùng claims phát trong cùng một giây vẫn khác nhau
+                    .id(UUID.randomUUID().toString())
                     .issuedAt(new Date(now))
                     .expiration(new Date(now + expiration))
-                    .signWith(getSigningKey())
+                    .signWith(signingKey)
                     .compact();
         } catch (Exception e) {
             throw new RuntimeException("Error generating JWT token", e);
@@ -85,17 +134,23 @@ public class JwtService {
     }
 
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    private static Map<String, Object> claimsOf(TokenSubject subject) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", subject.role());
+        claims.put(ParsedToken.TOKEN_VERSION_CLAIM, subject.tokenVersion());
+        claims.put(ParsedToken.USER_ID_CLAIM, subject.userId());
+        claims.put(ParsedToken.SESSION_ID_CLAIM, subject.sessionId());
+        return claims;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return tryParse(token)
+                .map(parsedToken -> isTokenValid(parsedToken, userDetails))
+                .orElse(false);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(ParsedToken token, UserDetails userDetails) {
+        return userDetails.getUsername().equals(token.subject()) && !token.isExpired();
     }
 
     /**
@@ -107,9 +162,7 @@ public class JwtService {
      */
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            return jwtParser
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (SignatureException e) {
@@ -118,8 +171,4 @@ public class JwtService {
             throw new JwtException("Invalid JWT token");
         }
     }
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
-    }
 }
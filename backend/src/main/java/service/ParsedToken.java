@@ -0,0 +1,36 @@
+package service;
+
+import io.jsonwebtoken.Claims;
+import model.enums.Role;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature has already been verified by {@link JwtService#parse(String)}.
+ * Pass this around instead of the raw token so the token is verified once per request.
+ */
+public record ParsedToken(String subject, Role role, Date issuedAt, Date expiration,
+                          Integer tokenVersion, Long userId, String sessionId, Claims claims) {
+
+    static final String TOKEN_VERSION_CLAIM = "tv";
+    static final String USER_ID_CLAIM = "uid";
+    static final String SESSION_ID_CLAIM = "sid";
+
+    static ParsedToken from(Claims claims) {
+        String role = claims.get("role", String.class);
+        return new ParsedToken(
+                claims.getSubject(),
+                role != null ? Role.valueOf(role) : null,
+                claims.getIssuedAt(),
+                claims.getExpiration(),
+                claims.get(TOKEN_VERSION_CLAIM, Integer.class),
+                claims.get(USER_ID_CLAIM, Long.class),
+                claims.get(SESSION_ID_CLAIM, String.class),
+                claims
+        );
+    }
+
+    public boolean isExpired() {
+        return expiration == null || expiration.before(new Date());
+    }
+}
@@ -0,0 +1,213 @@
+package service;
+
+import exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The application's {@link PasswordEncoder}: BCrypt running on a dedicated, size-bounded pool.
+ * <p>
+ * Hashing is CPU bound, so on request threads a login storm would take every core and starve
+ * other endpoints. Here at most {@code threads} hashes run at once; callers wait for their result,
+ * and once {@code queue-capacity} hashes are waiting new ones are rejected with
+ * {@link ServiceBusyException} instead of piling up. Each waiting caller holds a request thread, so
+ * {@code threads} plus {@code queue-capacity} must stay well below Tomcat's 200 request threads, or a
+ * login storm blocks the other endpoints while it waits. Bulk jobs ({@link #encodeAll(List)}) share at
+ * most {@code bulk-threads} of the workers, so a running import leaves the rest to interactive logins.
+ * <p>
+ * The cost is {@code strength}, or with {@code adaptive} the highest cost (up to
+ * {@code max-strength}) whose hash fits in {@code target-duration} on this machine, measured on
+ * startup. {@link #upgradeEncoding(String)} reports hashes made with a lower cost, so Spring
+ * Security rehashes them on the next successful login (see {@link UserDetailsServiceImpl}).
+ */
+@Service
+@Slf4j
+public class PasswordHashingService implements PasswordEncoder {
+
+    private static final int MIN_STRENGTH = 4;
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore bulkPermits;
+    private final Duration waitTimeout;
+    private final Timer hashTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(
+            @Value("${application.security.password-hashing.threads:0}") int threads,
+            @Value("${application.security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${application.security.password-hashing.bulk-threads:0}") int bulkThreads,
+            @Value("${application.security.password-hashing.wait-timeout:PT10S}") Duration waitTimeout,
+            @Value("${application.security.password-hashing.strength:10}") int strength,
+            @Value("${application.security.password-hashing.adaptive:false}") boolean adaptive,
+            @Value("${application.security.password-hashing.max-strength:14}") int maxStrength,
+            @Value("${application.security.password-hashing.target-duration:PT0.25S}") Duration targetDuration,
+            MeterRegistry meterRegistry
+    ) {
+        int cost = adaptive ? calibrate(strength, maxStrength, targetDuration) : strength;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int bulkSize = bulkThreads > 0 ? Math.min(bulkThreads, poolSize) : Math.max(1, poolSize / 2);
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.bulkPermits = new Semaphore(bulkSize);
+        this.waitTimeout = waitTimeout;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        new ExecutorServiceMetrics(executor, "password.hashing", List.of()).bindTo(meterRegistry);
+        Gauge.builder("password.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a worker")
+                .register(meterRegistry);
+        this.hashTimer = meterRegistry.timer("password.hashing.duration");
+        this.rejected = meterRegistry.counter("password.hashing.rejected");
+
+        log.info("Password hashing: BCrypt cost {}, {} threads ({} for bulk jobs), queue {}",
+                cost, poolSize, bulkSize, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hash many passwords in parallel for a bulk job. Every bulk job together has at most
+     * {@code bulk-threads} tasks submitted at a time, so a large batch neither overflows the queue
+     * nor takes the workers interactive logins need.
+     *
+     * @return the hashes, in the order of {@code rawPasswords}
+     * @throws ServiceBusyException if the queue is full of interactive work; hashes already submitted
+     *                              still finish, which returns their permits
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                bulkPermits.acquire();
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            return hashTimer.recordCallable(() -> encoder.encode(rawPassword));
+                        } finally {
+                            bulkPermits.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    bulkPermits.release();
+                    throw e;
+                }
+            }
+            List<String> hashes = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while hashing passwords", e);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Password hashing is busy, please try again in a moment", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Only parses the hash header, so it runs on the caller's thread
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> hashTimer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many sign-in requests, please try again in a moment", e);
+        }
+        try {
+            return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceBusyException("Too many sign-in requests, please try again in a moment", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Each extra cost step doubles the hash time, so raise the cost while twice the last
+     * measurement still fits the target
+     */
+    private static int calibrate(int strength, int maxStrength, Duration targetDuration) {
+        int cost = Math.max(MIN_STRENGTH, strength);
+        long targetNanos = targetDuration.toNanos();
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(cost);
+        probe.encode("calibration"); // warm-up
+        long elapsed = timeHash(probe);
+        while (cost < maxStrength && elapsed * 2 <= targetNanos) {
+            cost++;
+            elapsed = timeHash(new BCryptPasswordEncoder(cost));
+        }
+        log.info("BCrypt calibration: cost {} takes {} ms", cost, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return cost;
+    }
+
+    private static long timeHash(BCryptPasswordEncoder probe) {
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,110 @@
+package service;
+
+import configuration.SecondLevelCacheConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Explicit eviction and metrics for the Hibernate second-level cache of reference data
+ * (see {@link SecondLevelCacheConfig}).
+ * <p>
+ * Hibernate keeps the cache in step with writes made through the entity manager, but not with JDBC
+ * writes, and it does not refresh the inverse side of one-to-one associations (e.g.
+ * {@code Teacher.homeroom} when a homeroom changes teacher). The admin write paths therefore evict
+ * the affected entries after their transaction commits. Writes on other instances are only
+ * picked up when the entry expires ({@code application.second-level-cache.ttl}).
+ * <p>
+ * Metrics: {@code hibernate.l2.requests} (hit/miss) and {@code hibernate.l2.hit.ratio} per
+ * region, the query cache under the region {@value RegionFactory#DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME}.
+ */
+@Service
+public class ReferenceDataCache {
+
+    private final SessionFactory sessionFactory;
+
+    public ReferenceDataCache(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        for (Class<?> entity : SecondLevelCacheConfig.CACHED_ENTITIES) {
+            String region = entity.getName();
+            registerRegionMetrics(meterRegistry, region,
+                    stats -> regionCount(stats, region, CacheRegionStatistics::getHitCount),
+                    stats -> regionCount(stats, region, CacheRegionStatistics::getMissCount),
+                    statistics);
+        }
+        registerRegionMetrics(meterRegistry, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                Statistics::getQueryCacheHitCount, Statistics::getQueryCacheMissCount, statistics);
+    }
+
+    /**
+     * Evict one entity and the cached query results after the current transaction commits
+     */
+    public void evictAfterCommit(Class<?> entity, Object id) {
+        afterCommit(() -> {
+            sessionFactory.getCache().evictEntityData(entity, id);
+            sessionFactory.getCache().evictDefaultQueryRegion();
+        });
+    }
+
+    /**
+     * Evict the cached query results after the current transaction commits, for JDBC writes to the
+     * tables of cached entities (Hibernate only tracks its own writes)
+     */
+    public void evictQueriesAfterCommit() {
+        afterCommit(() -> sessionFactory.getCache().evictDefaultQueryRegion());
+    }
+
+    private static void registerRegionMetrics(MeterRegistry meterRegistry, String region,
+                                              ToDoubleFunction<Statistics> hits, ToDoubleFunction<Statistics> misses,
+                                              Statistics statistics) {
+        FunctionCounter.builder("hibernate.l2.requests", statistics, hits)
+                .tag("region", region)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("hibernate.l2.requests", statistics, misses)
+                .tag("region", region)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("hibernate.l2.hit.ratio", statistics, stats -> {
+                    double hit = hits.applyAsDouble(stats);
+                    double total = hit + misses.applyAsDouble(stats);
+                    return total == 0 ? Double.NaN : hit / total;
+                })
+                .tag("region", region)
+                .description("Share of second-level cache lookups served from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the count, or 0 while the region does not exist
+     */
+    private static double regionCount(Statistics statistics, String region, ToLongFunction<CacheRegionStatistics> count) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics != null ? count.applyAsLong(regionStatistics) : 0;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
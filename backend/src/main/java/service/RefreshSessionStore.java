@@ -0,0 +1,119 @@
+package service;
+
+import lombok.extern.slf4j.Slf4j;
+import model.enums.AccountStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Refresh sessions (token families), one row each, written with plain statements so every
+ * operation is a single INSERT or UPDATE however many sessions the user has.
+ * <p>
+ * Rotation is a compare-and-set on the stored hash: it succeeds only for the latest refresh token
+ * of a live session whose account is not banned. A rotated-away token presented again means the
+ * family leaked, and the caller revokes the family.
+ * <p>
+ * Two tabs of the same browser refreshing at once present the same token, and only one of them
+ * can win the compare-and-set. The token rotated away last is therefore remembered for
+ * {@code reuse-grace}: presenting it within that window is rejected without revoking the family.
+ */
+@Service
+@Slf4j
+public class RefreshSessionStore {
+
+    private static final String INSERT_SESSION = """
+            INSERT INTO refresh_sessions (id, user_id, token_hash, revoked, expires_at, created_at, updated_at)
+            VALUES (?, ?, ?, FALSE, ?, ?, ?)
+            """;
+    private static final String ROTATE = """
+            UPDATE refresh_sessions
+            SET token_hash = ?, previous_token_hash = ?, rotated_at = ?, expires_at = ?, updated_at = ?
+            WHERE id = ? AND token_hash = ? AND revoked = FALSE AND expires_at > ?
+            AND EXISTS (
+                SELECT 1 FROM users u JOIN accounts a ON a.id = u.account_id
+                WHERE u.id = refresh_sessions.user_id AND a.status <> ?
+            )
+            """;
+    private static final String REVOKE = """
+            UPDATE refresh_sessions SET revoked = TRUE, updated_at = ?
+            WHERE id = ? AND revoked = FALSE
+            """;
+    private static final String REVOKE_ALL_OF_USER = """
+            UPDATE refresh_sessions SET revoked = TRUE, updated_at = ?
+            WHERE user_id = ? AND revoked = FALSE
+            """;
+
+    private static final String ROTATED_WITHIN_GRACE = """
+            SELECT COUNT(*) FROM refresh_sessions
+            WHERE id = ? AND previous_token_hash = ? AND revoked = FALSE AND rotated_at > ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration reuseGrace;
+
+    public RefreshSessionStore(
+            JdbcTemplate jdbcTemplate,
+            @Value("${application.security.refresh-session.reuse-grace:PT10S}") Duration reuseGrace
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reuseGrace = reuseGrace;
+    }
+
+    public String newSessionId() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Transactional
+    public void create(String sessionId, Long userId, String tokenHash, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(INSERT_SESSION, sessionId, userId, tokenHash,
+                Timestamp.valueOf(now.plus(ttl)), Timestamp.valueOf(now), Timestamp.valueOf(now));
+    }
+
+    /**
+     * Replace the session's refresh token hash and extend its expiry
+     *
+     * @return false if {@code currentHash} is not the latest token of a live session
+     */
+    @Transactional
+    public boolean rotate(String sessionId, String currentHash, String nextHash, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = jdbcTemplate.update(ROTATE, nextHash, currentHash, Timestamp.valueOf(now),
+                Timestamp.valueOf(now.plus(ttl)), Timestamp.valueOf(now),
+                sessionId, currentHash, Timestamp.valueOf(now), AccountStatus.BANNED.name());
+        return updated == 1;
+    }
+
+    /**
+     * @return true if {@code tokenHash} was rotated away from the live session less than
+     * {@code reuse-grace} ago, i.e. a concurrent refresh won the race rather than a replay.
+     * Runs in its own transaction: the caller's REPEATABLE READ snapshot predates the winning
+     * rotation and would never see it.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public boolean wasJustRotatedFrom(String sessionId, String tokenHash) {
+        Integer matches = jdbcTemplate.queryForObject(ROTATED_WITHIN_GRACE, Integer.class,
+                sessionId, tokenHash, Timestamp.valueOf(LocalDateTime.now().minus(reuseGrace)));
+        return matches != null && matches > 0;
+    }
+
+    @Transactional
+    public void revoke(String sessionId) {
+        if (jdbcTemplate.update(REVOKE, Timestamp.valueOf(LocalDateTime.now()), sessionId) > 0) {
+            log.info("Revoked refresh session {}", sessionId);
+        }
+    }
+
+    @Transactional
+    public int revokeAllOfUser(Long userId) {
+        return jdbcTemplate.update(REVOKE_ALL_OF_USER, Timestamp.valueOf(LocalDateTime.now()), userId);
+    }
+}
@@ -0,0 +1,115 @@
+package service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import service.job.JobRunner;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deletes expired and revoked rows from the tokens and refresh_sessions tables, and
+ * token_revocations rows that every node has already applied.
+ * <p>
+ * A token or refresh session that has no row is rejected, so a revoked row can be
+ * deleted right away and an expired one is useless anyway. The purge walks each table in id
+ * order, one short transaction per chunk, so it never holds locks on more than
+ * {@code chunk-size} rows and does not slow down concurrent logins.
+ */
+@Service
+@Slf4j
+public class TokenPurger {
+
+    static final String JOB_NAME = "token-purge";
+
+    private static final String SELECT_PURGEABLE_TOKENS = """
+            SELECT id FROM tokens
+            WHERE id > :afterId
+            AND (revoked = TRUE OR expired = TRUE OR expires_at < :now)
+            ORDER BY id
+            LIMIT :limit
+            """;
+    private static final String DELETE_TOKENS = "DELETE FROM tokens WHERE id IN (:ids)";
+    private static final String SELECT_PURGEABLE_SESSIONS = """
+            SELECT id FROM refresh_sessions
+            WHERE id > :afterId
+            AND (revoked = TRUE OR expires_at < :now)
+            ORDER BY id
+            LIMIT :limit
+            """;
+    private static final String DELETE_SESSIONS = "DELETE FROM refresh_sessions WHERE id IN (:ids)";
+    // every node has polled a revocation long before it is a day old
+    private static final String SELECT_PURGEABLE_REVOCATIONS = """
+            SELECT id FROM token_revocations
+            WHERE id > :afterId
+            AND created_at < :now - INTERVAL 1 DAY
+            ORDER BY id
+            LIMIT :limit
+            """;
+    private static final String DELETE_REVOCATIONS = "DELETE FROM token_revocations WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobRunner jobRunner;
+    private final int chunkSize;
+    private final Counter rowsPurged;
+
+    public TokenPurger(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            JobRunner jobRunner,
+            @Value("${application.security.token-purge.chunk-size:1000}") int chunkSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jobRunner = jobRunner;
+        this.chunkSize = chunkSize;
+        this.rowsPurged = meterRegistry.counter("tokens.purged");
+    }
+
+    @Scheduled(cron = "${application.security.token-purge.cron:0 20 * * * *}")
+    public void purge() {
+        jobRunner.runExclusive(JOB_NAME, this::purgeAll);
+    }
+
+    private void purgeAll() {
+        long start = System.currentTimeMillis();
+        Timestamp now = new Timestamp(start);
+        long tokens = purgeTable(SELECT_PURGEABLE_TOKENS, DELETE_TOKENS, 0L, Long.class, now);
+        long sessions = purgeTable(SELECT_PURGEABLE_SESSIONS, DELETE_SESSIONS, "", String.class, now);
+        long revocations = purgeTable(SELECT_PURGEABLE_REVOCATIONS, DELETE_REVOCATIONS, 0L, Long.class, now);
+        log.info("Purged {} tokens, {} refresh sessions and {} revocations in {} ms",
+                tokens, sessions, revocations, System.currentTimeMillis() - start);
+    }
+
+    private <T> long purgeTable(String selectSql, String deleteSql, T firstId, Class<T> idType, Timestamp now) {
+        T afterId = firstId;
+        long total = 0;
+        while (true) {
+            List<T> ids = jdbcTemplate.queryForList(selectSql, new MapSqlParameterSource()
+                    .addValue("afterId", afterId)
+                    .addValue("now", now)
+                    .addValue("limit", chunkSize), idType);
+            if (ids.isEmpty()) {
+                return total;
+            }
+            Integer deleted = transactionTemplate.execute(status -> {
+                jobRunner.checkLease(JOB_NAME);
+                return jdbcTemplate.update(deleteSql, Map.of("ids", ids));
+            });
+            int rows = deleted != null ? deleted : 0;
+            total += rows;
+            rowsPurged.increment(rows);
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+}
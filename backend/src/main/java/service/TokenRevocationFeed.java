@@ -0,0 +1,106 @@
+package service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+
+/**
+ * Carries token revocations to every node of the cluster.
+ * <p>
+ * TokenValidationCache and TokenVersionRegistry are held per node, so evicting them only on the
+ * node that handled a logout would let the other nodes accept the token until their entries
+ * expire. Each revocation is therefore also written to token_revocations in the revoking
+ * transaction, and every node polls the rows committed since its previous poll and evicts the
+ * same entries. Another node stops accepting a revoked token within about {@code poll-interval}.
+ * <p>
+ * Auto-increment ids are not committed in order, so each poll reads by the database clock and
+ * goes back {@code overlap} before the previous poll; applying an eviction twice is harmless.
+ */
+@Service
+@Slf4j
+public class TokenRevocationFeed {
+
+    private static final String INSERT_REVOCATION = """
+            INSERT INTO token_revocations (username, token_hash, created_at) VALUES (?, ?, NOW(3))
+            """;
+    private static final String SELECT_REVOCATIONS = """
+            SELECT username, token_hash FROM token_revocations
+            WHERE created_at >= ? - INTERVAL ? MICROSECOND
+            ORDER BY id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TokenValidationCache tokenValidationCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final long overlapMicros;
+    private Timestamp lastPolledAt;
+
+    public TokenRevocationFeed(
+            JdbcTemplate jdbcTemplate,
+            TokenValidationCache tokenValidationCache,
+            TokenVersionRegistry tokenVersionRegistry,
+            @Value("${application.security.revocation-feed.overlap:PT10S}") Duration overlap
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokenValidationCache = tokenValidationCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.overlapMicros = overlap.toNanos() / 1000;
+    }
+
+    /**
+     * Tell the other nodes that every token of the user was revoked
+     */
+    @Transactional
+    public void publishUser(String username) {
+        jdbcTemplate.update(INSERT_REVOCATION, username, null);
+    }
+
+    /**
+     * Tell the other nodes that a single token was revoked
+     */
+    @Transactional
+    public void publishToken(String username, String tokenHash) {
+        jdbcTemplate.update(INSERT_REVOCATION, username, tokenHash);
+    }
+
+    /**
+     * The user's password, profile or role changed: drop the user's cached tokens on every node,
+     * so the next request of each token is checked against the database again. Tokens stay valid.
+     */
+    @Transactional
+    public void evictUser(String username) {
+        tokenValidationCache.invalidateUser(username);
+        publishUser(username);
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.revocation-feed.poll-interval:PT2S}")
+    public synchronized void poll() {
+        try {
+            Timestamp now = jdbcTemplate.queryForObject("SELECT NOW(3)", Timestamp.class);
+            if (lastPolledAt == null) {
+                lastPolledAt = now;
+            }
+            jdbcTemplate.query(SELECT_REVOCATIONS, rs -> {
+                String username = rs.getString("username");
+                String tokenHash = rs.getString("token_hash");
+                if (tokenHash != null) {
+                    tokenValidationCache.invalidateHash(tokenHash);
+                } else {
+                    tokenValidationCache.invalidateUser(username);
+                    tokenVersionRegistry.evict(username);
+                }
+            }, lastPolledAt, overlapMicros);
+            lastPolledAt = now;
+        } catch (DataAccessException e) {
+            // the next poll reads again from the last successful one
+            log.warn("Polling token revocations failed: {}", e.getMessage());
+        }
+    }
+}
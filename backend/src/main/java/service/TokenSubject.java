@@ -0,0 +1,21 @@
+package service;
+
+import model.User;
+import model.enums.Role;
+
+/**
+ * Identity written into the claims of a token pair, so a refresh can mint new tokens
+ * without loading the user.
+ *
+ * @param sessionId refresh session (token family) the pair belongs to
+ */
+public record TokenSubject(Long userId, String username, Role role, Integer tokenVersion, String sessionId) {
+
+    public static TokenSubject of(User user, String sessionId) {
+        return new TokenSubject(user.getId(), user.getUsername(), user.getRole(), user.getTokenVersion(), sessionId);
+    }
+
+    public static TokenSubject of(ParsedToken token) {
+        return new TokenSubject(token.userId(), token.subject(), token.role(), token.tokenVersion(), token.sessionId());
+    }
+}
@@ -0,0 +1,128 @@
+package service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import util.Hashing;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory cache of JWTs that already passed signature, expiry, account status and tokens-table
+ * checks. Entries are keyed by the SHA-256 of the token and expire together with the token, capped
+ * by {@code max-ttl}. Only the identity is kept ({@link AuthenticatedUser}), never the User entity,
+ * so profile reads always see the database. Password, profile and role writes evict the user's
+ * entries through {@link TokenRevocationFeed#evictUser(String)}; a status change made outside the
+ * application is picked up when the entry expires.
+ * <p>
+ * The cache is per node. Revocations reach the other nodes through {@link TokenRevocationFeed},
+ * which evicts the same entries there within its poll interval.
+ */
+@Service
+@Slf4j
+public class TokenValidationCache {
+
+    private final Cache<String, CachedToken> cache;
+    private final long maxTtlMillis;
+
+    public TokenValidationCache(
+            @Value("${application.security.token-cache.maximum-size:10000}") long maximumSize,
+            @Value("${application.security.token-cache.max-ttl:PT15M}") Duration maxTtl,
+            MeterRegistry meterRegistry
+    ) {
+        this.maxTtlMillis = maxTtl.toMillis();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, CachedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+                        return value.remainingNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+                        return value.remainingNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.validation");
+    }
+
+    /**
+     * @return the previously validated token, or null on a miss
+     */
+    public CachedToken get(String jwt) {
+        return cache.getIfPresent(Hashing.sha256Hex(jwt));
+    }
+
+    /**
+     * @param tokenVersion the token's version claim, checked again on every hit when tokens
+     *                     are revoked through their version
+     */
+    public void put(String jwt, AuthenticatedUser user, Integer tokenVersion, Date expiration) {
+        if (expiration == null) {
+            return;
+        }
+        long expiresAt = Math.min(expiration.getTime(), System.currentTimeMillis() + maxTtlMillis);
+        cache.put(Hashing.sha256Hex(jwt), new CachedToken(user, tokenVersion, expiresAt));
+    }
+
+    /**
+     * Evict a single token, now and again after the surrounding transaction commits
+     * so a request racing with the revocation cannot re-populate the entry.
+     */
+    public void invalidate(String jwt) {
+        String key = Hashing.sha256Hex(jwt);
+        runNowAndAfterCommit(() -> cache.invalidate(key));
+    }
+
+    /**
+     * Evict a single token by its SHA-256, used for per-session revocations and for revocations
+     * made on another node
+     */
+    void invalidateHash(String tokenHash) {
+        runNowAndAfterCommit(() -> cache.invalidate(tokenHash));
+    }
+
+    /**
+     * Evict every cached token of a user (revoke all / logout everywhere)
+     */
+    public void invalidateUser(String username) {
+        runNowAndAfterCommit(() -> cache.asMap().values()
+                .removeIf(cached -> username.equals(cached.user().username())));
+        log.debug("Evicted cached tokens for user: {}", username);
+    }
+
+    private void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    public record CachedToken(AuthenticatedUser user, Integer tokenVersion, long expiresAtMillis) {
+        long remainingNanos() {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAtMillis - System.currentTimeMillis()));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Stateless revocation: every JWT carries the user's token version, and a token is valid only
+ * while that version is still the user's current one.
+ * <p>
+ * When {@code application.security.token-version.enabled} is set, no row is written per token
+ * and the filter compares the claim against this in-memory map instead of querying the tokens
+ * table. "Log out everywhere" is one counter increment. A single token cannot be revoked on
+ * its own in this mode, so logging out also ends the user's other sessions.
+ * <p>
+ * Each node holds its own copy of the map. The node that performs an increment evicts its entry
+ * right away; the other nodes evict it when {@link TokenRevocationFeed} delivers the revocation,
+ * within the feed's poll interval, and at the latest after {@code ttl}. Entries of
+ * TokenValidationCache remember the version they were validated with and are checked against
+ * this map on every hit, so a cached token is rejected as soon as the map has moved on.
+ */
+@Service
+@Slf4j
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+    private final TokenValidationCache tokenValidationCache;
+    private final boolean enabled;
+    private final Cache<String, Integer> versions;
+
+    public TokenVersionRegistry(
+            UserRepository userRepository,
+            TokenValidationCache tokenValidationCache,
+            @Value("${application.security.token-version.enabled:false}") boolean enabled,
+            @Value("${application.security.token-version.maximum-size:10000}") long maximumSize,
+            @Value("${application.security.token-version.ttl:PT30S}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.tokenValidationCache = tokenValidationCache;
+        this.enabled = enabled;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "jwt.token.version");
+    }
+
+    /**
+     * @return true when tokens are revoked through their version instead of the tokens table
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true if {@code tokenVersion} is the current version of the user
+     */
+    public boolean isCurrent(String username, Integer tokenVersion) {
+        if (tokenVersion == null) {
+            return false;
+        }
+        Integer current = versions.get(username,
+                key -> userRepository.findTokenVersionByUsername(key).orElse(null));
+        return Objects.equals(current, tokenVersion);
+    }
+
+    /**
+     * Revoke every token issued to the user so far
+     *
+     * @return false if the user does not exist
+     */
+    @Transactional
+    public boolean revokeAll(String username) {
+        int updated = userRepository.incrementTokenVersion(username);
+        evict(username);
+        tokenValidationCache.invalidateUser(username);
+        log.info("Token version of user {} incremented", username);
+        return updated > 0;
+    }
+
+    // evict now and again after commit, a concurrent request may reload the old version before the commit
+    void evict(String username) {
+        versions.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.invalidate(username);
+                }
+            });
+        }
+    }
+}
@@ -1,30 +1,187 @@
 package service;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import model.TuitionRecord;
+import model.JobCheckpoint;
 import model.enums.TuitionStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import repository.TuitionRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+import repository.JobCheckpointRepository;
+import service.job.JobRunner;
 
+import java.sql.Date;
+import java.sql.Timestamp;
 import java.time.LocalDate;
-import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Marks PROCESSING tuition of classes past their tuition due date as UNPAID.
+ * <p>
+ * The sweep walks overdue classes that still have PROCESSING tuition in (tuition_due_date, id) order,
+ * a chunk at a time, and flips their PROCESSING rows with one set-based UPDATE per chunk. Classes are
+ * found from the PROCESSING rows through idx_tuition_records_status, so a nightly run costs in
+ * proportion to the tuition still pending, not to every class ever held. Each chunk commits on its
+ * own together with the checkpoint, so a run interrupted by a crash resumes from the last committed
+ * chunk instead of starting over. No tuition row is loaded into memory.
+ * Both entry points run through {@link JobRunner}, so only one node sweeps at a time, and every chunk
+ * checks the lease before writing.
+ * <p>
+ * Resuming is tried on startup and then every {@code resume-check}, starting one lease TTL after
+ * startup: a node restarted after a crash has a new owner id and cannot take the lease it held before
+ * until that lease expires.
+ */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class TuitionServiceImpl {
-    private final TuitionRepository tuitionRepo;
-    @Scheduled(cron = "0 0 0 * * *")
+
+    static final String JOB_NAME = "tuition-overdue-sweep";
+
+    private static final String SELECT_CLASS_CHUNK = """
+            SELECT DISTINCT c.id, c.tuition_due_date
+            FROM tuition_records t
+            JOIN class_student cs ON cs.id = t.class_student_id
+            JOIN classes c ON c.id = cs.class_id
+            WHERE t.status = :processing
+            AND c.tuition_due_date < :now
+            AND (c.tuition_due_date > :afterDueDate OR (c.tuition_due_date = :afterDueDate AND c.id > :afterId))
+            ORDER BY c.tuition_due_date, c.id
+            LIMIT :limit
+            """;
+    private static final String MARK_UNPAID = """
+            UPDATE tuition_records SET status = :unpaid, updated_at = :now
+            WHERE status = :processing
+            AND class_student_id IN (SELECT cs.id FROM class_student cs WHERE cs.class_id IN (:classIds))
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobCheckpointRepository checkpointRepository;
+    private final JobRunner jobRunner;
+    private final int chunkSize;
+    private final Counter rowsUpdated;
+    private final Timer sweepTimer;
+
+    public TuitionServiceImpl(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            JobCheckpointRepository checkpointRepository,
+            JobRunner jobRunner,
+            @Value("${application.tuition.overdue-sweep.chunk-size:200}") int chunkSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.jobRunner = jobRunner;
+        this.chunkSize = chunkSize;
+        this.rowsUpdated = meterRegistry.counter("tuition.overdue.sweep.rows");
+        this.sweepTimer = meterRegistry.timer("tuition.overdue.sweep.duration");
+    }
+
+    @Scheduled(cron = "${application.tuition.overdue-sweep.cron:0 0 0 * * *}")
     public void updateOverdueTuitions() {
-        List<TuitionRecord> overdueTuitions = tuitionRepo.findByTuitionDateBeforeAndTuitionStatusProcessing(
-                new Date(), TuitionStatus.PROCESSING
-        );
-        for (TuitionRecord record : overdueTuitions) {
-            record.setStatus(TuitionStatus.UNPAID);
+        jobRunner.runExclusive(JOB_NAME, () -> {
+            String runKey = LocalDate.now().toString();
+            JobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElse(null);
+            if (checkpoint != null && checkpoint.getRunKey().equals(runKey) && checkpoint.isCompleted()) {
+                log.info("Overdue tuition sweep for {} already completed", runKey);
+                return;
+            }
+            boolean resume = checkpoint != null && checkpoint.getRunKey().equals(runKey);
+            sweep(runKey, resume ? checkpoint.getPosition() : null);
+        });
+    }
+
+    /**
+     * Finish a sweep that was interrupted by a shutdown or crash
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${application.jobs.lease-ttl:PT2M}",
+            fixedDelayString = "${application.tuition.overdue-sweep.resume-check:PT5M}")
+    public void resumeInterruptedSweep() {
+        if (checkpointRepository.findById(JOB_NAME).map(JobCheckpoint::isCompleted).orElse(true)) {
+            return;
+        }
+        // checked again under the lease, another node may have finished it meanwhile
+        jobRunner.runExclusive(JOB_NAME, () -> checkpointRepository.findById(JOB_NAME)
+                .filter(checkpoint -> !checkpoint.isCompleted())
+                .ifPresent(checkpoint -> {
+                    log.info("Resuming overdue tuition sweep {} from {}", checkpoint.getRunKey(), checkpoint.getPosition());
+                    sweep(checkpoint.getRunKey(), checkpoint.getPosition());
+                }));
+    }
+
+    private void sweep(String runKey, String position) {
+        long startNanos = System.nanoTime();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        // position = "<last due date>|<last class id>" of the last committed chunk
+        Date afterDueDate = position != null ? Date.valueOf(position.substring(0, position.indexOf('|'))) : Date.valueOf(LocalDate.EPOCH);
+        long afterId = position != null ? Long.parseLong(position.substring(position.indexOf('|') + 1)) : 0L;
+        long total = 0;
+        int chunks = 0;
+
+        while (true) {
+            List<ClassDue> classes = jdbcTemplate.query(SELECT_CLASS_CHUNK, new MapSqlParameterSource()
+                            .addValue("processing", TuitionStatus.PROCESSING.name())
+                            .addValue("now", now)
+                            .addValue("afterDueDate", afterDueDate)
+                            .addValue("afterId", afterId)
+                            .addValue("limit", chunkSize),
+                    (rs, rowNum) -> new ClassDue(rs.getLong(1), rs.getDate(2)));
+            if (classes.isEmpty()) {
+                break;
+            }
+
+            List<Long> classIds = classes.stream().map(ClassDue::id).toList();
+            ClassDue last = classes.get(classes.size() - 1);
+
+            Integer updated = transactionTemplate.execute(status -> {
+                jobRunner.checkLease(JOB_NAME);
+                int rows = jdbcTemplate.update(MARK_UNPAID, new MapSqlParameterSource()
+                        .addValue("unpaid", TuitionStatus.UNPAID.name())
+                        .addValue("processing", TuitionStatus.PROCESSING.name())
+                        .addValue("now", now)
+                        .addValue("classIds", classIds));
+                saveCheckpoint(runKey, last.dueDate() + "|" + last.id(), false);
+                return rows;
+            });
+            int rows = updated != null ? updated : 0;
+            total += rows;
+            rowsUpdated.increment(rows);
+            chunks++;
+
+            afterDueDate = last.dueDate();
+            afterId = last.id();
         }
-        tuitionRepo.saveAll(overdueTuitions);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jobRunner.checkLease(JOB_NAME);
+            saveCheckpoint(runKey, null, true);
+        });
+        long elapsed = System.nanoTime() - startNanos;
+        sweepTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Overdue tuition sweep {} marked {} records UNPAID in {} chunks, {} ms",
+                runKey, total, chunks, elapsed / 1_000_000);
+    }
+
+    private void saveCheckpoint(String runKey, String position, boolean completed) {
+        checkpointRepository.save(JobCheckpoint.builder()
+                .jobName(JOB_NAME)
+                .runKey(runKey)
+                .position(position)
+                .completed(completed)
+                .build());
+    }
+
+    private record ClassDue(long id, Date dueDate) {
     }
 }
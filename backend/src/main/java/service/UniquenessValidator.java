@@ -0,0 +1,123 @@
+package service;
+
+import exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import repository.AccountRepository;
+import repository.UserRepository;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Username and email uniqueness checks for every write path that sets them.
+ * <p>
+ * Each check is one existence query on the unique index of the column. The check gives a readable
+ * error up front; the unique constraint still decides under concurrent writes, and
+ * {@link #describeDuplicate(DataIntegrityViolationException)} turns its violation into the same
+ * kind of message for the exception handler.
+ */
+@Service
+@RequiredArgsConstructor
+public class UniquenessValidator {
+
+    /**
+     * MySQL ER_DUP_ENTRY
+     */
+    private static final int DUPLICATE_ENTRY = 1062;
+    // MySQL 8.0.19+ prefixes the key with its table: "for key 'users.uk_users_email'"
+    private static final Pattern DUPLICATE_MESSAGE = Pattern.compile("Duplicate entry '(.*)' for key '(?:\\w+\\.)?(\\w+)'");
+    private static final String USERNAME_KEY = "uk_accounts_username";
+    private static final String EMAIL_KEY = "uk_users_email";
+
+    private final AccountRepository accountRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * @throws BadRequestException if an account already has {@code username}
+     */
+    @Transactional(readOnly = true)
+    public void requireUniqueUsername(String username) {
+        if (accountRepository.existsByUsername(username)) {
+            throw new BadRequestException("Username already exists: " + username);
+        }
+    }
+
+    /**
+     * @throws BadRequestException if a user already has {@code email}
+     */
+    @Transactional(readOnly = true)
+    public void requireUniqueEmail(String email) {
+        if (email != null && userRepository.existsByEmail(email)) {
+            throw new BadRequestException("Email already exists: " + email);
+        }
+    }
+
+    /**
+     * For updates: {@code email} may already belong to the user being updated
+     *
+     * @throws BadRequestException if another user has {@code email}
+     */
+    @Transactional(readOnly = true)
+    public void requireUniqueEmail(String email, Long userId) {
+        if (email != null && userRepository.existsByEmailAndIdNot(email, userId)) {
+            throw new BadRequestException("Email is already in use by another user");
+        }
+    }
+
+    /**
+     * Bulk variant for imports: one query for the whole collection
+     *
+     * @return the usernames of {@code usernames} that are taken, lower-cased
+     */
+    @Transactional(readOnly = true)
+    public Set<String> findTakenUsernames(Collection<String> usernames) {
+        return usernames.isEmpty() ? Set.of() : lowerCase(accountRepository.findExistingUsernames(usernames));
+    }
+
+    /**
+     * Bulk variant for imports: one query for the whole collection
+     *
+     * @return the emails of {@code emails} that are taken, lower-cased
+     */
+    @Transactional(readOnly = true)
+    public Set<String> findTakenEmails(Collection<String> emails) {
+        return emails.isEmpty() ? Set.of() : lowerCase(userRepository.findExistingEmails(emails));
+    }
+
+    /**
+     * @return a client message for a violation of the username or email key, empty for any other
+     * integrity violation, including the other unique keys of the same tables
+     */
+    public static Optional<String> describeDuplicate(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getErrorCode() == DUPLICATE_ENTRY) {
+                Matcher matcher = DUPLICATE_MESSAGE.matcher(String.valueOf(sqlException.getMessage()));
+                if (!matcher.find()) {
+                    return Optional.empty();
+                }
+                return switch (matcher.group(2)) {
+                    case USERNAME_KEY -> Optional.of("Username already exists: " + matcher.group(1));
+                    case EMAIL_KEY -> Optional.of("Email already exists: " + matcher.group(1));
+                    default -> Optional.empty();
+                };
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Set<String> lowerCase(List<String> values) {
+        Set<String> result = new HashSet<>(values.size() * 2);
+        values.forEach(value -> result.add(value.toLowerCase(Locale.ROOT)));
+        return result;
+    }
+}
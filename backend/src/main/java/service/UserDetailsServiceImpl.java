@@ -1,8 +1,11 @@
 package service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import model.Account;
+import model.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,7 +14,8 @@ import repository.UserRepository;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+@Slf4j
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
@@ -23,4 +27,18 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return userRepository.findByAccount(account)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
+
+    /**
+     * Called by Spring Security after a successful login whose stored hash uses an outdated
+     * BCrypt cost (see {@link PasswordHashingService#upgradeEncoding(String)})
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        accountRepository.updatePassword(user.getUsername(), newPassword);
+        if (user instanceof User entity) {
+            entity.getAccount().setPassword(newPassword);
+        }
+        log.info("Rehashed password of {} with the current BCrypt cost", user.getUsername());
+        return user;
+    }
 }
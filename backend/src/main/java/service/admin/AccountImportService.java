@@ -0,0 +1,358 @@
+package service.admin;
+
+import exception.BadRequestException;
+import exception.ServiceBusyException;
+import lombok.extern.slf4j.Slf4j;
+import model.Account;
+import model.User;
+import model.enums.Gender;
+import model.enums.Role;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import service.AccountBatchWriter;
+import service.AccountBatchWriter.CreatedAccount;
+import service.AccountBatchWriter.NewAccount;
+import service.PasswordHashingService;
+import service.UniquenessValidator;
+import service.search.SearchIndexService;
+import service.search.TypeaheadService;
+import util.Csv;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk account import from CSV.
+ * <p>
+ * The file is read line by line and handled in chunks of {@code chunk-size} rows, so memory use
+ * does not grow with the file. Per chunk: rows are validated, usernames and emails are checked
+ * against the database with one query each, passwords are hashed in parallel on the password
+ * hashing pool, and the rows are written with JDBC batches in one transaction. If that transaction
+ * hits a unique key, the chunk is written again row by row so only the conflicting rows fail. The
+ * result of every row is written to the report as soon as its chunk is done; the response is already
+ * committed by then, so a chunk that fails for any other reason is reported row by row as well.
+ * <p>
+ * Expected header (any column order): {@value #HEADER}. {@code dob} is yyyy-MM-dd.
+ */
+@Service
+@Slf4j
+public class AccountImportService {
+
+    static final String HEADER = "username,password,role,fullName,email,phoneNumber,gender,dob";
+    static final String REPORT_HEADER = "row,username,status,message";
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private final UniquenessValidator uniquenessValidator;
+    private final AccountBatchWriter accountBatchWriter;
+    private final PasswordHashingService passwordHashingService;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchIndexService searchIndexService;
+    private final TypeaheadService typeaheadService;
+    private final int chunkSize;
+
+    public AccountImportService(
+            UniquenessValidator uniquenessValidator,
+            AccountBatchWriter accountBatchWriter,
+            PasswordHashingService passwordHashingService,
+            TransactionTemplate transactionTemplate,
+            SearchIndexService searchIndexService,
+            TypeaheadService typeaheadService,
+            @Value("${application.accounts.import.chunk-size:500}") int chunkSize
+    ) {
+        this.uniquenessValidator = uniquenessValidator;
+        this.accountBatchWriter = accountBatchWriter;
+        this.passwordHashingService = passwordHashingService;
+        this.transactionTemplate = transactionTemplate;
+        this.searchIndexService = searchIndexService;
+        this.typeaheadService = typeaheadService;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Read the header now, so a malformed file is rejected with a normal error response, and
+     * return the import itself as the body of the response: one report line per data row.
+     *
+     * @throws BadRequestException if the file is empty or the header lacks a required column
+     */
+    public StreamingResponseBody importCsv(MultipartFile file) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            reader.close();
+            throw new BadRequestException("The file is empty");
+        }
+        Map<String, Integer> columns;
+        try {
+            columns = columnIndexes(headerLine.replace("\uFEFF", ""));
+        } catch (BadRequestException e) {
+            reader.close();
+            throw e;
+        }
+        return report -> {
+            try (reader) {
+                importRows(reader, columns, report);
+            }
+        };
+    }
+
+    private void importRows(BufferedReader reader, Map<String, Integer> columns, OutputStream report) throws IOException {
+        long start = System.currentTimeMillis();
+        Writer writer = new OutputStreamWriter(report, StandardCharsets.UTF_8);
+        writer.write(REPORT_HEADER + "\n");
+
+        // duplicates inside the file, across chunks
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        int rowNumber = 1;
+        int created = 0;
+        int total = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            rowNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parseRow(rowNumber, Csv.parseLine(line), columns, seenUsernames, seenEmails));
+            if (chunk.size() == chunkSize) {
+                created += importChunk(chunk, writer);
+                total += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += importChunk(chunk, writer);
+            total += chunk.size();
+        }
+        writer.flush();
+        log.info("Account import finished: {} created, {} failed in {} ms",
+                created, total - created, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @return number of accounts created
+     */
+    private int importChunk(List<ImportRow> chunk, Writer writer) throws IOException {
+        List<CreatedAccount> created = new ArrayList<>();
+        try {
+            createAccounts(chunk, created);
+        } catch (ServiceBusyException e) {
+            log.warn("Account import chunk skipped: {}", e.getMessage());
+            failRemaining(chunk, "The server is busy, import this row again");
+        } catch (RuntimeException e) {
+            log.error("Account import chunk failed", e);
+            failRemaining(chunk, "Import failed, import this row again");
+        }
+        created.forEach(this::index);
+
+        for (ImportRow row : chunk) {
+            writer.write(Csv.formatLine(row.rowNumber, row.username,
+                    row.error == null ? "CREATED" : "FAILED", row.error) + "\n");
+        }
+        writer.flush();
+        return created.size();
+    }
+
+    /**
+     * Adds the accounts it creates to {@code created} and marks their rows, so a failure part way
+     * leaves the created rows reported as created
+     */
+    private void createAccounts(List<ImportRow> chunk, List<CreatedAccount> created) {
+        rejectExisting(chunk);
+
+        List<ImportRow> valid = chunk.stream().filter(row -> row.error == null).toList();
+        if (valid.isEmpty()) {
+            return;
+        }
+        List<String> hashes = passwordHashingService.encodeAll(valid.stream().map(row -> row.password).toList());
+        List<NewAccount> accounts = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            ImportRow row = valid.get(i);
+            accounts.add(new NewAccount(row.username, hashes.get(i), row.role, row.fullName,
+                    row.dob, row.gender, row.phoneNumber, row.email));
+        }
+        try {
+            created.addAll(write(accounts));
+            valid.forEach(row -> row.created = true);
+        } catch (DataIntegrityViolationException e) {
+            // a username or email was taken between the check and the insert
+            log.warn("Account import chunk rolled back, retrying row by row: {}", e.getMostSpecificCause().getMessage());
+            for (int i = 0; i < valid.size(); i++) {
+                ImportRow row = valid.get(i);
+                try {
+                    created.addAll(write(List.of(accounts.get(i))));
+                    row.created = true;
+                } catch (DataIntegrityViolationException rowException) {
+                    row.error = UniquenessValidator.describeDuplicate(rowException)
+                            .orElse("Rejected by the database: " + rowException.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private List<CreatedAccount> write(List<NewAccount> accounts) {
+        List<CreatedAccount> created = transactionTemplate.execute(status -> accountBatchWriter.create(accounts));
+        return created != null ? created : List.of();
+    }
+
+    private static void failRemaining(List<ImportRow> chunk, String error) {
+        for (ImportRow row : chunk) {
+            if (row.error == null && !row.created) {
+                row.error = error;
+            }
+        }
+    }
+
+    /**
+     * One query each for the usernames and emails of the chunk that are already taken
+     */
+    private void rejectExisting(List<ImportRow> chunk) {
+        List<String> usernames = chunk.stream().filter(row -> row.error == null).map(row -> row.username).toList();
+        List<String> emails = chunk.stream().filter(row -> row.error == null && row.email != null).map(row -> row.email).toList();
+        Set<String> takenUsernames = uniquenessValidator.findTakenUsernames(usernames);
+        Set<String> takenEmails = uniquenessValidator.findTakenEmails(emails);
+        for (ImportRow row : chunk) {
+            if (row.error != null) {
+                continue;
+            }
+            if (takenUsernames.contains(row.username.toLowerCase(Locale.ROOT))) {
+                row.error = "Username already exists: " + row.username;
+            } else if (row.email != null && takenEmails.contains(row.email.toLowerCase(Locale.ROOT))) {
+                row.error = "Email already exists: " + row.email;
+            }
+        }
+    }
+
+    // JDBC writes skip the Hibernate listeners that normally feed the indexes
+    private void index(CreatedAccount created) {
+        NewAccount account = created.account();
+        User user = User.builder()
+                .id(created.userId())
+                .account(Account.builder().username(account.username()).build())
+                .role(account.role())
+                .fullName(account.fullName())
+                .email(account.email())
+                .build();
+        searchIndexService.indexUser(user);
+        if (account.role() == Role.TEACHER) {
+            typeaheadService.indexTeacher(created.roleId(), user);
+        } else if (account.role() == Role.STUDENT) {
+            typeaheadService.indexStudent(created.roleId(), user);
+        }
+    }
+
+    private ImportRow parseRow(int rowNumber, List<String> fields, Map<String, Integer> columns,
+                               Set<String> seenUsernames, Set<String> seenEmails) {
+        ImportRow row = new ImportRow(rowNumber);
+        row.username = field(fields, columns, "username");
+        row.password = field(fields, columns, "password");
+        row.fullName = field(fields, columns, "fullname");
+        row.email = field(fields, columns, "email");
+        row.phoneNumber = field(fields, columns, "phonenumber");
+        try {
+            row.error = validate(row, fields, columns);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            row.error = "Invalid value: " + e.getMessage();
+        }
+        if (row.error == null && !seenUsernames.add(row.username.toLowerCase(Locale.ROOT))) {
+            row.error = "Duplicate username in file: " + row.username;
+        }
+        if (row.error == null && row.email != null && !seenEmails.add(row.email.toLowerCase(Locale.ROOT))) {
+            row.error = "Duplicate email in file: " + row.email;
+        }
+        return row;
+    }
+
+    /**
+     * Same rules as {@code CreateAccountRequest}
+     *
+     * @return the first problem of the row, or null
+     */
+    private static String validate(ImportRow row, List<String> fields, Map<String, Integer> columns) {
+        if (row.username == null) {
+            return "Username cannot be blank";
+        }
+        if (row.password == null || row.password.length() < 8) {
+            return "Password must be at least 8 characters long";
+        }
+        String role = field(fields, columns, "role");
+        if (role == null) {
+            return "Role is required";
+        }
+        row.role = Role.valueOf(role.toUpperCase(Locale.ROOT));
+        if (row.fullName == null) {
+            return "Full name cannot be blank";
+        }
+        if (row.email != null && !EMAIL.matcher(row.email).matches()) {
+            return "Email must be valid";
+        }
+        if (row.phoneNumber != null && (row.phoneNumber.length() < 8 || row.phoneNumber.length() > 15)) {
+            return "Phone number must be between 8 and 15 characters";
+        }
+        String gender = field(fields, columns, "gender");
+        row.gender = gender != null ? Gender.valueOf(gender.toUpperCase(Locale.ROOT)) : null;
+        String dob = field(fields, columns, "dob");
+        row.dob = dob != null ? LocalDate.parse(dob) : null;
+        return null;
+    }
+
+    private static Map<String, Integer> columnIndexes(String headerLine) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = Csv.parseLine(headerLine);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("username", "password", "role", "fullname")) {
+            if (!columns.containsKey(required)) {
+                throw new BadRequestException("Missing column '" + required + "', expected header: " + HEADER);
+            }
+        }
+        return columns;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static final class ImportRow {
+        private final int rowNumber;
+        private String username;
+        private String password;
+        private Role role;
+        private String fullName;
+        private String email;
+        private String phoneNumber;
+        private Gender gender;
+        private LocalDate dob;
+        private String error;
+        private boolean created;
+
+        private ImportRow(int rowNumber) {
+            this.rowNumber = rowNumber;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import dto.request.admin.BatchCreateAccountRequest;
 import dto.request.admin.ChangePasswordRequest;
 import dto.request.admin.CreateAccountRequest;
 import dto.request.admin.ResetPasswordRequest;
+import dto.request.admin.UserListFilter;
 import dto.response.BaseResponse;
 import dto.response.admin.AccountListResponse;
 import dto.response.shared.AccountInformationResponse;
@@ -21,7 +22,9 @@ import model.TeacherInformation;
 import model.User;
 import model.enums.AccountStatus;
 import model.enums.DiplomaLevel;
-import model.enums.Role;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -35,6 +38,12 @@ import repository.StudentRepository;
 import repository.TeacherInformationRepository;
 import repository.TeacherRepository;
 import repository.UserRepository;
+import service.CurrentActorResolver;
+import service.TokenRevocationFeed;
+import service.UniquenessValidator;
+import service.search.TypeaheadService;
+import util.IdPagination;
+import util.Paging;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -42,7 +51,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -57,15 +65,16 @@ public class AdminAccountServiceImpl {
     private final StudentInformationRepository studentInformationRepository;
     private final TeacherInformationRepository teacherInformationRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CurrentActorResolver currentActorResolver;
+    private final TokenRevocationFeed tokenRevocationFeed;
+    private final TypeaheadService typeaheadService;
+    private final UniquenessValidator uniquenessValidator;
 
     public BaseResponse<AccountInformationResponse> getAccountInformation() {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Account account = accountRepository.findByUsername(auth.getName())
-                    .orElseThrow(() -> new RuntimeException("Account not found"));
-            User user = userRepository.findByAccount(account).orElseThrow(
-                    () -> new RuntimeException("User not found")
-            );
+            User user = userRepository.findById(currentActorResolver.current().userId())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            Account account = user.getAccount();
             AccountInformationResponse response = AccountInformationResponse.builder()
                     .username(account.getUsername())
                     .status(account.getStatus())
@@ -103,6 +112,7 @@ public class AdminAccountServiceImpl {
             // Update password
             account.setPassword(passwordEncoder.encode(request.getNewPassword()));
             accountRepository.save(account);
+            tokenRevocationFeed.evictUser(account.getUsername());
             
             log.info("Password changed for user: {}", auth.getName());
             return BaseResponse.accepted(null, "Password changed successfully");
@@ -119,46 +129,31 @@ public class AdminAccountServiceImpl {
     }
     
     /**
-     * Get all accounts in the system
-     * @return List of all accounts with basic information
+     * Get a page of accounts, optionally filtered by role, account status and creation time.
+     * Rows are projected in one query; with a {@code cursor} the page is read by keyset (on the user id) instead of offset.
+     * @return Accounts with basic information and the paging of the list
      */
-    public BaseResponse<List<AccountListResponse>> getAllAccounts() {
-        try {
-            List<User> users = userRepository.findAll();
-            
-            List<AccountListResponse> accountResponses = users.stream()
-                .map(user -> {
-                    Account account = user.getAccount();
-                    AccountListResponse response = AccountListResponse.builder()
-                        .id(account.getId())
-                        .username(account.getUsername())
-                        .fullName(user.getFullName())
-                        .role(user.getRole())
-                        .email(user.getEmail())
-                        .phoneNumber(user.getPhoneNumber())
-                        .status(account.getStatus())
-                        .createdAt(account.getCreatedAt())
-                        .userId(user.getId())
-                        .build();
-                    
-                    // Add role-specific IDs if available
-                    if (user.getRole() == Role.ADMIN && user.getAdmin() != null) {
-                        response.setAdminId(user.getAdmin().getId());
-                    } else if (user.getRole() == Role.TEACHER && user.getTeacher() != null) {
-                        response.setTeacherId(user.getTeacher().getId());
-                    } else if (user.getRole() == Role.STUDENT && user.getStudent() != null) {
-                        response.setStudentId(user.getStudent().getId());
-                    }
-                    
-                    return response;
-                })
-                .collect(Collectors.toList());
-            
-            return BaseResponse.ok(accountResponses, "List of all accounts retrieved successfully");
-        } catch (Exception e) {
-            log.error("Failed to retrieve account list", e);
-            return BaseResponse.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Failed to retrieve account list", e, null);
+    @Transactional(readOnly = true)
+    public BaseResponse<List<AccountListResponse>> getAllAccounts(UserListFilter filter, int page, int size, String cursor) {
+        if (page < 0 || size < 1 || size > AdminUserServiceImpl.MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page must be >= 0 and size between 1 and " + AdminUserServiceImpl.MAX_PAGE_SIZE);
+        }
+        if (cursor != null) {
+            List<AccountListResponse> accounts = userRepository.findAccountListAfter(IdPagination.decodeCursor(cursor),
+                    filter.getRole(), filter.getStatus(), filter.getCreatedFrom(), filter.getCreatedTo(),
+                    PageRequest.of(0, size + 1));
+            boolean hasNext = accounts.size() > size;
+            List<AccountListResponse> content = hasNext ? accounts.subList(0, size) : accounts;
+            return BaseResponse.ok(content, "Account list retrieved successfully",
+                    Paging.keyset(size, hasNext ? IdPagination.encodeCursor(content.get(size - 1).getUserId()) : null));
         }
+
+        Page<AccountListResponse> accounts = userRepository.findAccountList(filter.getRole(), filter.getStatus(),
+                filter.getCreatedFrom(), filter.getCreatedTo(), PageRequest.of(page, size));
+        List<AccountListResponse> content = accounts.getContent();
+        return BaseResponse.ok(content, "Account list retrieved successfully",
+                new Paging(page, size, accounts.getTotalElements(), accounts.getTotalPages(),
+                        accounts.hasNext() ? IdPagination.encodeCursor(content.get(content.size() - 1).getUserId()) : null));
     }
     
     /**
@@ -185,6 +180,7 @@ public class AdminAccountServiceImpl {
             // Update password
             account.setPassword(passwordEncoder.encode(request.getNewPassword()));
             accountRepository.save(account);
+            tokenRevocationFeed.evictUser(account.getUsername());
             
             // TODO: Send notification to user about password reset (to be implemented later)
             
@@ -210,13 +206,8 @@ public class AdminAccountServiceImpl {
     @Transactional
     public BaseResponse<String> createSingleAccount(CreateAccountRequest request) {
         try {
-            // Check if username already exists
-            if (accountRepository.findByUsername(request.getUsername()).isPresent()) {
-                throw new BadRequestException("Username already exists: " + request.getUsername());
-            }
-            if(userRepository.existsByEmail(request.getEmail())){
-                throw new BadRequestException("Email already exists: " + request.getEmail());
-            }
+            uniquenessValidator.requireUniqueUsername(request.getUsername());
+            uniquenessValidator.requireUniqueEmail(request.getEmail());
             
             // Create account
             Account account = Account.builder()
@@ -259,6 +250,7 @@ public class AdminAccountServiceImpl {
                         .diplomaLevel(DiplomaLevel.BACHELOR) // Default diploma level
                         .build();
                     teacherInformationRepository.save(teacherInfo);
+                    typeaheadService.indexTeacher(teacher.getId(), user);
                     break;
                 case STUDENT:
                     Student student = Student.builder()
@@ -271,6 +263,7 @@ public class AdminAccountServiceImpl {
                         .student(student)
                         .build();
                     studentInformationRepository.save(studentInfo);
+                    typeaheadService.indexStudent(student.getId(), user);
                     break;
             }
             
@@ -279,6 +272,9 @@ public class AdminAccountServiceImpl {
         } catch (BadRequestException e) {
             log.error("Bad request during account creation", e);
             return BaseResponse.badRequest(e.getMessage(), e, null);
+        } catch (DataIntegrityViolationException e) {
+            // unique key lost a race with a concurrent write, GlobalExceptionHandler maps it to 400
+            throw e;
         } catch (Exception e) {
             log.error("Failed to create account", e);
             return BaseResponse.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Failed to create account", e, null);
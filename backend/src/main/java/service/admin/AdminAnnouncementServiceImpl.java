@@ -8,23 +8,19 @@ import dto.response.admin.AnnouncementListResponse;
 import exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import model.Account;
 import model.Admin;
 import model.Announcement;
-import model.User;
 import model.enums.AnnouncementTarget;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import repository.AccountRepository;
 import repository.AdminRepository;
 import repository.AnnouncementRepository;
-import repository.UserRepository;
+import service.AnnouncementFeedCache;
+import service.CurrentActorResolver;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -36,8 +32,8 @@ public class AdminAnnouncementServiceImpl implements AdminAnnouncementService {
 
     private final AnnouncementRepository announcementRepository;
     private final AdminRepository adminRepository;
-    private final UserRepository userRepository;
-    private final AccountRepository accountRepository;
+    private final CurrentActorResolver currentActorResolver;
+    private final AnnouncementFeedCache announcementFeedCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -115,15 +111,7 @@ public class AdminAnnouncementServiceImpl implements AdminAnnouncementService {
     public BaseResponse<String> createAnnouncement(CreateAnnouncementRequest request) {
         try {
             // Get the authenticated admin
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Account account = accountRepository.findByUsername(auth.getName())
-                    .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
-            
-            User user = userRepository.findByAccount(account)
-                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-            
-            Admin admin = adminRepository.findByUser(user)
-                    .orElseThrow(() -> new ResourceNotFoundException("Admin not found for authenticated user"));
+            Admin admin = adminRepository.getReferenceById(currentActorResolver.currentAdminId());
             
             // Create new announcement
             Announcement announcement = Announcement.builder()
@@ -135,6 +123,7 @@ public class AdminAnnouncementServiceImpl implements AdminAnnouncementService {
                 .build();
             
             announcementRepository.save(announcement);
+            announcementFeedCache.evict(announcement.getTarget());
             
             log.info("Created new announcement with title: {}, target: {}", request.getTitle(), request.getTarget());
             
@@ -161,6 +150,8 @@ public class AdminAnnouncementServiceImpl implements AdminAnnouncementService {
             Announcement announcement = announcementRepository.findById(request.getId())
                     .orElseThrow(() -> new ResourceNotFoundException("Announcement not found with id: " + request.getId()));
             
+            AnnouncementTarget previousTarget = announcement.getTarget();
+
             // Update the announcement fields
             announcement.setTitle(request.getTitle());
             announcement.setContent(request.getContent());
@@ -168,6 +159,7 @@ public class AdminAnnouncementServiceImpl implements AdminAnnouncementService {
             announcement.setTarget(request.getTarget());
             
             announcementRepository.save(announcement);
+            announcementFeedCache.evict(previousTarget, announcement.getTarget());
             
             log.info("Updated announcement with id: {}", request.getId());
             
@@ -191,12 +183,12 @@ public class AdminAnnouncementServiceImpl implements AdminAnnouncementService {
     public BaseResponse<String> deleteAnnouncement(Long id) {
         try {
             // Find the announcement by ID
-            if (!announcementRepository.existsById(id)) {
-                throw new ResourceNotFoundException("Announcement not found with id: " + id);
-            }
+            Announcement announcement = announcementRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Announcement not found with id: " + id));
             
             // Delete the announcement
-            announcementRepository.deleteById(id);
+            announcementRepository.delete(announcement);
+            announcementFeedCache.evict(announcement.getTarget());
             
             log.info("Deleted announcement with id: {}", id);
             
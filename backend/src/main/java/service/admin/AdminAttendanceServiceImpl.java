@@ -0,0 +1,24 @@
+package service.admin;
+
+import dto.response.admin.AttendanceDetailResponse;
+import dto.response.admin.AttendanceMatrixResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import service.AttendanceMatrixService;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminAttendanceServiceImpl {
+
+    private final AttendanceMatrixService attendanceMatrixService;
+
+    public AttendanceMatrixResponse getAttendanceByClass(Long classId) {
+        return attendanceMatrixService.getMatrix(classId);
+    }
+
+    public AttendanceDetailResponse getAttendanceDetail(Long attendanceId) {
+        return attendanceMatrixService.getDetail(attendanceId);
+    }
+}
@@ -14,28 +14,42 @@ import model.Class;
 import model.enums.*;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import repository.*;
+import service.ClassRosterService;
+import service.EnrollmentBatchWriter;
+import service.ReferenceDataCache;
+import util.IdPagination;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AdminClassServiceImpl {
-    private final AttendanceHistoryRepository attendanceHistoryRepository;
-    private final TuitionRepository tuitionRepository;
+    private static final int STUDENT_ID_CHUNK = 1000;
+
     private final TeacherRepository teacherRepository;
     private final SubjectRepository subjectRepository;
     private final ClassRepository classRepository;
     private final ClassStudentRepository classStudentRepository;
     private final ClassScheduleRepository classScheduleRepository;
+    private final ReferenceDataCache referenceDataCache;
     private final StudentRepository studentRepository;
     private final ExamRepository examRepository;
-    private final StudentExaminationRepository studentExaminationRepository;
+    private final ClassRosterService classRosterService;
+    private final EnrollmentBatchWriter enrollmentBatchWriter;
 
     @Transactional
     public void createClass(CreateClassRequest createClassRequest) {
@@ -65,37 +79,7 @@ public class AdminClassServiceImpl {
             throw new IllegalArgumentException("Final term weight must be between 0 and 1");
         }
 
-        List<Class> classList = classRepository.findByTeacher(teacher);
-        classList = classList.stream()
-                .filter(aClass -> !(aClass.getStartDate().after(createClassRequest.getEndDate())
-                        || aClass.getEndDate().before(createClassRequest.getStartDate())))
-                .filter(aClass -> {
-                    ClassSchedule classSchedule = aClass.getSchedules();
-                    return classSchedule.getDayOfWeek() == createClassRequest.getDayOfWeek()
-                            && !(classSchedule.getPeriodStart() > createClassRequest
-                            .getPeriodEnd()
-                            || classSchedule.getPeriodEnd() < createClassRequest
-                            .getPeriodStart());
-                }).toList();
-        if (!classList.isEmpty()) {
-            throw new ConflictTimeException("Giáo viên đã dạy lớp khác");
-        }
-
-        List<Class> classes = classRepository.findBySchedule(createClassRequest.getRoom());
-        classes = classes.stream()
-                .filter(aClass -> !(aClass.getStartDate().after(createClassRequest.getEndDate())
-                        || aClass.getEndDate().before(createClassRequest.getStartDate())))
-                .filter(aClass -> {
-                    ClassSchedule classSchedule = aClass.getSchedules();
-                    return classSchedule.getDayOfWeek() == createClassRequest.getDayOfWeek()
-                            && !(classSchedule.getPeriodStart() > createClassRequest
-                            .getPeriodEnd()
-                            || classSchedule.getPeriodEnd() < createClassRequest
-                            .getPeriodStart());
-                }).toList();
-        if (!classes.isEmpty()) {
-            throw new ConflictTimeException("Phòng học đã có lớp khác");
-        }
+        assertNoScheduleConflict(teacher.getId(), createClassRequest, null);
 
         Class classEntity = Class.builder()
                 .teacher(teacher)
@@ -122,101 +106,43 @@ public class AdminClassServiceImpl {
                 .build();
 
         classScheduleRepository.save(classSchedule);
-
     }
 
-    public BaseResponse<List<ClassListResponse>> getAllClasses(int page, int size) {
+    /**
+     * @param cursor when present, seek after the cursor instead of offsetting by {@code page}
+     *               (no COUNT query, totals reported as -1)
+     */
+    public BaseResponse<List<ClassListResponse>> getAllClasses(int page, int size, String cursor) {
+        if (cursor != null) {
+            IdPagination.KeysetPage<ClassListResponse> keysetPage = IdPagination.keyset(
+                    classRepository.findIdsAfter(IdPagination.decodeCursor(cursor), PageRequest.of(0, size + 1)),
+                    size, classRosterService::getClassList, ClassListResponse::getId);
+            return BaseResponse.ok(
+                    keysetPage.content(),
+                    "Class list retrieved successfully",
+                    util.Paging.keyset(size, keysetPage.nextCursor()));
+        }
+
         Pageable pageable = Pageable.ofSize(size).withPage(page);
-        Page<Class> classPage = classRepository.findAll(pageable);
+        Page<Long> classPage = classRepository.findPageIds(pageable);
         if (classPage.isEmpty()) {
             return BaseResponse.ok(
                     List.of(),
                     "No class found",
                     new util.Paging(page, size, 0, 0));
         }
-        List<ClassListResponse> classListResponses = classPage.getContent().stream()
-                .map(this::mapToClassListResponse)
-                .toList();
+        List<ClassListResponse> classListResponses = classRosterService.getClassList(classPage.getContent());
+        List<Long> ids = classPage.getContent();
         return BaseResponse.ok(
                 classListResponses,
                 "Class list retrieved successfully",
-                new util.Paging(page, size, classPage.getTotalElements(), classPage.getTotalPages()));
+                new util.Paging(page, size, classPage.getTotalElements(), classPage.getTotalPages(),
+                        classPage.hasNext() ? IdPagination.encodeCursor(ids.get(ids.size() - 1)) : null));
     }
 
-    private ClassListResponse mapToClassListResponse(Class classEntity) {
-        Integer studentCount = classRepository.countByStudent(classEntity.getId());
-        return ClassListResponse.builder()
-                .id(classEntity.getId())
-                .className(classEntity.getClassName())
-                .teacherId(classEntity.getTeacher().getId())
-                .teacherFullName(classEntity.getTeacher().getUser().getFullName())
-                .teacherEmail(classEntity.getTeacher().getUser().getEmail())
-                .teacherAvatarUrl(classEntity.getTeacher().getUser().getAvatarUrl())
-                .subjectId(classEntity.getSubject().getId())
-                .subjectName(classEntity.getSubject().getName())
-                .startDate(classEntity.getStartDate())
-                .endDate(classEntity.getEndDate())
-                .description(classEntity.getDescription())
-                .tuition(classEntity.getTuition())
-                .tuitionDueDate(classEntity.getTuitionDueDate())
-                .finalTermWeight(classEntity.getFinalTermWeight())
-                .dayOfWeek(classEntity.getSchedules().getDayOfWeek())
-                .periodStart(classEntity.getSchedules().getPeriodStart())
-                .periodEnd(classEntity.getSchedules().getPeriodEnd())
-                .room(classEntity.getSchedules().getRoom())
-                .studentCount(studentCount)
-                .build();
-    }
 
     public ClassDetailResponse getClassDetailsById(Long id) {
-        Class classEntity = classRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Class not found"));
-        List<ClassStudent> classStudents = classStudentRepository.findByClassEntity(classEntity);
-        Integer studentCount = classRepository.countByStudent(id);
-        return ClassDetailResponse.builder()
-                .id(classEntity.getId())
-                .className(classEntity.getClassName())
-                .teacherId(classEntity.getTeacher().getId())
-                .teacherFullName(classEntity.getTeacher().getUser().getFullName())
-                .teacherEmail(classEntity.getTeacher().getUser().getEmail())
-                .teacherAvatarUrl(classEntity.getTeacher().getUser().getAvatarUrl())
-                .subjectId(classEntity.getSubject().getId())
-                .subjectCode(classEntity.getSubject().getCode())
-                .subjectName(classEntity.getSubject().getName())
-                .startDate(classEntity.getStartDate())
-                .endDate(classEntity.getEndDate())
-                .description(classEntity.getDescription())
-                .tuition(classEntity.getTuition())
-                .tuitionDueDate(classEntity.getTuitionDueDate())
-                .finalTermWeight(classEntity.getFinalTermWeight())
-                .dayOfWeek(classEntity.getSchedules().getDayOfWeek())
-                .periodStart(classEntity.getSchedules().getPeriodStart())
-                .periodEnd(classEntity.getSchedules().getPeriodEnd())
-                .room(classEntity.getSchedules().getRoom())
-                .studentCount(studentCount)
-                .absenceWarningThreshold(classEntity.getAbsenceWarningThreshold())
-                .absenceLimit(classEntity.getAbsenceLimit())
-                .classStudentResponses(classStudents.stream().map(classStudent ->
-                                        {
-                                            StudentExamination midtermExam = studentExaminationRepository.findByClassStudentAndExamination_Type(classStudent, ExaminationType.MIDTERM);
-                                            StudentExamination finalExam = studentExaminationRepository.findByClassStudentAndExamination_Type(classStudent, ExaminationType.FINAL);
-                                            return ClassDetailResponse.ClassStudentResponse.builder()
-                                                    .id(classStudent.getId())
-                                                    .fullName(classStudent.getStudent().getUser().getFullName())
-                                                    .email(classStudent.getStudent().getUser().getEmail())
-                                                    .avatarUrl(classStudent.getStudent().getUser().getAvatarUrl())
-                                                    .absenceCount(attendanceHistoryRepository.countByClassStudentAndStatusAndStatus(classStudent,
-                                                            AttendanceStatus.ABSENT, AttendanceStatus.LATE))
-                                                    .tuitionStatus(classStudent.getTuitionRecord().getStatus())
-                                                    .midtermGrade(midtermExam != null ? midtermExam.getGrade() : null)
-                                                    .isAbsentMidterm(midtermExam != null && midtermExam.isAbsent())
-                                                    .finalTermGrade(finalExam != null ? finalExam.getGrade() : null)
-                                                    .isAbsentFinalTerm(finalExam != null && finalExam.isAbsent())
-                                                    .build();
-
-
-                                        }).toList())
-                                .build();
+        return classRosterService.getClassDetail(id, true);
     }
 
     @Transactional
@@ -250,39 +176,7 @@ public class AdminClassServiceImpl {
             throw new IllegalArgumentException("Final term weight must be between 0 and 1");
         }
 
-        List<Class> classList = classRepository.findByTeacher(teacher);
-        classList = classList.stream()
-                .filter(aClass -> !(aClass.getStartDate().after(updateClassRequest.getEndDate())
-                        || aClass.getEndDate().before(updateClassRequest.getStartDate())
-                        || aClass.getId().equals(id)))
-                .filter(aClass -> {
-                    ClassSchedule classSchedule = aClass.getSchedules();
-                    return classSchedule.getDayOfWeek() == updateClassRequest.getDayOfWeek()
-                            && !(classSchedule.getPeriodStart() > updateClassRequest
-                            .getPeriodEnd()
-                            || classSchedule.getPeriodEnd() < updateClassRequest
-                            .getPeriodStart());
-                }).toList();
-        if (!classList.isEmpty()) {
-            throw new ConflictTimeException("Giáo viên đã dạy lớp khác");
-        }
-
-        List<Class> classes = classRepository.findBySchedule(updateClassRequest.getRoom());
-        classes = classes.stream()
-                .filter(aClass -> !(aClass.getStartDate().after(updateClassRequest.getEndDate())
-                        || aClass.getEndDate().before(updateClassRequest.getStartDate())
-                        || aClass.getId().equals(id)))
-                .filter(aClass -> {
-                    ClassSchedule classSchedule = aClass.getSchedules();
-                    return classSchedule.getDayOfWeek() == updateClassRequest.getDayOfWeek()
-                            && !(classSchedule.getPeriodStart() > updateClassRequest
-                            .getPeriodEnd()
-                            || classSchedule.getPeriodEnd() < updateClassRequest
-                            .getPeriodStart());
-                }).toList();
-        if (!classes.isEmpty()) {
-            throw new ConflictTimeException("Phòng học đã có lớp khác");
-        }
+        assertNoScheduleConflict(teacher.getId(), updateClassRequest, id);
 
         List<ClassStudent> classStudents = classEntity.getStudents();
         if (classStudents != null && !classStudents.isEmpty()) {
@@ -309,64 +203,163 @@ public class AdminClassServiceImpl {
         classSchedule.setRoom(updateClassRequest.getRoom());
         classSchedule.setClassEntity(classEntity);
         classScheduleRepository.save(classSchedule);
+        referenceDataCache.evictAfterCommit(ClassSchedule.class, classSchedule.getId());
 
         classRepository.save(classEntity);
     }
 
     @Transactional
     public void addClassStudentsBatch(Long id, List<Long> studentIds) {
-        Class classEntity = classRepository.findById(id)
+        Class classEntity = lockClass(id);
+        List<Long> existingIds = lockExistingStudents(studentIds.stream().filter(Objects::nonNull).distinct().toList());
+        assertNoExaminations(classEntity);
+        if (existingIds.isEmpty()) {
+            throw new ResourceNotFoundException("No students found with the provided IDs");
+        }
+        Set<Long> enrolledIds = findEnrolledStudentIds(id, existingIds);
+        if (!enrolledIds.isEmpty()) {
+            throw new ConflictTimeException("Học sinh đã có trong lớp: " + enrolledIds);
+        }
+        Map<Long, Long> conflicts = findEnrollmentConflicts(classEntity, existingIds);
+        if (!conflicts.isEmpty()) {
+            throw new ConflictTimeException("Học sinh đã có lớp khác trong thời gian này: " + conflicts.keySet());
+        }
+        writeEnrollments(classEntity, existingIds);
+    }
+
+    /**
+     * Bulk enrollment for large cohorts: unknown, duplicate and conflicting students are reported
+     * instead of failing the whole request, the rest are inserted with JDBC batches.
+     */
+    @Transactional
+    public Map<String, Object> enrollStudentsBulk(Long id, List<Long> studentIds) {
+        Class classEntity = lockClass(id);
+        List<Long> requestedIds = studentIds.stream().filter(Objects::nonNull).distinct().toList();
+        Set<Long> existingIds = new HashSet<>(lockExistingStudents(requestedIds));
+        assertNoExaminations(classEntity);
+        Set<Long> enrolledIds = findEnrolledStudentIds(id, existingIds);
+        Map<Long, Long> conflicts = findEnrollmentConflicts(classEntity, existingIds);
+
+        List<Map<String, String>> failures = new ArrayList<>();
+        List<Long> acceptedIds = new ArrayList<>();
+        for (Long studentId : requestedIds) {
+            String reason = null;
+            if (!existingIds.contains(studentId)) {
+                reason = "Student not found";
+            } else if (enrolledIds.contains(studentId)) {
+                reason = "Student already exists in class";
+            } else if (conflicts.containsKey(studentId)) {
+                reason = "Schedule conflicts with class " + conflicts.get(studentId);
+            }
+            if (reason == null) {
+                acceptedIds.add(studentId);
+                continue;
+            }
+            Map<String, String> failure = new HashMap<>();
+            failure.put("studentId", studentId.toString());
+            failure.put("reason", reason);
+            failures.add(failure);
+        }
+
+        writeEnrollments(classEntity, acceptedIds);
+
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("addedStudents", acceptedIds);
+        responseData.put("failedStudents", failures);
+        responseData.put("totalRequested", studentIds.size());
+        responseData.put("totalAdded", acceptedIds.size());
+        responseData.put("totalFailed", failures.size());
+
+        log.info("Bulk enrolled {} students into class id: {} ({} failed)", acceptedIds.size(), id, failures.size());
+        return responseData;
+    }
+
+    // the class row stays locked until commit: the enrolled-student check and the inserts cannot interleave
+    private Class lockClass(Long id) {
+        return classRepository.findWithScheduleForUpdateById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Class not found"));
+    }
+
+    private void assertNoExaminations(Class classEntity) {
         if (examRepository.existsByClassEntity(classEntity)) {
             throw new ConflictTimeException("Không thể thêm học sinh vào lớp đã có bài thi");
         }
-        List<Student> students = studentRepository.findAllById(studentIds);
-        students.forEach(student -> {
-            List<Class> classes = classRepository.findByStudent(student);
-            classes = classes.stream()
-                    .filter(aClass -> !(aClass.getStartDate().after(classEntity.getEndDate())
-                            || aClass.getEndDate().before(classEntity.getStartDate())))
-                    .filter(aClass -> {
-                        ClassSchedule classSchedule = aClass.getSchedules();
-                        return classSchedule.getDayOfWeek() == classEntity.getSchedules()
-                                .getDayOfWeek()
-                                && !(classSchedule.getPeriodStart() > classEntity
-                                .getSchedules().getPeriodEnd()
-                                || classSchedule.getPeriodEnd() < classEntity
-                                .getSchedules()
-                                .getPeriodStart());
-                    }).toList();
-            if (!classes.isEmpty()) {
-                throw new ConflictTimeException("Học sinh đã có lớp khác trong thời gian này");
+    }
+
+    /**
+     * Locks the rows of the requested students that exist, in id order, until commit. Two
+     * enrollments of the same student into different classes then run one after the other, so the
+     * second one's schedule conflict check sees the first one's enrollment. Call it right after
+     * {@link #lockClass}, before any plain read: under REPEATABLE READ the first plain read fixes
+     * the snapshot the conflict check reads from.
+     */
+    private List<Long> lockExistingStudents(List<Long> studentIds) {
+        List<Long> sortedIds = studentIds.stream().sorted().toList();
+        List<Long> existingIds = new ArrayList<>(sortedIds.size());
+        for (int from = 0; from < sortedIds.size(); from += STUDENT_ID_CHUNK) {
+            existingIds.addAll(studentRepository.lockExistingIds(
+                    sortedIds.subList(from, Math.min(from + STUDENT_ID_CHUNK, sortedIds.size()))));
+        }
+        return existingIds;
+    }
+
+    private Set<Long> findEnrolledStudentIds(Long classId, Collection<Long> studentIds) {
+        List<Long> ids = List.copyOf(studentIds);
+        Set<Long> enrolledIds = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += STUDENT_ID_CHUNK) {
+            enrolledIds.addAll(classStudentRepository.findEnrolledStudentIds(
+                    classId, ids.subList(from, Math.min(from + STUDENT_ID_CHUNK, ids.size()))));
+        }
+        return enrolledIds;
+    }
+
+    /**
+     * One query per {@value #STUDENT_ID_CHUNK} students, inside the caller's transaction.
+     * Enrollments in {@code classEntity} itself are not conflicts, see {@link #findEnrolledStudentIds}.
+     *
+     * @return conflicting class id by student id, only for students that have a conflict
+     */
+    private Map<Long, Long> findEnrollmentConflicts(Class classEntity, Collection<Long> studentIds) {
+        ClassSchedule schedule = classEntity.getSchedules();
+        List<Long> ids = List.copyOf(studentIds);
+        Map<Long, Long> conflicts = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += STUDENT_ID_CHUNK) {
+            List<ClassStudentRepository.ScheduleConflictRow> rows = classStudentRepository.findScheduleConflicts(
+                    ids.subList(from, Math.min(from + STUDENT_ID_CHUNK, ids.size())),
+                    schedule.getDayOfWeek(), classEntity.getStartDate(), classEntity.getEndDate(),
+                    schedule.getPeriodStart(), schedule.getPeriodEnd());
+            for (ClassStudentRepository.ScheduleConflictRow row : rows) {
+                if (!classEntity.getId().equals(row.getClassId())) {
+                    conflicts.putIfAbsent(row.getStudentId(), row.getClassId());
+                }
             }
-        });
-        if (students.isEmpty()) {
-            throw new ResourceNotFoundException("No students found with the provided IDs");
         }
-        List<ClassStudent> classStudents = students.stream()
-                .map(student -> ClassStudent.builder()
-                        .classEntity(classEntity)
-                        .student(student)
-                        .build())
-                .toList();
-        classEntity.getStudents().addAll(classStudents);
-        classStudents.forEach(classStudent -> {
-            classStudent.setStatus(ClassStudentStatus.ENROLLED);
-            classStudent.setClassEntity(classEntity);
-        });
-        classStudentRepository.saveAll(classStudents);
-        List<TuitionRecord> tuitionRecords = classStudents.stream()
-                .map(classStudent -> TuitionRecord.builder()
-                        .classStudent(classStudent)
-                        .status(classEntity.getStartDate().after(new Date()) || classEntity.getEndDate().before(new Date()) ? TuitionStatus.UNPAID : TuitionStatus.PROCESSING)
-                        .method(PaymentMethod.CASH)
-                        .build())
-                .toList();
-        tuitionRepository.saveAll(tuitionRecords);
-        classRepository.save(classEntity);
+        return conflicts;
+    }
+
+    private void writeEnrollments(Class classEntity, List<Long> studentIds) {
+        Date now = new Date();
+        TuitionStatus tuitionStatus = classEntity.getStartDate().after(now) || classEntity.getEndDate().before(now)
+                ? TuitionStatus.UNPAID : TuitionStatus.PROCESSING;
+        enrollmentBatchWriter.enroll(classEntity.getId(), studentIds, tuitionStatus, PaymentMethod.CASH);
     }
 
+    @Transactional
     public void removeClassStudents(Long id) {
-        classStudentRepository.deleteById(id);
+        classStudentRepository.findById(id).ifPresent(classStudentRepository::delete);
+    }
+
+    private void assertNoScheduleConflict(Long teacherId, CreateClassRequest request, Long ignoreClassId) {
+        if (!classScheduleRepository.findTeacherConflicts(teacherId, request.getDayOfWeek(),
+                request.getStartDate(), request.getEndDate(),
+                request.getPeriodStart(), request.getPeriodEnd(), ignoreClassId).isEmpty()) {
+            throw new ConflictTimeException("Giáo viên đã dạy lớp khác");
+        }
+        if (request.getRoom() != null && !request.getRoom().isBlank()
+                && !classScheduleRepository.findRoomConflicts(request.getRoom(), request.getDayOfWeek(),
+                request.getStartDate(), request.getEndDate(),
+                request.getPeriodStart(), request.getPeriodEnd(), ignoreClassId).isEmpty()) {
+            throw new ConflictTimeException("Phòng học đã có lớp khác");
+        }
     }
 }
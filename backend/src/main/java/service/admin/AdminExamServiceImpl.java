@@ -13,13 +13,13 @@ import model.Class;
 import model.ClassStudent;
 import model.Examination;
 import model.StudentExamination;
-import model.enums.AttendanceStatus;
 import model.enums.ExaminationType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import repository.*;
+import util.IdPagination;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -31,7 +31,6 @@ public class AdminExamServiceImpl {
     private final ExamRepository examRepository;
     private final ClassRepository classRepository;
     private final ClassStudentRepository classStudentRepository;
-    private final AttendanceHistoryRepository attendanceHistoryRepository;
     private final StudentExaminationRepository studentExaminationRepository;
 
     public ExamListResponse getExamByClass(Long classId, ExaminationType examinationType) {
@@ -42,18 +41,13 @@ public class AdminExamServiceImpl {
             List<ClassStudent> classStudents = classEntity.getStudents();
             return ExamListResponse.builder()
                     .attendanceResponses(classStudents.stream().map(
-                            classStudent -> {
-                                Integer absenceCount = attendanceHistoryRepository.findByTypeAndClassStudent(
-                                        AttendanceStatus.ABSENT, AttendanceStatus.LATE, classStudent
-                                );
-                                return ExamListResponse.AttendanceResponse.builder()
-                                        .classStudentId(classStudent.getId())
-                                        .studentName(classStudent.getStudent().getUser().getFullName())
-                                        .studentEmail(classStudent.getStudent().getUser().getEmail())
-                                        .absenceAttendanceCount(absenceCount)
-                                        .totalAttendanceCount(classEntity.getAbsenceLimit())
-                                        .build();
-                            }
+                            classStudent -> ExamListResponse.AttendanceResponse.builder()
+                                    .classStudentId(classStudent.getId())
+                                    .studentName(classStudent.getStudent().getUser().getFullName())
+                                    .studentEmail(classStudent.getStudent().getUser().getEmail())
+                                    .absenceAttendanceCount(classStudent.getAbsenceCount())
+                                    .totalAttendanceCount(classEntity.getAbsenceLimit())
+                                    .build()
                     ).toList())
                     .build();
         }
@@ -135,7 +129,8 @@ public class AdminExamServiceImpl {
 
     public BaseResponse<List<ScheduleExamListResponse>> scheduleExam(int page, int size) {
         Pageable pageable = Pageable.ofSize(size).withPage(page);
-        Page<Class> classes = classRepository.findAllAddExam(pageable);
+        Page<Class> classes = IdPagination.hydrate(classRepository.findPageIdsWithExaminations(pageable),
+                classRepository::findAllWithExaminationsByIds, Class::getId);
         List<ScheduleExamListResponse> scheduleExamListResponses = new ArrayList<>();
         for (Class classEntity : classes) {
             ScheduleExamListResponse scheduleExamListResponse;
@@ -30,6 +30,7 @@ import repository.HomeroomRepository;
 import repository.HomeroomStudentRepository;
 import repository.StudentRepository;
 import repository.TeacherRepository;
+import service.ReferenceDataCache;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -45,6 +46,7 @@ public class AdminHomeroomServiceImpl {
     private final HomeroomRepository homeroomRepository;
     private final HomeroomStudentRepository homeroomStudentRepository;
     private final TeacherRepository teacherRepository;
+    private final ReferenceDataCache referenceDataCache;
     private final StudentRepository studentRepository;
 
     /**
@@ -154,6 +156,8 @@ public class AdminHomeroomServiceImpl {
                     .build();
 
             homeroomRepository.save(homeroom);
+            // Teacher.homeroom is the inverse side, Hibernate does not refresh its cache entry
+            referenceDataCache.evictAfterCommit(Teacher.class, teacher.getId());
 
             log.info("Created new homeroom with name: {}, teacher: {}", request.getName(), teacher.getId());
 
@@ -195,11 +199,16 @@ public class AdminHomeroomServiceImpl {
                 throw new BadRequestException("Teacher already has a homeroom");
             }
 
+            Long previousTeacherId = homeroom.getTeacher().getId();
+
             // Update the homeroom name
             homeroom.setName(request.getName());
             homeroom.setTeacher(teacher);
 
             homeroomRepository.save(homeroom);
+            referenceDataCache.evictAfterCommit(Homeroom.class, homeroom.getId());
+            referenceDataCache.evictAfterCommit(Teacher.class, previousTeacherId);
+            referenceDataCache.evictAfterCommit(Teacher.class, teacher.getId());
 
             log.info("Updated homeroom with id: {}, new name: {}", request.getId(), request.getName());
 
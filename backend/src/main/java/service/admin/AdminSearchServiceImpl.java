@@ -9,6 +9,7 @@ import model.Subject;
 import org.springframework.stereotype.Service;
 import repository.SubjectRepository;
 import repository.UserRepository;
+import service.search.TypeaheadService;
 
 import java.util.List;
 
@@ -19,6 +20,7 @@ public class AdminSearchServiceImpl {
 
     private final UserRepository userRepository;
     private final SubjectRepository subjectRepository;
+    private final TypeaheadService typeaheadService;
 
     public List<SearchTeacherResponse> searchTeacher(String query) {
         return userRepository.searchTeacherByFullNameAndEmail(query);
@@ -38,4 +40,25 @@ public class AdminSearchServiceImpl {
                         .build()
         ).toList();
     }
+
+    /**
+     * Top-N teachers whose name or email has a word starting with the query (accents ignored)
+     */
+    public List<SearchTeacherResponse> typeaheadTeacher(String query, int limit) {
+        return typeaheadService.teachers(query, limit);
+    }
+
+    /**
+     * Top-N students whose name or email has a word starting with the query (accents ignored)
+     */
+    public List<SearchStudentResponse> typeaheadStudent(String query, int limit) {
+        return typeaheadService.students(query, limit);
+    }
+
+    /**
+     * Top-N subjects whose code or name has a word starting with the query (accents ignored)
+     */
+    public List<SearchSubjectResponse> typeaheadSubject(String query, int limit) {
+        return typeaheadService.subjects(query, limit);
+    }
 }
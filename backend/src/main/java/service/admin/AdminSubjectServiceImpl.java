@@ -14,6 +14,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import repository.SubjectRepository;
+import service.ReferenceDataCache;
 import util.Paging;
 
 import java.time.LocalDateTime;
@@ -27,6 +28,7 @@ import java.util.stream.Collectors;
 public class AdminSubjectServiceImpl {
 
     private final SubjectRepository subjectRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Get all subjects with pagination
@@ -123,6 +125,7 @@ public class AdminSubjectServiceImpl {
         subject.setDescription(request.getDescription());
         
         Subject updatedSubject = subjectRepository.save(subject);
+        referenceDataCache.evictAfterCommit(Subject.class, updatedSubject.getId());
         
         return mapToSubjectListResponse(updatedSubject);
     }
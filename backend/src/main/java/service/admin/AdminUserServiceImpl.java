@@ -3,6 +3,7 @@ package service.admin;
 import dto.request.admin.AdminUpdateProfileRequest;
 import dto.request.admin.UpdateStudentRequest;
 import dto.request.admin.UpdateTeacherRequest;
+import dto.request.admin.UserListFilter;
 import dto.response.BaseResponse;
 import dto.response.admin.AdminDetailResponse;
 import dto.response.admin.StudentDetailResponse;
@@ -20,7 +21,9 @@ import model.StudentInformation;
 import model.Teacher;
 import model.TeacherInformation;
 import model.User;
-import model.enums.Role;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,66 +33,60 @@ import repository.StudentRepository;
 import repository.TeacherInformationRepository;
 import repository.TeacherRepository;
 import repository.UserRepository;
+import service.ReferenceDataCache;
+import service.TokenRevocationFeed;
+import service.UniquenessValidator;
+import service.search.TypeaheadService;
+import util.IdPagination;
+import util.Paging;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AdminUserServiceImpl {
 
+    static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
     private final AdminRepository adminRepository;
     private final StudentRepository studentRepository;
     private final TeacherRepository teacherRepository;
     private final StudentInformationRepository studentInformationRepository;
     private final TeacherInformationRepository teacherInformationRepository;
+    private final TypeaheadService typeaheadService;
+    private final UniquenessValidator uniquenessValidator;
+    private final ReferenceDataCache referenceDataCache;
+    private final TokenRevocationFeed tokenRevocationFeed;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
-     * Get all users in the system
-     * @return List of all users with basic information
+     * Get a page of users, optionally filtered by role, account status and creation time.
+     * Rows are projected in one query; with a {@code cursor} the page is read by keyset instead of offset.
+     * @return Users with basic information and the paging of the list
      */
     @Transactional(readOnly = true)
-    public BaseResponse<List<UserListResponse>> getAllUsers() {
-        try {
-            List<User> users = userRepository.findAll();
-            
-            List<UserListResponse> userResponses = users.stream()
-                .map(user -> {
-                    UserListResponse response = UserListResponse.builder()
-                            .id(user.getId())
-                            .username(user.getUsername())
-                            .fullName(user.getFullName())
-                            .role(user.getRole())
-                            .gender(user.getGender())
-                            .dob(user.getDob())
-                            .email(user.getEmail())
-                            .phoneNumber(user.getPhoneNumber())
-                            .avatarUrl(user.getAvatarUrl())
-                            .createdAt(user.getCreatedAt())
-                            .updatedAt(user.getUpdatedAt())
-                            .build();
-                    
-                    // Add role-specific IDs if available
-                    if (user.getRole() == Role.ADMIN && user.getAdmin() != null) {
-                        response.setAdminId(user.getAdmin().getId());
-                    } else if (user.getRole() == Role.TEACHER && user.getTeacher() != null) {
-                        response.setTeacherId(user.getTeacher().getId());
-                    } else if (user.getRole() == Role.STUDENT && user.getStudent() != null) {
-                        response.setStudentId(user.getStudent().getId());
-                    }
-                    
-                    return response;
-                })
-                .collect(Collectors.toList());
-            
-            return BaseResponse.ok(userResponses, "List of all users retrieved successfully");
-        } catch (Exception e) {
-            log.error("Failed to retrieve user list", e);
-            return BaseResponse.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Failed to retrieve user list", e, null);
+    public BaseResponse<List<UserListResponse>> getAllUsers(UserListFilter filter, int page, int size, String cursor) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (cursor != null) {
+            List<UserListResponse> users = userRepository.findUserListAfter(IdPagination.decodeCursor(cursor),
+                    filter.getRole(), filter.getStatus(), filter.getCreatedFrom(), filter.getCreatedTo(),
+                    PageRequest.of(0, size + 1));
+            boolean hasNext = users.size() > size;
+            List<UserListResponse> content = hasNext ? users.subList(0, size) : users;
+            return BaseResponse.ok(content, "User list retrieved successfully",
+                    Paging.keyset(size, hasNext ? IdPagination.encodeCursor(content.get(size - 1).getId()) : null));
         }
+
+        Page<UserListResponse> users = userRepository.findUserList(filter.getRole(), filter.getStatus(),
+                filter.getCreatedFrom(), filter.getCreatedTo(), PageRequest.of(page, size));
+        List<UserListResponse> content = users.getContent();
+        return BaseResponse.ok(content, "User list retrieved successfully",
+                new Paging(page, size, users.getTotalElements(), users.getTotalPages(),
+                        users.hasNext() ? IdPagination.encodeCursor(content.get(content.size() - 1).getId()) : null));
     }
 
     /**
@@ -261,24 +258,19 @@ public class AdminUserServiceImpl {
                 user.setPhoneNumber(request.getPhoneNumber());
             }
             if (request.getEmail() != null && !request.getEmail().isBlank()) {
-                // Check if email is already in use by another user
-                List<User> usersWithEmail = userRepository.findAll().stream()
-                        .filter(u -> request.getEmail().equals(u.getEmail()) && !u.getId().equals(user.getId()))
-                        .toList();
-                
-                if (!usersWithEmail.isEmpty()) {
-                    throw new BadRequestException("Email is already in use by another user");
-                }
-                
+                uniquenessValidator.requireUniqueEmail(request.getEmail(), user.getId());
                 user.setEmail(request.getEmail());
             }
             if (request.getAvatarUrl() != null) {
                 user.setAvatarUrl(request.getAvatarUrl());
             }
             
-            // Save the updated user information
-            userRepository.save(user);
+            // Save the updated user information; flush so a concurrent duplicate email fails here
+            userRepository.saveAndFlush(user);
+            tokenRevocationFeed.evictUser(user.getUsername());
             
+            typeaheadService.indexStudent(student.getId(), user);
+
             // Update student-specific information
             StudentInformation studentInfo = studentInformationRepository.findByStudent(student)
                     .orElse(StudentInformation.builder().student(student).build());
@@ -342,6 +334,9 @@ public class AdminUserServiceImpl {
         } catch (BadRequestException e) {
             log.error("Bad request during student update", e);
             return BaseResponse.badRequest(e.getMessage(), e, null);
+        } catch (DataIntegrityViolationException e) {
+            // unique key lost a race with a concurrent write, GlobalExceptionHandler maps it to 400
+            throw e;
         } catch (Exception e) {
             log.error("Failed to update student information", e);
             return BaseResponse.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Failed to update student information", e, null);
@@ -375,24 +370,19 @@ public class AdminUserServiceImpl {
                 user.setPhoneNumber(request.getPhoneNumber());
             }
             if (request.getEmail() != null && !request.getEmail().isBlank()) {
-                // Check if email is already in use by another user
-                List<User> usersWithEmail = userRepository.findAll().stream()
-                        .filter(u -> request.getEmail().equals(u.getEmail()) && !u.getId().equals(user.getId()))
-                        .toList();
-                
-                if (!usersWithEmail.isEmpty()) {
-                    throw new BadRequestException("Email is already in use by another user");
-                }
-                
+                uniquenessValidator.requireUniqueEmail(request.getEmail(), user.getId());
                 user.setEmail(request.getEmail());
             }
             if (request.getAvatarUrl() != null) {
                 user.setAvatarUrl(request.getAvatarUrl());
             }
             
-            // Save the updated user information
-            userRepository.save(user);
+            // Save the updated user information; flush so a concurrent duplicate email fails here
+            userRepository.saveAndFlush(user);
+            tokenRevocationFeed.evictUser(user.getUsername());
             
+            typeaheadService.indexTeacher(teacher.getId(), user);
+
             // Update teacher-specific information
             TeacherInformation teacherInfo = teacherInformationRepository.findByTeacher(teacher)
                     .orElse(TeacherInformation.builder().teacher(teacher).build());
@@ -405,6 +395,9 @@ public class AdminUserServiceImpl {
             }
             
             teacherInformationRepository.save(teacherInfo);
+            // a new TeacherInformation is the inverse side of Teacher.teacherInformation
+            referenceDataCache.evictAfterCommit(Teacher.class, teacher.getId());
+            referenceDataCache.evictAfterCommit(TeacherInformation.class, teacherInfo.getId());
             
             log.info("Updated teacher information for teacher ID: {}", request.getTeacherId());
             return BaseResponse.accepted(null, "Teacher information updated successfully");
@@ -414,6 +407,9 @@ public class AdminUserServiceImpl {
         } catch (BadRequestException e) {
             log.error("Bad request during teacher update", e);
             return BaseResponse.badRequest(e.getMessage(), e, null);
+        } catch (DataIntegrityViolationException e) {
+            // unique key lost a race with a concurrent write, GlobalExceptionHandler maps it to 400
+            throw e;
         } catch (Exception e) {
             log.error("Failed to update teacher information", e);
             return BaseResponse.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Failed to update teacher information", e, null);
@@ -447,23 +443,16 @@ public class AdminUserServiceImpl {
                 user.setPhoneNumber(request.getPhoneNumber());
             }
             if (request.getEmail() != null && !request.getEmail().isBlank()) {
-                // Check if email is already in use by another user
-                List<User> usersWithEmail = userRepository.findAll().stream()
-                        .filter(u -> request.getEmail().equals(u.getEmail()) && !u.getId().equals(user.getId()))
-                        .toList();
-                
-                if (!usersWithEmail.isEmpty()) {
-                    throw new BadRequestException("Email is already in use by another user");
-                }
-                
+                uniquenessValidator.requireUniqueEmail(request.getEmail(), user.getId());
                 user.setEmail(request.getEmail());
             }
             if (request.getAvatarUrl() != null) {
                 user.setAvatarUrl(request.getAvatarUrl());
             }
             
-            // Save the updated user information
-            userRepository.save(user);
+            // Save the updated user information; flush so a concurrent duplicate email fails here
+            userRepository.saveAndFlush(user);
+            tokenRevocationFeed.evictUser(user.getUsername());
             
             // Update admin-specific information
             if (request.getNote() != null) {
@@ -493,6 +482,9 @@ public class AdminUserServiceImpl {
         } catch (BadRequestException e) {
             log.error("Bad request during admin update", e);
             return BaseResponse.badRequest(e.getMessage(), e, null);
+        } catch (DataIntegrityViolationException e) {
+            // unique key lost a race with a concurrent write, GlobalExceptionHandler maps it to 400
+            throw e;
         } catch (Exception e) {
             log.error("Failed to update admin profile", e);
             return BaseResponse.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Failed to update admin profile", e, null);
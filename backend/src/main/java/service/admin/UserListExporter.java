@@ -0,0 +1,76 @@
+package service.admin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import dto.request.admin.UserListFilter;
+import dto.response.admin.AccountListResponse;
+import dto.response.admin.UserListResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import repository.UserRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Full admin user and account lists as NDJSON (one JSON object per line).
+ * <p>
+ * The rows are read with the keyset queries of {@link UserRepository}, {@value #PAGE_SIZE} at a
+ * time, and each page is flushed before the next is read, so memory use does not grow with the
+ * number of users and the client can render the first rows while the rest is still loading.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserListExporter {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    static final int PAGE_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    public StreamingResponseBody exportUsers(UserListFilter filter) {
+        return out -> export(out, "users", UserListResponse.class, UserListResponse::getId,
+                afterId -> userRepository.findUserListAfter(afterId, filter.getRole(), filter.getStatus(),
+                        filter.getCreatedFrom(), filter.getCreatedTo(), PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    public StreamingResponseBody exportAccounts(UserListFilter filter) {
+        return out -> export(out, "accounts", AccountListResponse.class, AccountListResponse::getUserId,
+                afterId -> userRepository.findAccountListAfter(afterId, filter.getRole(), filter.getStatus(),
+                        filter.getCreatedFrom(), filter.getCreatedTo(), PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    /**
+     * @param userIdOf user id of a row, the keyset of the queries
+     * @param pageAfter next page of rows after a user id
+     */
+    private <T> void export(OutputStream out, String name, Class<T> type, Function<T, Long> userIdOf,
+                            Function<Long, List<T>> pageAfter) throws IOException {
+        long start = System.currentTimeMillis();
+        ObjectWriter writer = objectMapper.writerFor(type);
+        long afterId = 0L;
+        long rows = 0;
+        List<T> page;
+        do {
+            page = pageAfter.apply(afterId);
+            for (T row : page) {
+                out.write(writer.writeValueAsBytes(row));
+                out.write('\n');
+            }
+            out.flush();
+            rows += page.size();
+            if (!page.isEmpty()) {
+                afterId = userIdOf.apply(page.get(page.size() - 1));
+            }
+        } while (page.size() == PAGE_SIZE);
+        log.info("Exported {} {} in {} ms", rows, name, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,73 @@
+package service.alert;
+
+import dto.response.teacher.AbsenceAlertResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process outbox of absence alerts, one bounded queue per teacher.
+ * <p>
+ * Alerts are kept until the queue is full, then the oldest is dropped, so an inactive teacher cannot
+ * make the outbox grow without bound. Reading does not remove anything: each alert has an increasing
+ * id and the client passes the last id it has seen, so a retried or prefetched request loses nothing.
+ * <p>
+ * The outbox is per node. An alert lives only on the node that processed the roll call and is gone
+ * after a restart; behind a load balancer a teacher sees the alerts of the node serving the request.
+ * Ids start from the clock at boot so that they keep increasing across restarts.
+ */
+@Service
+@Slf4j
+public class AbsenceAlertOutbox {
+
+    private final int capacityPerTeacher;
+    private final Map<Long, Deque<AbsenceAlertResponse>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    public AbsenceAlertOutbox(@Value("${application.attendance.alerts.capacity-per-teacher:200}") int capacityPerTeacher) {
+        this.capacityPerTeacher = capacityPerTeacher;
+    }
+
+    void enqueueAll(Long teacherId, List<AbsenceAlertResponse> alerts) {
+        Deque<AbsenceAlertResponse> queue = pending.computeIfAbsent(teacherId, id -> new ArrayDeque<>());
+        synchronized (queue) {
+            for (AbsenceAlertResponse alert : alerts) {
+                if (queue.size() >= capacityPerTeacher) {
+                    queue.pollFirst();
+                    log.warn("Absence alert outbox full for teacher {}, dropping oldest alert", teacherId);
+                }
+                // assigned under the queue lock so ids are increasing within each queue
+                alert.setId(sequence.incrementAndGet());
+                queue.addLast(alert);
+            }
+        }
+    }
+
+    /**
+     * @param afterId the largest id the client already has, or null for every retained alert
+     * @return the teacher's alerts with a larger id, oldest first
+     */
+    public List<AbsenceAlertResponse> findAfter(Long teacherId, Long afterId) {
+        Deque<AbsenceAlertResponse> queue = pending.get(teacherId);
+        if (queue == null) {
+            return List.of();
+        }
+        synchronized (queue) {
+            List<AbsenceAlertResponse> alerts = new ArrayList<>();
+            for (AbsenceAlertResponse alert : queue) {
+                if (afterId == null || alert.getId() > afterId) {
+                    alerts.add(alert);
+                }
+            }
+            return alerts;
+        }
+    }
+}
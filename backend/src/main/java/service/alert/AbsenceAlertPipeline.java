@@ -0,0 +1,175 @@
+package service.alert;
+
+import dto.response.teacher.AbsenceAlertResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import model.enums.AbsenceAlertLevel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import repository.ClassRepository;
+import repository.ClassStudentRepository;
+import service.AbsenceCountChange;
+import service.AttendanceRecordedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns recorded roll calls into absence alerts for the class teacher.
+ * <p>
+ * Committed {@link AttendanceRecordedEvent}s are put on a bounded queue and handled by one worker
+ * thread in batches. Each event carries the before/after absence counters of the students it
+ * changed, so a threshold is evaluated only for those students and fires exactly once, when the
+ * counter crosses it. A batch needs one query for the class settings and one for the names of
+ * the alerted students. When the queue is full, the request thread waits up to
+ * {@code offer-timeout} before the event is dropped and counted.
+ */
+@Service
+@Slf4j
+public class AbsenceAlertPipeline {
+
+    private final ClassRepository classRepository;
+    private final ClassStudentRepository classStudentRepository;
+    private final AbsenceAlertOutbox outbox;
+    private final BlockingQueue<AttendanceRecordedEvent> queue;
+    private final int batchSize;
+    private final Duration offerTimeout;
+    private final Counter droppedEvents;
+    private volatile Thread worker;
+
+    public AbsenceAlertPipeline(
+            ClassRepository classRepository,
+            ClassStudentRepository classStudentRepository,
+            AbsenceAlertOutbox outbox,
+            @Value("${application.attendance.alerts.queue-capacity:1000}") int queueCapacity,
+            @Value("${application.attendance.alerts.batch-size:100}") int batchSize,
+            @Value("${application.attendance.alerts.offer-timeout:PT2S}") Duration offerTimeout,
+            MeterRegistry meterRegistry
+    ) {
+        this.classRepository = classRepository;
+        this.classStudentRepository = classStudentRepository;
+        this.outbox = outbox;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeout = offerTimeout;
+        this.droppedEvents = meterRegistry.counter("attendance.alerts.dropped");
+        meterRegistry.gauge("attendance.alerts.queue.size", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void start() {
+        worker = new Thread(this::run, "absence-alerts");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        worker.interrupt();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAttendanceRecorded(AttendanceRecordedEvent event) {
+        try {
+            if (!queue.offer(event, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                droppedEvents.increment();
+                log.warn("Absence alert queue full, dropped event for attendance {}", event.attendanceId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<AttendanceRecordedEvent> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Failed to process {} attendance events", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<AttendanceRecordedEvent> batch) {
+        Set<Long> classIds = batch.stream().map(AttendanceRecordedEvent::classId).collect(Collectors.toSet());
+        Map<Long, ClassRepository.AbsenceAlertSettings> settings = classRepository.findAbsenceAlertSettingsByIds(classIds)
+                .stream()
+                .collect(Collectors.toMap(ClassRepository.AbsenceAlertSettings::getId, Function.identity()));
+
+        List<PendingAlert> alerts = new ArrayList<>();
+        for (AttendanceRecordedEvent event : batch) {
+            ClassRepository.AbsenceAlertSettings classSettings = settings.get(event.classId());
+            if (classSettings == null) {
+                continue;
+            }
+            for (AbsenceCountChange change : event.changes()) {
+                // the limit supersedes the warning when one roll call crosses both
+                if (crossed(change, classSettings.getAbsenceLimit())) {
+                    alerts.add(new PendingAlert(classSettings, change, AbsenceAlertLevel.LIMIT_REACHED, classSettings.getAbsenceLimit()));
+                } else if (crossed(change, classSettings.getAbsenceWarningThreshold())) {
+                    alerts.add(new PendingAlert(classSettings, change, AbsenceAlertLevel.WARNING, classSettings.getAbsenceWarningThreshold()));
+                }
+            }
+        }
+        if (alerts.isEmpty()) {
+            return;
+        }
+
+        Set<Long> classStudentIds = new HashSet<>();
+        alerts.forEach(alert -> classStudentIds.add(alert.change().classStudentId()));
+        Map<Long, ClassStudentRepository.RosterRow> students = classStudentRepository.findRosterRowsByIds(classStudentIds)
+                .stream()
+                .collect(Collectors.toMap(ClassStudentRepository.RosterRow::getClassStudentId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<AbsenceAlertResponse>> byTeacher = new HashMap<>();
+        for (PendingAlert alert : alerts) {
+            ClassStudentRepository.RosterRow student = students.get(alert.change().classStudentId());
+            byTeacher.computeIfAbsent(alert.settings().getTeacherId(), id -> new ArrayList<>())
+                    .add(AbsenceAlertResponse.builder()
+                            .classId(alert.settings().getId())
+                            .className(alert.settings().getClassName())
+                            .classStudentId(alert.change().classStudentId())
+                            .studentName(student != null ? student.getFullName() : null)
+                            .studentEmail(student != null ? student.getEmail() : null)
+                            .level(alert.level())
+                            .absenceCount(alert.change().after())
+                            .threshold(alert.threshold())
+                            .createdAt(now)
+                            .build());
+        }
+        byTeacher.forEach(outbox::enqueueAll);
+        log.info("Queued {} absence alerts for {} teachers", alerts.size(), byTeacher.size());
+    }
+
+    private static boolean crossed(AbsenceCountChange change, Integer threshold) {
+        return threshold != null && change.before() < threshold && change.after() >= threshold;
+    }
+
+    private record PendingAlert(ClassRepository.AbsenceAlertSettings settings, AbsenceCountChange change,
+                                AbsenceAlertLevel level, Integer threshold) {
+    }
+}
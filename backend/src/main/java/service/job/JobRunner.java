@@ -0,0 +1,205 @@
+package service.job;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import model.JobRun;
+import model.enums.JobRunStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import repository.JobRunRepository;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a scheduled job on exactly one node of the cluster.
+ * <p>
+ * Each job has a row in job_leases. A node may run the job only after it has taken the lease,
+ * which is possible when the lease has expired or the node already holds it. While the job runs
+ * the lease is renewed in the background. If the node dies, renewals stop and the lease expires,
+ * so another node can take over on its next trigger. On completion the lease is kept for at least
+ * {@code lockAtLeast}: nodes whose clock fires a little later then skip the same run. Every run
+ * that takes the lease is recorded in job_runs.
+ * <p>
+ * Renewal alone does not stop a node that has lost its lease, for example after a long GC pause.
+ * Jobs that write in chunks therefore call {@link #checkLease(String)} in each chunk's transaction.
+ */
+@Service
+@Slf4j
+public class JobRunner {
+
+    private static final String ENSURE_LEASE = """
+            INSERT IGNORE INTO job_leases (job_name, owner, lease_until, acquired_at)
+            VALUES (?, NULL, TIMESTAMP('1970-01-01 00:00:01'), NULL)
+            """;
+    private static final String ACQUIRE_LEASE = """
+            UPDATE job_leases
+            SET owner = ?, acquired_at = NOW(3), lease_until = NOW(3) + INTERVAL ? SECOND
+            WHERE job_name = ? AND (lease_until < NOW(3) OR owner = ?)
+            """;
+    private static final String RENEW_LEASE = """
+            UPDATE job_leases SET lease_until = NOW(3) + INTERVAL ? SECOND
+            WHERE job_name = ? AND owner = ?
+            """;
+    // the shared lock keeps the row until the chunk commits, so ACQUIRE_LEASE on another node waits for it
+    private static final String CHECK_LEASE = """
+            SELECT COUNT(*) FROM job_leases
+            WHERE job_name = ? AND owner = ? AND lease_until > NOW(3)
+            FOR SHARE
+            """;
+    private static final String RELEASE_LEASE = """
+            UPDATE job_leases SET lease_until = GREATEST(NOW(3), acquired_at + INTERVAL ? SECOND)
+            WHERE job_name = ? AND owner = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobRunRepository jobRunRepository;
+    private final Duration leaseTtl;
+    private final Duration lockAtLeast;
+    private final String nodeId;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-lease-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JobRunner(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            JobRunRepository jobRunRepository,
+            @Value("${application.jobs.lease-ttl:PT2M}") Duration leaseTtl,
+            @Value("${application.jobs.lock-at-least:PT5M}") Duration lockAtLeast
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jobRunRepository = jobRunRepository;
+        this.leaseTtl = leaseTtl;
+        this.lockAtLeast = lockAtLeast;
+        this.nodeId = hostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+    }
+
+    /**
+     * Run {@code job} if this node can take the job's lease, otherwise return without running it.
+     *
+     * @return true if the job ran on this node (successfully or not)
+     */
+    public boolean runExclusive(String jobName, Runnable job) {
+        // the lease is re-entrant for its owner, so a second trigger on this node is stopped here
+        if (!running.add(jobName)) {
+            log.debug("Job {} is already running on this node, skipping", jobName);
+            return false;
+        }
+        try {
+            return runLeased(jobName, job);
+        } finally {
+            running.remove(jobName);
+        }
+    }
+
+    /**
+     * Fencing check for chunked jobs. Call it inside each chunk's transaction before the writes: it fails
+     * if the lease has expired or moved to another node, and otherwise holds the lease row until the
+     * chunk commits.
+     *
+     * @throws LeaseLostException if this node no longer holds the lease; {@link #runExclusive} records
+     *                            the run as failed and the new owner carries on
+     */
+    public void checkLease(String jobName) {
+        Integer held = jdbcTemplate.queryForObject(CHECK_LEASE, Integer.class, jobName, nodeId);
+        if (held == null || held == 0) {
+            throw new LeaseLostException(jobName);
+        }
+    }
+
+    private boolean runLeased(String jobName, Runnable job) {
+        if (!acquire(jobName)) {
+            log.debug("Job {} is held by another node, skipping", jobName);
+            return false;
+        }
+
+        JobRun run = jobRunRepository.save(JobRun.builder()
+                .jobName(jobName)
+                .owner(nodeId)
+                .status(JobRunStatus.RUNNING)
+                .startedAt(LocalDateTime.now())
+                .build());
+        long renewEvery = Math.max(leaseTtl.toMillis() / 3, 1000);
+        ScheduledFuture<?> renewal = heartbeat.scheduleAtFixedRate(
+                () -> renew(jobName), renewEvery, renewEvery, TimeUnit.MILLISECONDS);
+        try {
+            job.run();
+            finish(run, JobRunStatus.SUCCEEDED, null);
+        } catch (LeaseLostException e) {
+            log.warn("Job {} stopped, its lease was taken over by another node", jobName);
+            finish(run, JobRunStatus.FAILED, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Job {} failed", jobName, e);
+            finish(run, JobRunStatus.FAILED, e.toString());
+        } finally {
+            renewal.cancel(false);
+            release(jobName);
+        }
+        return true;
+    }
+
+    private boolean acquire(String jobName) {
+        Integer updated = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(ENSURE_LEASE, jobName);
+            return jdbcTemplate.update(ACQUIRE_LEASE, nodeId, leaseTtl.toSeconds(), jobName, nodeId);
+        });
+        return updated != null && updated == 1;
+    }
+
+    private void renew(String jobName) {
+        try {
+            Integer updated = transactionTemplate.execute(status ->
+                    jdbcTemplate.update(RENEW_LEASE, leaseTtl.toSeconds(), jobName, nodeId));
+            if (updated == null || updated == 0) {
+                log.warn("Lost the lease of job {} while it was running, it stops at its next lease check", jobName);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to renew the lease of job {}", jobName, e);
+        }
+    }
+
+    private void release(String jobName) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.update(RELEASE_LEASE, lockAtLeast.toSeconds(), jobName, nodeId));
+        } catch (RuntimeException e) {
+            log.warn("Failed to release the lease of job {}, it will expire on its own", jobName, e);
+        }
+    }
+
+    private void finish(JobRun run, JobRunStatus status, String message) {
+        run.setStatus(status);
+        run.setFinishedAt(LocalDateTime.now());
+        run.setMessage(message);
+        jobRunRepository.save(run);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package service.job;
+
+/**
+ * Thrown by {@link JobRunner#checkLease(String)} when another node has taken over the job's lease
+ */
+class LeaseLostException extends RuntimeException {
+
+    LeaseLostException(String jobName) {
+        super("Lease of job " + jobName + " is no longer held by this node");
+    }
+}
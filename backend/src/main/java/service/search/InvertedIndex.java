@@ -0,0 +1,191 @@
+package service.search;
+
+import util.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory, accent-insensitive substring index.
+ * <p>
+ * Every field is folded with {@link TextNormalizer#fold(String)} and indexed by its trigrams;
+ * word prefixes of one and two characters are indexed as well so short queries still hit.
+ * Fields are listed in decreasing weight, which is used for ranking.
+ * Writes are serialized, reads are lock-free. A full rebuild fills a fresh index and swaps it in,
+ * so readers see either the old or the new contents, never an empty index.
+ */
+final class InvertedIndex<T> {
+
+    private static final int GRAM_SIZE = 3;
+    private static final String PREFIX_MARK = "^";
+
+    private final Function<T, Long> idOf;
+    private final Function<T, List<String>> fieldsOf;
+    private volatile Contents<T> contents = new Contents<>();
+
+    InvertedIndex(Function<T, Long> idOf, Function<T, List<String>> fieldsOf) {
+        this.idOf = idOf;
+        this.fieldsOf = fieldsOf;
+    }
+
+    synchronized void put(T document) {
+        put(contents, document);
+    }
+
+    private void put(Contents<T> target, T document) {
+        Long id = idOf.apply(document);
+        remove(target, id);
+        List<String> folded = fieldsOf.apply(document).stream()
+                .map(TextNormalizer::fold)
+                .toList();
+        Set<String> keys = new HashSet<>();
+        for (String field : folded) {
+            collectKeys(field, keys);
+        }
+        for (String key : keys) {
+            target.postings().computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        target.entries().put(id, new Entry<>(document, folded, keys));
+    }
+
+    synchronized void remove(Long id) {
+        remove(contents, id);
+    }
+
+    private static <T> void remove(Contents<T> target, Long id) {
+        Map<String, Set<Long>> postings = target.postings();
+        Entry<T> previous = target.entries().remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String key : previous.keys()) {
+            Set<Long> ids = postings.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    synchronized void replaceAll(Collection<T> documents) {
+        Contents<T> rebuilt = new Contents<>();
+        documents.forEach(document -> put(rebuilt, document));
+        contents = rebuilt;
+    }
+
+    T get(Long id) {
+        Entry<T> entry = contents.entries().get(id);
+        return entry != null ? entry.document() : null;
+    }
+
+    int size() {
+        return contents.entries().size();
+    }
+
+    /**
+     * @return every document containing the query in one of its fields, best match first
+     */
+    List<T> search(String query) {
+        String folded = TextNormalizer.fold(query);
+        if (folded.isEmpty()) {
+            return List.of();
+        }
+
+        Contents<T> current = contents;
+        Set<Long> candidates = candidates(current.postings(), folded);
+        List<Hit<T>> hits = new ArrayList<>();
+        for (Long id : candidates) {
+            Entry<T> entry = current.entries().get(id);
+            if (entry == null) {
+                continue;
+            }
+            int score = score(entry.folded(), folded);
+            if (score > 0) {
+                hits.add(new Hit<>(id, score, entry.document()));
+            }
+        }
+        return hits.stream()
+                .sorted(Comparator.comparingInt((Hit<T> hit) -> hit.score()).reversed()
+                        .thenComparing(Hit::id))
+                .map(Hit::document)
+                .toList();
+    }
+
+    private static Set<Long> candidates(Map<String, Set<Long>> postings, String folded) {
+        if (folded.length() < GRAM_SIZE) {
+            return postings.getOrDefault(PREFIX_MARK + folded, Set.of());
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM_SIZE <= folded.length(); i++) {
+            Set<Long> ids = postings.get(folded.substring(i, i + GRAM_SIZE));
+            if (ids == null) {
+                return Set.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Exact field match beats field prefix, which beats word prefix, which beats plain substring.
+     * Earlier fields outrank later ones for the same kind of match.
+     */
+    private static int score(List<String> fields, String query) {
+        int best = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            int match;
+            if (field.equals(query)) {
+                match = 4;
+            } else if (field.startsWith(query)) {
+                match = 3;
+            } else if (field.contains(" " + query)) {
+                match = 2;
+            } else if (query.length() >= GRAM_SIZE && field.contains(query)) {
+                match = 1;
+            } else {
+                continue;
+            }
+            best = Math.max(best, match * 100 + (fields.size() - i));
+        }
+        return best;
+    }
+
+    private static void collectKeys(String field, Set<String> keys) {
+        for (int i = 0; i + GRAM_SIZE <= field.length(); i++) {
+            keys.add(field.substring(i, i + GRAM_SIZE));
+        }
+        for (String word : field.split(" ")) {
+            for (int length = 1; length < GRAM_SIZE && length <= word.length(); length++) {
+                keys.add(PREFIX_MARK + word.substring(0, length));
+            }
+        }
+    }
+
+    private record Contents<T>(Map<Long, Entry<T>> entries, Map<String, Set<Long>> postings) {
+
+        Contents() {
+            this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    private record Entry<T>(T document, List<String> folded, Set<String> keys) {
+    }
+
+    private record Hit<T>(Long id, int score, T document) {
+    }
+}
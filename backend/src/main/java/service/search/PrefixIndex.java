@@ -0,0 +1,89 @@
+package service.search;
+
+import util.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted, accent-folded prefix map for typeahead.
+ * <p>
+ * Every word suffix of every field is a key ("nguyen van an", "van an", "an"), so a query
+ * matches the start of any word. Lookups are a single range scan over every key with the prefix.
+ * Writes are serialized, reads are lock-free.
+ */
+final class PrefixIndex<T> {
+
+    private static final char SEPARATOR = '\u0000';
+    private static final Comparator<Posting<?>> RANKING = Comparator
+            .comparingInt((Posting<?> posting) -> posting.rank())
+            .thenComparingInt(posting -> posting.term().length())
+            .thenComparing(Posting::term)
+            .thenComparing(Posting::id);
+
+    private final NavigableMap<String, Posting<T>> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, List<String>> keysById = new ConcurrentHashMap<>();
+
+    /**
+     * @param fields values to index, most important first
+     */
+    synchronized void put(Long id, T document, List<String> fields) {
+        remove(id);
+        List<String> keys = new ArrayList<>();
+        for (int f = 0; f < fields.size(); f++) {
+            String[] words = TextNormalizer.fold(fields.get(f)).split(" ");
+            for (int w = 0; w < words.length; w++) {
+                if (words[w].isEmpty()) {
+                    continue;
+                }
+                String term = String.join(" ", List.of(words).subList(w, words.length));
+                String key = term + SEPARATOR + id + SEPARATOR + f + SEPARATOR + w;
+                terms.put(key, new Posting<>(id, f * 2 + (w == 0 ? 0 : 1), term, document));
+                keys.add(key);
+            }
+        }
+        keysById.put(id, keys);
+    }
+
+    synchronized void remove(Long id) {
+        List<String> keys = keysById.remove(id);
+        if (keys != null) {
+            keys.forEach(terms::remove);
+        }
+    }
+
+    int size() {
+        return keysById.size();
+    }
+
+    /**
+     * @return up to {@code limit} documents with a word starting with the query; whole-field and
+     * earlier-field matches first, then shorter terms
+     */
+    List<T> search(String query, int limit) {
+        String prefix = TextNormalizer.fold(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // keys are in term order, not ranking order, so the whole range is read before picking the top
+        Map<Long, Posting<T>> best = new HashMap<>();
+        for (Posting<T> posting : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            best.merge(posting.id(), posting, (a, b) -> RANKING.compare(a, b) <= 0 ? a : b);
+        }
+        return best.values().stream()
+                .sorted(RANKING)
+                .limit(limit)
+                .map(Posting::document)
+                .toList();
+    }
+
+    private record Posting<T>(Long id, int rank, String term, T document) {
+    }
+}
@@ -0,0 +1,112 @@
+package service.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import model.Account;
+import model.Subject;
+import model.User;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Pushes committed writes on {@link User}, {@link Account} and {@link Subject} into the search index
+ * (and subjects into the typeahead; teachers/students are pushed by the admin services).
+ * Bulk JPQL/JDBC writes bypass these events; callers doing those must refresh the index themselves.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexEventListener implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final SearchIndexService searchIndexService;
+    private final TypeaheadService typeaheadService;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        index(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Account account && event.getOldState() != null) {
+            int index = Arrays.asList(event.getPersister().getPropertyNames()).indexOf("username");
+            Object oldUsername = index >= 0 ? event.getOldState()[index] : null;
+            if (oldUsername != null && !Objects.equals(oldUsername, account.getUsername())) {
+                searchIndexService.renameAccount(oldUsername.toString(), account.getUsername());
+            }
+            return;
+        }
+        index(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User user) {
+            searchIndexService.removeUser(user.getId());
+        } else if (event.getEntity() instanceof Subject subject) {
+            searchIndexService.removeSubject(subject.getId());
+            typeaheadService.removeSubject(subject.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == User.class || type == Account.class || type == Subject.class;
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // transaction rolled back, nothing to index
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // transaction rolled back, nothing to index
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // transaction rolled back, nothing to index
+    }
+
+    private void index(Object entity) {
+        try {
+            if (entity instanceof User user) {
+                searchIndexService.indexUser(user);
+            } else if (entity instanceof Subject subject) {
+                searchIndexService.indexSubject(subject);
+                typeaheadService.indexSubject(subject);
+            }
+        } catch (Exception e) {
+            // the nightly rebuild repairs the index, never fail the committed request
+            log.warn("Failed to update search index for {}", entity.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package service.search;
+
+import dto.response.admin.SubjectListResponse;
+import dto.response.search.UserSearchResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import model.Subject;
+import model.User;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import repository.ClassRepository;
+import repository.SubjectRepository;
+import repository.UserRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the in-memory search indexes for users and subjects.
+ * <p>
+ * Indexes are built on startup, kept up to date by {@link SearchIndexEventListener}
+ * after each committed write, and rebuilt nightly to pick up bulk SQL writes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexService {
+
+    private final UserRepository userRepository;
+    private final SubjectRepository subjectRepository;
+    private final ClassRepository classRepository;
+
+    private final InvertedIndex<UserSearchResponse> userIndex = new InvertedIndex<>(
+            UserSearchResponse::getId,
+            user -> Arrays.asList(user.getUsername(), user.getFullName(), user.getEmail()));
+    private final InvertedIndex<SubjectListResponse> subjectIndex = new InvertedIndex<>(
+            SubjectListResponse::getId,
+            subject -> Arrays.asList(subject.getCode(), subject.getName()));
+    private volatile Map<String, Long> userIdByUsername = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${application.search.rebuild-cron:0 30 3 * * *}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<UserSearchResponse> users = userRepository.findAllForSearchIndex();
+        List<SubjectListResponse> subjects = subjectRepository.findAll().stream()
+                .map(this::toDocument)
+                .toList();
+
+        Map<String, Long> usernames = new ConcurrentHashMap<>();
+        users.forEach(user -> usernames.put(user.getUsername(), user.getId()));
+        userIndex.replaceAll(users);
+        subjectIndex.replaceAll(subjects);
+        userIdByUsername = usernames;
+        loaded = true;
+
+        log.info("Search index rebuilt: {} users, {} subjects in {} ms",
+                users.size(), subjects.size(), System.currentTimeMillis() - start);
+    }
+
+    public Page<UserSearchResponse> searchUsers(String query, int page, int size) {
+        ensureLoaded();
+        return toPage(userIndex.search(query), page, size);
+    }
+
+    /**
+     * Subjects are ranked in memory; class counts are then loaded for the requested page only.
+     */
+    @Transactional(readOnly = true)
+    public Page<SubjectListResponse> searchSubjects(String query, int page, int size) {
+        ensureLoaded();
+        Page<SubjectListResponse> result = toPage(subjectIndex.search(query), page, size);
+        if (result.isEmpty()) {
+            return result;
+        }
+
+        List<Long> ids = result.getContent().stream().map(SubjectListResponse::getId).toList();
+        Map<Long, Long> totals = classRepository.countBySubjectIds(ids).stream()
+                .collect(Collectors.toMap(ClassRepository.SubjectClassCount::getSubjectId,
+                        ClassRepository.SubjectClassCount::getTotal));
+
+        return result.map(subject -> SubjectListResponse.builder()
+                .id(subject.getId())
+                .name(subject.getName())
+                .code(subject.getCode())
+                .description(subject.getDescription())
+                .totalClasses(totals.getOrDefault(subject.getId(), 0L).intValue())
+                .createdAt(subject.getCreatedAt())
+                .updatedAt(subject.getUpdatedAt())
+                .build());
+    }
+
+    public void indexUser(User user) {
+        UserSearchResponse document = new UserSearchResponse(
+                user.getId(),
+                user.getAccount() != null ? user.getAccount().getUsername() : null,
+                user.getFullName(),
+                user.getEmail(),
+                user.getRole(),
+                user.getAvatarUrl());
+        UserSearchResponse previous = userIndex.get(user.getId());
+        if (previous != null && previous.getUsername() != null) {
+            userIdByUsername.remove(previous.getUsername());
+        }
+        userIndex.put(document);
+        if (document.getUsername() != null) {
+            userIdByUsername.put(document.getUsername(), document.getId());
+        }
+    }
+
+    public void removeUser(Long userId) {
+        UserSearchResponse previous = userIndex.get(userId);
+        if (previous != null && previous.getUsername() != null) {
+            userIdByUsername.remove(previous.getUsername());
+        }
+        userIndex.remove(userId);
+    }
+
+    /**
+     * Re-index the user owning an account whose username changed
+     */
+    public void renameAccount(String oldUsername, String newUsername) {
+        Long userId = oldUsername != null ? userIdByUsername.remove(oldUsername) : null;
+        UserSearchResponse previous = userId != null ? userIndex.get(userId) : null;
+        if (previous == null) {
+            return;
+        }
+        userIndex.put(new UserSearchResponse(previous.getId(), newUsername, previous.getFullName(),
+                previous.getEmail(), previous.getRole(), previous.getAvatarUrl()));
+        userIdByUsername.put(newUsername, userId);
+    }
+
+    public void indexSubject(Subject subject) {
+        subjectIndex.put(toDocument(subject));
+    }
+
+    public void removeSubject(Long subjectId) {
+        subjectIndex.remove(subjectId);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private SubjectListResponse toDocument(Subject subject) {
+        return SubjectListResponse.builder()
+                .id(subject.getId())
+                .name(subject.getName())
+                .code(subject.getCode())
+                .description(subject.getDescription())
+                .createdAt(subject.getCreatedAt())
+                .updatedAt(subject.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * @param page >= 0, and size >= 1, checked by the caller; a page past the last hit is empty
+     */
+    private static <T> Page<T> toPage(List<T> hits, int page, int size) {
+        int from = (int) Math.min((long) page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        return new PageImpl<>(hits.subList(from, to), PageRequest.of(page, size), hits.size());
+    }
+}
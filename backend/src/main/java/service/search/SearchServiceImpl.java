@@ -1,52 +1,44 @@
 package service.search;
 
+import dto.response.BaseResponse;
 import dto.response.admin.SubjectListResponse;
 import dto.response.search.UserDetailResponse;
 import dto.response.search.UserSearchResponse;
+import exception.BadRequestException;
 import exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
-import model.Subject;
 import model.User;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import repository.AccountRepository;
-import repository.SubjectRepository;
 import repository.UserRepository;
+import util.Paging;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class SearchServiceImpl {
 
+    static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
-    private final SubjectRepository subjectRepository;
+    private final SearchIndexService searchIndexService;
 
     /**
-     * Search users by username or email
-     * @param query The search query (username or email)
-     * @return List of matching users
+     * Search users by username, full name or email (accent-insensitive, ranked)
+     * @param query The search query
+     * @param page Page number
+     * @param size Page size
+     * @return Page of matching users
      */
-    @Transactional(readOnly = true)
-    public List<UserSearchResponse> searchUser(String query) {
+    public BaseResponse<List<UserSearchResponse>> searchUser(String query, int page, int size) {
+        checkPaging(page, size);
         if (query == null || query.trim().isEmpty()) {
-            return List.of();
+            return BaseResponse.ok(List.of(), "Search result", Paging.of(page, size));
         }
 
-        // Sanitize the input
-        String sanitizedQuery = sanitizeInput(query);
-
-        // Search by username or email
-        return userRepository.findAll().stream()
-                .filter(user ->
-                        (user.getAccount().getUsername() != null &&
-                                user.getAccount().getUsername().toLowerCase().contains(sanitizedQuery.toLowerCase())) ||
-                                (user.getEmail() != null &&
-                                        user.getEmail().toLowerCase().contains(sanitizedQuery.toLowerCase()))
-                )
-                .map(this::mapToUserSearchResponse)
-                .collect(Collectors.toList());
+        Page<UserSearchResponse> result = searchIndexService.searchUsers(query, page, size);
+        return BaseResponse.ok(result.getContent(), "Search result", Paging.from(result));
     }
 
     /**
@@ -62,59 +54,26 @@ public class SearchServiceImpl {
     }
 
     /**
-     * Search subjects by name or code
-     * @param query The search query (name or code)
-     * @return List of matching subjects
+     * Search subjects by name or code (accent-insensitive, ranked)
+     * @param query The search query
+     * @param page Page number
+     * @param size Page size
+     * @return Page of matching subjects
      */
-    @Transactional(readOnly = true)
-    public List<SubjectListResponse> searchSubject(String query) {
+    public BaseResponse<List<SubjectListResponse>> searchSubject(String query, int page, int size) {
+        checkPaging(page, size);
         if (query == null || query.trim().isEmpty()) {
-            return List.of();
+            return BaseResponse.ok(List.of(), "Search result", Paging.of(page, size));
         }
 
-        // Sanitize the input
-        String sanitizedQuery = sanitizeInput(query);
-
-        // Search by name or code
-        return subjectRepository.findAll().stream()
-                .filter(subject ->
-                        (subject.getName() != null &&
-                                subject.getName().toLowerCase().contains(sanitizedQuery.toLowerCase())) ||
-                                (subject.getCode() != null &&
-                                        subject.getCode().toLowerCase().contains(sanitizedQuery.toLowerCase()))
-                )
-                .map(this::mapToSubjectListResponse)
-                .collect(Collectors.toList());
+        Page<SubjectListResponse> result = searchIndexService.searchSubjects(query, page, size);
+        return BaseResponse.ok(result.getContent(), "Search result", Paging.from(result));
     }
 
-    /**
-     * Sanitize input to prevent injection attacks
-     * @param input The input to sanitize
-     * @return Sanitized input
-     */
-    private String sanitizeInput(String input) {
-        if (input == null) {
-            return "";
+    private static void checkPaging(int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
         }
-
-        // Remove any special characters that could be used for SQL injection
-        return input.replaceAll("[;'\"\\\\/]", "");
-    }
-
-    /**
-     * Map User entity to UserSearchResponse DTO
-     * @param user The user entity
-     * @return UserSearchResponse DTO
-     */
-    private UserSearchResponse mapToUserSearchResponse(User user) {
-        return UserSearchResponse.builder()
-                .id(user.getId())
-                .username(user.getAccount().getUsername())
-                .fullName(user.getFullName())
-                .email(user.getEmail())
-                .role(user.getRole())
-                .avatarUrl(user.getAvatarUrl())
-                .build();
     }
 
     /**
@@ -135,21 +94,4 @@ public class SearchServiceImpl {
                 .avatarUrl(user.getAvatarUrl())
                 .build();
     }
-
-    /**
-     * Map Subject entity to SubjectListResponse DTO
-     * @param subject The subject entity
-     * @return SubjectListResponse DTO
-     */
-    private SubjectListResponse mapToSubjectListResponse(Subject subject) {
-        return SubjectListResponse.builder()
-                .id(subject.getId())
-                .name(subject.getName())
-                .code(subject.getCode())
-                .description(subject.getDescription())
-                .totalClasses(subject.getClasses() != null ? subject.getClasses().size() : 0)
-                .createdAt(subject.getCreatedAt())
-                .updatedAt(subject.getUpdatedAt())
-                .build();
-    }
 }
\ No newline at end of file
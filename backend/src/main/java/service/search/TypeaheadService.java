@@ -0,0 +1,167 @@
+package service.search;
+
+import dto.request.admin.SearchSubjectResponse;
+import dto.response.admin.SearchStudentResponse;
+import dto.response.admin.SearchTeacherResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import model.Subject;
+import model.User;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import repository.SubjectRepository;
+import repository.UserRepository;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Typeahead for the admin student/teacher/subject pickers.
+ * <p>
+ * Backed by {@link PrefixIndex}: built on startup and nightly, and updated after commit
+ * whenever an admin creates or edits a teacher, student or subject. A rebuild fills new indexes
+ * and swaps all three in at once, so lookups never see an emptied or half-filled index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TypeaheadService {
+
+    public static final int MAX_LIMIT = 50;
+
+    private final UserRepository userRepository;
+    private final SubjectRepository subjectRepository;
+
+    private volatile Indexes indexes = new Indexes();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${application.search.rebuild-cron:0 30 3 * * *}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<SearchTeacherResponse> teacherRows = userRepository.findAllTeachersForTypeahead();
+        List<SearchStudentResponse> studentRows = userRepository.findAllStudentsForTypeahead();
+        List<Subject> subjectRows = subjectRepository.findAll();
+
+        // writes wait for the swap, so an edit committed during the build is not lost
+        synchronized (this) {
+            Indexes rebuilt = new Indexes();
+            teacherRows.forEach(row -> putTeacher(rebuilt, row));
+            studentRows.forEach(row -> putStudent(rebuilt, row));
+            subjectRows.forEach(subject -> putSubject(rebuilt, subject));
+            indexes = rebuilt;
+            loaded = true;
+        }
+
+        log.info("Typeahead rebuilt: {} teachers, {} students, {} subjects in {} ms",
+                teacherRows.size(), studentRows.size(), subjectRows.size(), System.currentTimeMillis() - start);
+    }
+
+    public List<SearchTeacherResponse> teachers(String query, int limit) {
+        ensureLoaded();
+        return indexes.teachers().search(query, clamp(limit));
+    }
+
+    public List<SearchStudentResponse> students(String query, int limit) {
+        ensureLoaded();
+        return indexes.students().search(query, clamp(limit));
+    }
+
+    public List<SearchSubjectResponse> subjects(String query, int limit) {
+        ensureLoaded();
+        return indexes.subjects().search(query, clamp(limit));
+    }
+
+    /**
+     * Index a created or renamed teacher once the surrounding transaction commits
+     */
+    public void indexTeacher(Long teacherId, User user) {
+        SearchTeacherResponse row = new SearchTeacherResponse(
+                user.getFullName(), user.getAvatarUrl(), user.getEmail(), teacherId);
+        afterCommit(() -> {
+            synchronized (this) {
+                putTeacher(indexes, row);
+            }
+        });
+    }
+
+    /**
+     * Index a created or renamed student once the surrounding transaction commits
+     */
+    public void indexStudent(Long studentId, User user) {
+        SearchStudentResponse row = new SearchStudentResponse(
+                user.getFullName(), user.getAvatarUrl(), user.getEmail(), studentId);
+        afterCommit(() -> {
+            synchronized (this) {
+                putStudent(indexes, row);
+            }
+        });
+    }
+
+    public synchronized void indexSubject(Subject subject) {
+        putSubject(indexes, subject);
+    }
+
+    public synchronized void removeSubject(Long subjectId) {
+        indexes.subjects().remove(subjectId);
+    }
+
+    private static void putTeacher(Indexes target, SearchTeacherResponse row) {
+        target.teachers().put(row.getTeacherId(), row, Arrays.asList(row.getFullName(), row.getEmail()));
+    }
+
+    private static void putStudent(Indexes target, SearchStudentResponse row) {
+        target.students().put(row.getStudentId(), row, Arrays.asList(row.getFullName(), row.getEmail()));
+    }
+
+    private static void putSubject(Indexes target, Subject subject) {
+        SearchSubjectResponse row = SearchSubjectResponse.builder()
+                .subjectId(subject.getId())
+                .subjectName(subject.getName())
+                .subjectCode(subject.getCode())
+                .build();
+        target.subjects().put(row.getSubjectId(), row, Arrays.asList(row.getSubjectCode(), row.getSubjectName()));
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Indexes(PrefixIndex<SearchTeacherResponse> teachers,
+                           PrefixIndex<SearchStudentResponse> students,
+                           PrefixIndex<SearchSubjectResponse> subjects) {
+
+        Indexes() {
+            this(new PrefixIndex<>(), new PrefixIndex<>(), new PrefixIndex<>());
+        }
+    }
+}
@@ -19,6 +19,8 @@ import org.springframework.transaction.annotation.Transactional;
 import repository.AccountRepository;
 import repository.StudentRepository;
 import repository.UserRepository;
+import service.CurrentActorResolver;
+import service.TokenRevocationFeed;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +31,8 @@ public class StudentAccountServiceImpl {
     private final UserRepository userRepository;
     private final StudentRepository studentRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CurrentActorResolver currentActorResolver;
+    private final TokenRevocationFeed tokenRevocationFeed;
 
     /**
      * Get the current student's account information
@@ -36,11 +40,9 @@ public class StudentAccountServiceImpl {
      */
     public BaseResponse<AccountInformationResponse> getAccountInformation() {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Account account = accountRepository.findByUsername(auth.getName())
-                    .orElseThrow(() -> new RuntimeException("Account not found"));
-            User user = userRepository.findByAccount(account)
+            User user = userRepository.findById(currentActorResolver.current().userId())
                     .orElseThrow(() -> new RuntimeException("User not found"));
+            Account account = user.getAccount();
             AccountInformationResponse response = AccountInformationResponse.builder()
                     .username(account.getUsername())
                     .status(account.getStatus())
@@ -86,6 +88,7 @@ public class StudentAccountServiceImpl {
             // Update password
             account.setPassword(passwordEncoder.encode(request.getNewPassword()));
             accountRepository.save(account);
+            tokenRevocationFeed.evictUser(account.getUsername());
             
             log.info("Password changed for student: {}", auth.getName());
             return BaseResponse.accepted(null, "Password changed successfully");
@@ -2,19 +2,15 @@ package service.student;
 
 import dto.response.BaseResponse;
 import dto.response.admin.ScheduleExamListResponse;
-import exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import model.Class;
-import model.Student;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import repository.ClassRepository;
-import repository.ExamRepository;
-import repository.StudentRepository;
+import service.CurrentActorResolver;
+import util.IdPagination;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -24,16 +20,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class StudentExamServiceImpl {
     private final ClassRepository classRepository;
-    private final StudentRepository studentRepository;
-    private final ExamRepository examRepository;
+    private final CurrentActorResolver currentActorResolver;
     public BaseResponse<List<ScheduleExamListResponse>> scheduleExam(int page, int size) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-
-        Student student = studentRepository.findByUserAccountUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
         Pageable pageable = Pageable.ofSize(size).withPage(page);
-        Page<Class> classes = classRepository.findAllAddExamAndStudent(pageable,student);
+        Page<Class> classes = IdPagination.hydrate(
+                classRepository.findPageIdsByStudentId(currentActorResolver.currentStudentId(), pageable),
+                classRepository::findAllWithExaminationsByIds, Class::getId);
         List<ScheduleExamListResponse> scheduleExamListResponses = new ArrayList<>();
         for (Class classEntity : classes) {
             ScheduleExamListResponse scheduleExamListResponse;
@@ -41,7 +33,7 @@ public class StudentExamServiceImpl {
                 scheduleExamListResponse = ScheduleExamListResponse.builder()
                         .classId(classEntity.getId())
                         .className(classEntity.getClassName())
-                        .classScheduleResponses(examRepository.findByClassEntity(classEntity).stream().map(examination ->
+                        .classScheduleResponses(classEntity.getExaminations().stream().map(examination ->
                                 ScheduleExamListResponse.ClassScheduleResponse.builder()
                                         .examinationId(examination.getId())
                                         .examinationType(examination.getType())
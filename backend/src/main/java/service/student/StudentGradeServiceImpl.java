@@ -2,7 +2,6 @@ package service.student;
 
 import dto.response.BaseResponse;
 import dto.response.student.StudentGradeResponse;
-import exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import model.ClassStudent;
@@ -11,12 +10,11 @@ import model.StudentExamination;
 import model.enums.ExaminationType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import repository.ClassStudentRepository;
 import repository.StudentExaminationRepository;
 import repository.StudentRepository;
+import service.CurrentActorResolver;
 
 import java.util.List;
 
@@ -27,13 +25,10 @@ public class StudentGradeServiceImpl {
     private final StudentRepository studentRepository;
     private final ClassStudentRepository classStudentRepository;
     private final StudentExaminationRepository studentExaminationRepository;
+    private final CurrentActorResolver currentActorResolver;
     public BaseResponse<List<StudentGradeResponse>> getGrades(int page, int size) {
         Pageable pageable = Pageable.ofSize(size).withPage(page);
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-
-        Student student = studentRepository.findByUserAccountUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+        Student student = studentRepository.getReferenceById(currentActorResolver.currentStudentId());
         Page<ClassStudent> classStudents = classStudentRepository.findByStudent(student, pageable);
         if (classStudents.isEmpty()) {
             return BaseResponse.ok(List.of(), "No grades found", new util.Paging(page, size, 0, 0));
@@ -12,13 +12,12 @@ import model.HomeroomStudent;
 import model.Student;
 import model.enums.HomeroomStatus;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import repository.HomeroomRepository;
 import repository.HomeroomStudentRepository;
 import repository.StudentRepository;
+import service.CurrentActorResolver;
 
 import java.util.List;
 import java.util.Map;
@@ -32,6 +31,7 @@ public class StudentHomeroomServiceImpl {
     private final HomeroomRepository homeroomRepository;
     private final HomeroomStudentRepository homeroomStudentRepository;
     private final StudentRepository studentRepository;
+    private final CurrentActorResolver currentActorResolver;
 
     /**
      * Get the current student's homeroom details
@@ -40,11 +40,7 @@ public class StudentHomeroomServiceImpl {
     public BaseResponse<StudentHomeroomDetailResponse> getHomeroom() {
         try {
             // Get current authenticated student
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-
-            Student student = studentRepository.findByUserAccountUsername(username)
-                    .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+            Student student = studentRepository.getReferenceById(currentActorResolver.currentStudentId());
 
             // Check if student is in this homeroom
             HomeroomStudent homeroomStudent = homeroomStudentRepository.findByStudent(student)
@@ -15,6 +15,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import repository.StudentInformationRepository;
 import repository.StudentRepository;
+import repository.UserRepository;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +23,7 @@ import repository.StudentRepository;
 public class StudentInformationService {
 
     private final StudentRepository studentRepository;
+    private final UserRepository userRepository;
     private final StudentInformationRepository studentInformationRepository;
 
     /**
@@ -33,7 +35,10 @@ public class StudentInformationService {
         try {
             // Get current authenticated user
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User currentUser = (User) authentication.getPrincipal();
+            User currentUser = userRepository.findWithAccountByUsername(authentication.getName()).orElse(null);
+            if (currentUser == null) {
+                return BaseResponse.error(HttpStatus.NOT_FOUND.value(), "Student information not found", null, null);
+            }
             
             Student student = currentUser.getStudent();
             if (student == null) {
@@ -95,7 +100,10 @@ public class StudentInformationService {
         try {
             // Get current authenticated user
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User currentUser = (User) authentication.getPrincipal();
+            User currentUser = userRepository.findWithAccountByUsername(authentication.getName()).orElse(null);
+            if (currentUser == null) {
+                return BaseResponse.error(HttpStatus.NOT_FOUND.value(), "Student information not found", null, null);
+            }
             
             Student student = currentUser.getStudent();
             if (student == null) {
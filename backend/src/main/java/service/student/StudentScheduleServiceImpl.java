@@ -6,10 +6,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import model.*;
 import model.Class;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import repository.*;
+import service.CurrentActorResolver;
 
 import java.util.List;
 
@@ -18,20 +17,12 @@ import java.util.List;
 @Slf4j
 public class StudentScheduleServiceImpl {
     private final ClassRepository classRepository;
-    private final AccountRepository accountRepository;
-    private final UserRepository userRepository;
     private final StudentRepository studentRepository;
     private final ClassStudentRepository classStudentRepository;
+    private final CurrentActorResolver currentActorResolver;
 
     public List<StudentScheduleResponse> getScheduleByMonth(Integer month, Integer year) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Account account = accountRepository.findByUsername(auth.getName())
-                .orElseThrow(() -> new RuntimeException("Account not found"));
-        User user = userRepository.findByAccount(account)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Student student = studentRepository.findByUser(user)
-                .orElseThrow(() -> new RuntimeException("Student not found"));
+        Student student = studentRepository.getReferenceById(currentActorResolver.currentStudentId());
 
 
         List<ClassStudent> classes = classStudentRepository.findByStudentAndMonthAndYear(student, month, year);
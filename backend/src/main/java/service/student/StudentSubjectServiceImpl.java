@@ -13,13 +13,12 @@ import model.Subject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import repository.ClassStudentRepositoryCustom;
 import repository.StudentRepository;
 import repository.SubjectRepository;
+import service.CurrentActorResolver;
 import util.Paging;
 
 import java.time.LocalDateTime;
@@ -38,6 +37,7 @@ public class StudentSubjectServiceImpl {
     private final SubjectRepository subjectRepository;
     private final StudentRepository studentRepository;
     private final ClassStudentRepositoryCustom classStudentRepository;
+    private final CurrentActorResolver currentActorResolver;
 
     /**
      * Get all subjects with pagination
@@ -46,11 +46,7 @@ public class StudentSubjectServiceImpl {
     public BaseResponse<Map<String, Object>> getAllSubjects(Pageable pageable) {
         try {
             // Get current authenticated student
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-
-            Student student = studentRepository.findByUserAccountUsername(username)
-                    .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+            Student student = studentRepository.getReferenceById(currentActorResolver.currentStudentId());
 
             // Get all subjects with pagination
             Page<Subject> subjectsPage = subjectRepository.findAllSubjects(pageable);
@@ -100,11 +96,7 @@ public class StudentSubjectServiceImpl {
     public BaseResponse<StudentSubjectDetailResponse> getSubjectById(Long id) {
         try {
             // Get current authenticated student
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-
-            Student student = studentRepository.findByUserAccountUsername(username)
-                    .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+            Student student = studentRepository.getReferenceById(currentActorResolver.currentStudentId());
 
             Subject subject = subjectRepository.findByIdWithClasses(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Subject not found with ID: " + id));
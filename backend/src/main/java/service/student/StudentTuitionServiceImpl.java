@@ -2,19 +2,17 @@ package service.student;
 
 import dto.response.BaseResponse;
 import dto.response.admin.TuitionListResponse;
-import exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import model.ClassStudent;
 import model.Student;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import repository.ClassStudentRepository;
 import repository.StudentRepository;
 import repository.TuitionRepository;
+import service.CurrentActorResolver;
 
 import java.util.List;
 
@@ -25,13 +23,10 @@ public class StudentTuitionServiceImpl {
     private final StudentRepository studentRepository;
     private final TuitionRepository tuitionRepository;
     private final ClassStudentRepository classStudentRepository;
+    private final CurrentActorResolver currentActorResolver;
     public BaseResponse<List<TuitionListResponse>> getAllTuition(int page, int size) {
         Pageable pageable = Pageable.ofSize(size).withPage(page);
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-
-        Student student = studentRepository.findByUserAccountUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+        Student student = studentRepository.getReferenceById(currentActorResolver.currentStudentId());
         Page<ClassStudent> classStudents = classStudentRepository.findByStudent(student, pageable);
         if (classStudents.isEmpty()) {
             return BaseResponse.ok(
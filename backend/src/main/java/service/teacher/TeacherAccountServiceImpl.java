@@ -23,6 +23,8 @@ import repository.AccountRepository;
 import repository.TeacherInformationRepository;
 import repository.TeacherRepository;
 import repository.UserRepository;
+import service.CurrentActorResolver;
+import service.TokenRevocationFeed;
 
 @Service
 @RequiredArgsConstructor
@@ -34,6 +36,8 @@ public class TeacherAccountServiceImpl {
     private final TeacherRepository teacherRepository;
     private final TeacherInformationRepository teacherInformationRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CurrentActorResolver currentActorResolver;
+    private final TokenRevocationFeed tokenRevocationFeed;
 
     /**
      * Get the current teacher's account information
@@ -41,11 +45,9 @@ public class TeacherAccountServiceImpl {
      */
     public BaseResponse<AccountInformationResponse> getAccountInformation() {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Account account = accountRepository.findByUsername(auth.getName())
-                    .orElseThrow(() -> new RuntimeException("Account not found"));
-            User user = userRepository.findByAccount(account)
+            User user = userRepository.findById(currentActorResolver.current().userId())
                     .orElseThrow(() -> new RuntimeException("User not found"));
+            Account account = user.getAccount();
             AccountInformationResponse response = AccountInformationResponse.builder()
                     .username(account.getUsername())
                     .status(account.getStatus())
@@ -91,6 +93,7 @@ public class TeacherAccountServiceImpl {
             // Update password
             account.setPassword(passwordEncoder.encode(request.getNewPassword()));
             accountRepository.save(account);
+            tokenRevocationFeed.evictUser(account.getUsername());
             
             log.info("Password changed for teacher: {}", auth.getName());
             return BaseResponse.accepted(null, "Password changed successfully");
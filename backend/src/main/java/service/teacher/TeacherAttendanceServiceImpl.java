@@ -1,84 +1,97 @@
 package service.teacher;
 
 import dto.request.teacher.TeacherAttendanceCreateRequest;
+import dto.response.admin.AttendanceMatrixResponse;
+import dto.response.teacher.AbsenceAlertResponse;
 import dto.response.teacher.AttendanceListResponse;
 import exception.ConflictTimeException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import model.Attendance;
-import model.AttendanceHistory;
 import model.Class;
-import model.ClassStudent;
+import model.enums.AttendanceStatus;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import repository.AttendanceHistoryRepository;
 import repository.AttendanceRepository;
 import repository.ClassRepository;
+import repository.ClassStudentRepository;
+import service.AbsenceCountChange;
+import service.AttendanceBatchWriter;
+import service.AttendanceMatrixService;
+import service.AttendanceRecordedEvent;
+import service.CurrentActorResolver;
+import service.alert.AbsenceAlertOutbox;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class TeacherAttendanceServiceImpl {
     private final AttendanceRepository attendanceRepository;
-    private final AttendanceHistoryRepository attendanceHistoryRepository;
     private final ClassRepository classRepository;
+    private final ClassStudentRepository classStudentRepository;
+    private final AttendanceBatchWriter attendanceBatchWriter;
+    private final AttendanceMatrixService attendanceMatrixService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AbsenceAlertOutbox absenceAlertOutbox;
+    private final CurrentActorResolver currentActorResolver;
+
     public List<AttendanceListResponse> getAttendanceByClass(Long classId) {
-        Class classEntity = classRepository.findAttendenceById(classId)
-                .orElseThrow(() -> new IllegalArgumentException("Class not found with id: " + classId));
-        List<ClassStudent> classStudents=classEntity.getStudents();
-        return classStudents.stream()
-                .map(classStudent -> {
-                    List<AttendanceHistory> attendanceHistories = attendanceHistoryRepository.findByClassStudent(classStudent);
+        return attendanceMatrixService.getHistoryList(classId);
+    }
 
+    public AttendanceMatrixResponse getAttendanceMatrix(Long classId) {
+        return attendanceMatrixService.getMatrix(classId);
+    }
 
-                    return AttendanceListResponse.builder()
-                            .classStudentId(classStudent.getId())
-                            .studentName(classStudent.getStudent().getUser().getFullName())
-                            .studentEmail(classStudent.getStudent().getUser().getEmail())
-                            .attendanceHistories(attendanceHistories.stream().map(
-                                    attendanceHistory -> AttendanceListResponse.AttendanceHistoriesResponse.builder()
-                                            .attendanceId(attendanceHistory.getAttendance().getId())
-                                            .date(attendanceHistory.getAttendance().getDate())
-                                            .attendanceType(attendanceHistory.getAttendance().getType())
-                                            .attendanceStatus(attendanceHistory.getStatus())
-                                            .build()).toList()
-                            ).build();
-                })
-                .toList();
+    /**
+     * Absence warnings raised for the current teacher's classes after the alert with the given id.
+     * Read-only, so the client can retry with the same cursor.
+     */
+    public List<AbsenceAlertResponse> getAbsenceAlerts(Long afterId) {
+        return absenceAlertOutbox.findAfter(currentActorResolver.currentTeacherId(), afterId);
     }
+
+    /**
+     * Records a roll call. Submitting the same class, date and type again updates the existing
+     * session: statuses are overwritten and no duplicate history rows are created.
+     */
     @Transactional
     public void createAttendance(Long classId, TeacherAttendanceCreateRequest teacherAttendanceCreateRequest) {
-        Class classEntity = classRepository.findById(classId)
+        Class classEntity = classRepository.findWithScheduleById(classId)
                 .orElseThrow(() -> new IllegalArgumentException("Class not found with id: " + classId));
 
         if(classEntity.getStartDate().after(teacherAttendanceCreateRequest.getDate()) ||
                 classEntity.getEndDate().before(teacherAttendanceCreateRequest.getDate())) {
             throw new ConflictTimeException("Attendance date is out of class date range");
         }
-        Attendance attendance = Attendance.builder()
-                .classEntity(classEntity)
-                .type(teacherAttendanceCreateRequest.getAttendanceType())
-                .date(teacherAttendanceCreateRequest.getDate())
-                .build();
-
-        attendanceRepository.save(attendance);
-
 
+        Set<Long> classStudentIds = new HashSet<>(classStudentRepository.findIdsByClassId(classId));
+        Map<Long, AttendanceStatus> statusByClassStudentId = new LinkedHashMap<>();
         for (TeacherAttendanceCreateRequest.AttendanceResult result : teacherAttendanceCreateRequest.getAttendanceResults()) {
-            ClassStudent classStudent = classEntity.getStudents().stream()
-                    .filter(cs -> cs.getId().equals(result.getClassStudentId()))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalArgumentException("Class student not found with id: " + result.getClassStudentId()));
+            if (!classStudentIds.contains(result.getClassStudentId())) {
+                throw new IllegalArgumentException("Class student not found with id: " + result.getClassStudentId());
+            }
+            statusByClassStudentId.put(result.getClassStudentId(), result.getAttendanceStatus());
+        }
 
-            AttendanceHistory attendanceHistory = AttendanceHistory.builder()
-                    .attendance(attendance)
-                    .classStudent(classStudent)
-                    .status(result.getAttendanceStatus())
-                    .build();
+        Attendance attendance = attendanceRepository.findByClassEntityIdAndDateAndType(
+                        classId, teacherAttendanceCreateRequest.getDate(), teacherAttendanceCreateRequest.getAttendanceType())
+                .orElseGet(() -> attendanceRepository.save(Attendance.builder()
+                        .classEntity(classEntity)
+                        .type(teacherAttendanceCreateRequest.getAttendanceType())
+                        .date(teacherAttendanceCreateRequest.getDate())
+                        .build()));
 
-            attendanceHistoryRepository.save(attendanceHistory);
+        List<AbsenceCountChange> changes = attendanceBatchWriter.upsert(attendance.getId(), statusByClassStudentId);
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new AttendanceRecordedEvent(classId, attendance.getId(), changes));
         }
     }
 }
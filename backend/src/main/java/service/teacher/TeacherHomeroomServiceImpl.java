@@ -14,14 +14,13 @@ import model.Student;
 import model.Teacher;
 import model.enums.HomeroomStatus;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import repository.HomeroomRepository;
 import repository.HomeroomStudentRepository;
 import repository.StudentRepository;
 import repository.TeacherRepository;
+import service.CurrentActorResolver;
 
 import java.util.List;
 import java.util.Map;
@@ -36,6 +35,7 @@ public class TeacherHomeroomServiceImpl {
     private final HomeroomStudentRepository homeroomStudentRepository;
     private final TeacherRepository teacherRepository;
     private final StudentRepository studentRepository;
+    private final CurrentActorResolver currentActorResolver;
 
 
     /**
@@ -45,11 +45,7 @@ public class TeacherHomeroomServiceImpl {
     public BaseResponse<TeacherHomeroomDetailResponse> getHomeroom() {
         try {
             // Get current authenticated teacher
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            
-            Teacher teacher = teacherRepository.findByUserAccountUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Teacher not found"));
+            Teacher teacher = teacherRepository.getReferenceById(currentActorResolver.currentTeacherId());
             
             // Find the homeroom
             Homeroom homeroom = homeroomRepository.findByIdWithTeacherAndStudents(teacher.getId())
@@ -162,11 +158,7 @@ public class TeacherHomeroomServiceImpl {
     public BaseResponse<String> updateStatusStudent(Long studentId, HomeroomStatusResquest homeroomStatusResquest) {
         try {
             // Get current authenticated teacher
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-
-            Teacher teacher = teacherRepository.findByUserAccountUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Teacher not found"));
+            Teacher teacher = teacherRepository.getReferenceById(currentActorResolver.currentTeacherId());
 
             // Find the homeroom
             Homeroom homeroom = homeroomRepository.findByIdWithTeacherAndStudents(teacher.getId())
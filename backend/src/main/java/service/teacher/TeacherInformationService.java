@@ -16,6 +16,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import repository.TeacherInformationRepository;
 import repository.TeacherRepository;
+import repository.UserRepository;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +24,7 @@ import repository.TeacherRepository;
 public class TeacherInformationService {
 
     private final TeacherRepository teacherRepository;
+    private final UserRepository userRepository;
     private final TeacherInformationRepository teacherInformationRepository;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -35,7 +37,10 @@ public class TeacherInformationService {
         try {
             // Get current authenticated user
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User currentUser = (User) authentication.getPrincipal();
+            User currentUser = userRepository.findWithAccountByUsername(authentication.getName()).orElse(null);
+            if (currentUser == null) {
+                return BaseResponse.error(HttpStatus.NOT_FOUND.value(), "Teacher information not found", null, null);
+            }
             
             Teacher teacher = currentUser.getTeacher();
             if (teacher == null) {
@@ -83,7 +88,10 @@ public class TeacherInformationService {
         try {
             // Get current authenticated user
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User currentUser = (User) authentication.getPrincipal();
+            User currentUser = userRepository.findWithAccountByUsername(authentication.getName()).orElse(null);
+            if (currentUser == null) {
+                return BaseResponse.error(HttpStatus.NOT_FOUND.value(), "Teacher information not found", null, null);
+            }
             
             Teacher teacher = currentUser.getTeacher();
             if (teacher == null) {
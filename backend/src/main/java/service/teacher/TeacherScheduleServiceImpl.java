@@ -4,17 +4,12 @@ import dto.response.BaseResponse;
 import dto.response.teacher.TeacherScheduleResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import model.Account;
 import model.Class;
 import model.Teacher;
-import model.User;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import repository.ClassRepository;
-import repository.AccountRepository;
 import repository.TeacherRepository;
-import repository.UserRepository;
+import service.CurrentActorResolver;
 
 import java.util.List;
 
@@ -23,18 +18,11 @@ import java.util.List;
 @Slf4j
 public class TeacherScheduleServiceImpl {
     private final ClassRepository classRepository;
-    private final AccountRepository accountRepository;
-    private final UserRepository userRepository;
     private final TeacherRepository teacherRepository;
+    private final CurrentActorResolver currentActorResolver;
 
     public List<TeacherScheduleResponse> getScheduleByMonth(Integer month, Integer year) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Account account = accountRepository.findByUsername(auth.getName())
-                .orElseThrow(() -> new RuntimeException("Account not found"));
-        User user = userRepository.findByAccount(account)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        Teacher teacher = teacherRepository.findByUser(user)
-                .orElseThrow(() -> new RuntimeException("Teacher not found"));
+        Teacher teacher = teacherRepository.getReferenceById(currentActorResolver.currentTeacherId());
         List<Class> classes = classRepository.findByAndTeacherMonthAndYear(teacher, month, year);
         if (classes.isEmpty()) {
             return List.of();
@@ -12,13 +12,12 @@ import model.Teacher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import repository.ClassRepositoryCustom;
 import repository.SubjectRepository;
 import repository.TeacherRepository;
+import service.CurrentActorResolver;
 import util.Paging;
 
 import java.time.LocalDateTime;
@@ -37,6 +36,7 @@ public class TeacherSubjectServiceImpl {
     private final SubjectRepository subjectRepository;
     private final TeacherRepository teacherRepository;
     private final ClassRepositoryCustom classRepository;
+    private final CurrentActorResolver currentActorResolver;
 
     /**
      * Get all subjects with pagination
@@ -81,11 +81,7 @@ public class TeacherSubjectServiceImpl {
     public BaseResponse<List<TeacherSubjectListResponse>> getCurrentSubjects() {
         try {
             // Get current authenticated teacher
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-
-            Teacher teacher = teacherRepository.findByUserAccountUsername(username)
-                    .orElseThrow(() -> new ResourceNotFoundException("Teacher not found"));
+            Teacher teacher = teacherRepository.getReferenceById(currentActorResolver.currentTeacherId());
 
             // Get all classes taught by this teacher
             List<Class> teacherClasses = classRepository.findByTeacher(teacher);
@@ -127,11 +123,7 @@ public class TeacherSubjectServiceImpl {
     public BaseResponse<TeacherSubjectDetailResponse> getSubjectById(Long id) {
         try {
             // Get current authenticated teacher
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-
-            Teacher teacher = teacherRepository.findByUserAccountUsername(username)
-                    .orElseThrow(() -> new ResourceNotFoundException("Teacher not found"));
+            Teacher teacher = teacherRepository.getReferenceById(currentActorResolver.currentTeacherId());
 
             Subject subject = subjectRepository.findByIdWithClasses(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Subject not found with ID: " + id));
@@ -0,0 +1,83 @@
+package util;
+
+import exception.BadRequestException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Two-phase pagination: page (or seek) over ids in the database, then load the rows
+ * for those ids with whatever fetch joins the caller needs.
+ * <p>
+ * Use this instead of combining a collection {@code JOIN FETCH} with a {@code Pageable},
+ * which makes Hibernate load the whole result and paginate in memory.
+ */
+public final class IdPagination {
+
+    private IdPagination() {
+    }
+
+    /**
+     * @param ids    page of ids, ordered as they should be displayed
+     * @param loader loads the rows for a list of ids (e.g. {@code repository::findAllWith...ByIds})
+     * @param idOf   id accessor of a loaded row
+     * @return the loaded rows as a page with the same number, size and total as {@code ids}
+     */
+    public static <T> Page<T> hydrate(Page<Long> ids, Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        List<T> content = ids.isEmpty() ? List.of() : inIdOrder(ids.getContent(), loader.apply(ids.getContent()), idOf);
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Keyset variant of {@link #hydrate}. The id query must be ordered by id ascending, start after
+     * {@link #decodeCursor(String)} and fetch {@code size + 1} ids so the next page can be detected.
+     */
+    public static <T> KeysetPage<T> keyset(List<Long> idsPlusOne, int size, Function<List<Long>, List<T>> loader,
+                                           Function<T, Long> idOf) {
+        boolean hasNext = idsPlusOne.size() > size;
+        List<Long> ids = hasNext ? idsPlusOne.subList(0, size) : idsPlusOne;
+        List<T> content = ids.isEmpty() ? List.of() : inIdOrder(ids, loader.apply(ids), idOf);
+        return new KeysetPage<>(content, hasNext ? encodeCursor(ids.get(ids.size() - 1)) : null);
+    }
+
+    /**
+     * Re-orders rows loaded with {@code WHERE id IN (...)} to match the order of {@code ids}
+     */
+    public static <T> List<T> inIdOrder(List<Long> ids, List<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = rows.stream().collect(Collectors.toMap(idOf, Function.identity(), (a, b) -> a));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the last id of the previous page, or 0 for a blank cursor (first page)
+     * @throws BadRequestException if the cursor was not produced by {@link #encodeCursor(Long)}
+     */
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public record KeysetPage<T>(List<T> content, String nextCursor) {
+    }
+}
@@ -1,5 +1,6 @@
 package util;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -8,6 +9,7 @@ import org.springframework.data.domain.Page;
 @AllArgsConstructor
 @Builder
 @Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class Paging {
 
     private int page;
@@ -15,6 +17,16 @@ public class Paging {
     private long totalElements;
     private int totalPages;
 
+    /**
+     * Opaque keyset cursor for the next page, null on the last page or when the endpoint
+     * does not support cursors. Pass it back as {@code cursor} to seek instead of offsetting.
+     */
+    private String nextCursor;
+
+    public Paging(int page, int size, long totalElements, int totalPages) {
+        this(page, size, totalElements, totalPages, null);
+    }
+
     public static Paging of(int page, int size, long totalElements) {
         return Paging.builder()
                 .page(page)
@@ -50,4 +62,17 @@ public class Paging {
                 .totalPages(page.getTotalPages())
                 .build();
     }
+
+    /**
+     * Paging for a keyset (cursor) page. Totals are not counted in this mode and are reported as -1.
+     */
+    public static Paging keyset(int size, String nextCursor) {
+        return Paging.builder()
+                .page(-1)
+                .size(size)
+                .totalElements(-1)
+                .totalPages(-1)
+                .nextCursor(nextCursor)
+                .build();
+    }
 }
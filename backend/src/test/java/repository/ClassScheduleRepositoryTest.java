@@ -0,0 +1,65 @@
+package repository;
+
+import model.enums.DayOfWeek;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import support.JpaTestConfiguration;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Room conflicts match the room as typed by another admin: case and surrounding spaces differ.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfiguration.class)
+class ClassScheduleRepositoryTest {
+
+    private static final long CLASS_ID = 1;
+    private static final Date TERM_START = Date.valueOf(LocalDate.of(2025, 9, 1));
+    private static final Date TERM_END = Date.valueOf(LocalDate.of(2025, 12, 31));
+
+    @Autowired
+    private ClassScheduleRepository classScheduleRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO accounts (id, username, password, status) VALUES (1, 'teacher1', 'x', 'ACTIVE')");
+        jdbcTemplate.update("""
+                INSERT INTO users (id, account_id, role, full_name, email, token_version)
+                VALUES (1, 1, 'TEACHER', 'Teacher One', 'teacher1@example.com', 0)
+                """);
+        jdbcTemplate.update("INSERT INTO teachers (id, user_id) VALUES (1, 1)");
+        jdbcTemplate.update("INSERT INTO subjects (id, name, code) VALUES (1, 'Subject', 'SUB')");
+        jdbcTemplate.update("""
+                INSERT INTO classes (id, teacher_id, subject_id, class_name, start_date, end_date)
+                VALUES (?, 1, 1, 'Class 1', ?, ?)
+                """, CLASS_ID, TERM_START, TERM_END);
+        jdbcTemplate.update("""
+                INSERT INTO class_schedule (id, class_id, day_of_week, period_start, period_end, room)
+                VALUES (1, ?, 'MON', 1, 3, 'A101')
+                """, CLASS_ID);
+    }
+
+    @Test
+    void roomMatchesIgnoringCaseAndSurroundingSpaces() {
+        for (String room : new String[]{"A101", "a101", " A101 ", "  a101"}) {
+            assertThat(classScheduleRepository.findRoomConflicts(room, DayOfWeek.MON, TERM_START, TERM_END, 3, 4, null))
+                    .as(room).containsExactly(CLASS_ID);
+        }
+        assertThat(classScheduleRepository.findRoomConflicts("A102", DayOfWeek.MON, TERM_START, TERM_END, 3, 4, null))
+                .isEmpty();
+        assertThat(classScheduleRepository.findRoomConflicts("a101", DayOfWeek.MON, TERM_START, TERM_END, 3, 4, CLASS_ID))
+                .isEmpty();
+    }
+}
@@ -0,0 +1,182 @@
+package repository;
+
+import model.enums.DayOfWeek;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import support.JpaTestConfiguration;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Schedule conflict queries at the size of a large term: 10k classes, 1k-student enrollment batches.
+ * Every query result is compared with a brute-force check over the generated data, and the time per
+ * query is printed. H2 is not MySQL, so the timings only compare runs of this test with each other.
+ * <p>
+ * Run with {@code mvn test -DskipTests=false -Dtest=ScheduleConflictQueryBenchmarkTest -Dgroups=benchmark -DexcludedGroups=}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfiguration.class)
+class ScheduleConflictQueryBenchmarkTest {
+
+    private static final int CLASSES = 10_000;
+    private static final int TEACHERS = 200;
+    private static final int ROOMS = 500;
+    private static final int STUDENTS = 1_000;
+    private static final int ENROLLMENTS_PER_STUDENT = 5;
+    private static final int ROUNDS = 20;
+    private static final DayOfWeek[] DAYS = {DayOfWeek.MON, DayOfWeek.TUES, DayOfWeek.WED, DayOfWeek.THUS,
+            DayOfWeek.FRI, DayOfWeek.SAT};
+    private static final LocalDate TERM_START = LocalDate.of(2025, 9, 1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ClassScheduleRepository classScheduleRepository;
+    @Autowired
+    private ClassStudentRepository classStudentRepository;
+
+    private final Random random = new Random(42);
+    private final List<Slot> slots = new ArrayList<>(CLASSES);
+    private final Map<Long, List<Slot>> enrollments = new HashMap<>();
+
+    @BeforeEach
+    void seed() {
+        long userCount = TEACHERS + STUDENTS;
+        List<Object[]> accounts = new ArrayList<>();
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= userCount; id++) {
+            accounts.add(new Object[]{id, "user" + id, "x", "ACTIVE"});
+            users.add(new Object[]{id, id, id <= TEACHERS ? "TEACHER" : "STUDENT"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO accounts (id, username, password, status) VALUES (?, ?, ?, ?)", accounts);
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, account_id, role, token_version) VALUES (?, ?, ?, 0)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO teachers (id, user_id) VALUES (?, ?)",
+                LongStream.rangeClosed(1, TEACHERS).mapToObj(id -> new Object[]{id, id}).toList());
+        jdbcTemplate.batchUpdate("INSERT INTO students (id, user_id) VALUES (?, ?)",
+                LongStream.rangeClosed(1, STUDENTS).mapToObj(id -> new Object[]{id, TEACHERS + id}).toList());
+        jdbcTemplate.update("INSERT INTO subjects (id, name, code) VALUES (1, 'Subject', 'SUB')");
+
+        List<Object[]> classes = new ArrayList<>(CLASSES);
+        List<Object[]> schedules = new ArrayList<>(CLASSES);
+        for (long id = 1; id <= CLASSES; id++) {
+            Slot slot = randomSlot(id, 1 + random.nextInt(TEACHERS), "R" + random.nextInt(ROOMS));
+            slots.add(slot);
+            classes.add(new Object[]{id, slot.teacherId(), "Class " + id, slot.startDate(), slot.endDate()});
+            schedules.add(new Object[]{id, id, slot.day().name(), slot.periodStart(), slot.periodEnd(), slot.room()});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO classes (id, teacher_id, subject_id, class_name, start_date, end_date)
+                VALUES (?, ?, 1, ?, ?, ?)
+                """, classes);
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO class_schedule (id, class_id, day_of_week, period_start, period_end, room)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """, schedules);
+
+        List<Object[]> classStudents = new ArrayList<>();
+        for (long studentId = 1; studentId <= STUDENTS; studentId++) {
+            Set<Slot> chosen = new HashSet<>();
+            while (chosen.size() < ENROLLMENTS_PER_STUDENT) {
+                chosen.add(slots.get(random.nextInt(CLASSES)));
+            }
+            enrollments.put(studentId, List.copyOf(chosen));
+            for (Slot slot : chosen) {
+                classStudents.add(new Object[]{studentId, slot.classId()});
+            }
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO class_student (student_id, class_id, status, absence_count) VALUES (?, ?, 'ENROLLED', 0)
+                """, classStudents);
+    }
+
+    @Test
+    void studentConflictsForOneThousandStudentBatch() {
+        List<Long> studentIds = LongStream.rangeClosed(1, STUDENTS).boxed().toList();
+        long totalNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            Slot probe = randomSlot(null, 1, "probe");
+            long start = System.nanoTime();
+            List<ClassStudentRepository.ScheduleConflictRow> rows = classStudentRepository.findScheduleConflicts(
+                    studentIds, probe.day(), probe.startDate(), probe.endDate(), probe.periodStart(), probe.periodEnd());
+            totalNanos += System.nanoTime() - start;
+
+            Set<String> found = new HashSet<>();
+            rows.forEach(row -> found.add(row.getStudentId() + ":" + row.getClassId()));
+            Set<String> expected = new HashSet<>();
+            enrollments.forEach((studentId, enrolled) -> enrolled.stream()
+                    .filter(probe::overlaps)
+                    .forEach(slot -> expected.add(studentId + ":" + slot.classId())));
+            assertThat(found).isEqualTo(expected);
+        }
+        System.out.printf("Student conflicts, %d students against %d classes: %.2f ms per batch%n",
+                STUDENTS, CLASSES, totalNanos / 1e6 / ROUNDS);
+    }
+
+    @Test
+    void teacherAndRoomConflicts() {
+        long totalNanos = 0;
+        for (int round = 0; round < ROUNDS * 50; round++) {
+            Slot probe = randomSlot(null, 1 + random.nextInt(TEACHERS), "R" + random.nextInt(ROOMS));
+            long start = System.nanoTime();
+            List<Long> teacherConflicts = classScheduleRepository.findTeacherConflicts(probe.teacherId(), probe.day(),
+                    probe.startDate(), probe.endDate(), probe.periodStart(), probe.periodEnd(), null);
+            List<Long> roomConflicts = classScheduleRepository.findRoomConflicts(probe.room(), probe.day(),
+                    probe.startDate(), probe.endDate(), probe.periodStart(), probe.periodEnd(), null);
+            totalNanos += System.nanoTime() - start;
+
+            assertThat(new HashSet<>(teacherConflicts)).isEqualTo(expected(probe, true));
+            assertThat(new HashSet<>(roomConflicts)).isEqualTo(expected(probe, false));
+        }
+        System.out.printf("Teacher and room conflicts against %d classes: %.3f ms per class%n",
+                CLASSES, totalNanos / 1e6 / (ROUNDS * 50));
+    }
+
+    private Set<Long> expected(Slot probe, boolean byTeacher) {
+        Set<Long> ids = new HashSet<>();
+        for (Slot slot : slots) {
+            boolean sameOwner = byTeacher ? slot.teacherId() == probe.teacherId() : slot.room().equals(probe.room());
+            if (sameOwner && probe.overlaps(slot)) {
+                ids.add(slot.classId());
+            }
+        }
+        return ids;
+    }
+
+    private Slot randomSlot(Long classId, long teacherId, String room) {
+        LocalDate start = TERM_START.plusWeeks(random.nextInt(8));
+        int periodStart = 1 + random.nextInt(10);
+        return new Slot(classId, teacherId, room, DAYS[random.nextInt(DAYS.length)],
+                Date.valueOf(start), Date.valueOf(start.plusWeeks(4 + random.nextInt(12))),
+                periodStart, periodStart + 1 + random.nextInt(3));
+    }
+
+    private record Slot(Long classId, long teacherId, String room, DayOfWeek day,
+                        Date startDate, Date endDate, int periodStart, int periodEnd) {
+
+        // same rule as the queries: touching ranges overlap
+        boolean overlaps(Slot other) {
+            return day == other.day
+                    && !startDate.after(other.endDate) && !other.startDate.after(endDate)
+                    && periodStart <= other.periodEnd && other.periodStart <= periodEnd;
+        }
+    }
+}
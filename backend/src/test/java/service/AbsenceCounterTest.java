@@ -0,0 +1,184 @@
+package service;
+
+import model.enums.AttendanceStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import service.job.JobRunner;
+import support.JpaTestConfiguration;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static model.enums.AttendanceStatus.ABSENT;
+import static model.enums.AttendanceStatus.EXCUSED;
+import static model.enums.AttendanceStatus.LATE;
+import static model.enums.AttendanceStatus.PRESENT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Roll-call upserts keep {@code class_student.absence_count} equal to the ABSENT and LATE results
+ * in attendance_hist, and the reconciler repairs counters that drifted anyway.
+ * H2 runs in MySQL mode for the upsert's {@code ON DUPLICATE KEY UPDATE}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfiguration.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:absence-counter;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@Import({AttendanceBatchWriter.class, AbsenceCounterReconciler.class, AbsenceCounterTest.Beans.class})
+class AbsenceCounterTest {
+
+    private static final long CLASS_ID = 1;
+    private static final long FIRST_SESSION = 1;
+    private static final long SECOND_SESSION = 2;
+    // the last enrollment lies in the reconciler's second id range
+    private static final List<Long> ENROLLMENTS = List.of(1L, 2L, 3L, AbsenceCounterReconciler.RANGE_SIZE + 3L);
+
+    @Autowired
+    private AttendanceBatchWriter attendanceBatchWriter;
+    @Autowired
+    private AbsenceCounterReconciler absenceCounterReconciler;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestConfiguration
+    static class Beans {
+
+        // the lease statements are MySQL-only, the job runs inline here
+        @Bean
+        JobRunner jobRunner() {
+            JobRunner jobRunner = Mockito.mock(JobRunner.class);
+            Mockito.when(jobRunner.runExclusive(anyString(), any())).thenAnswer(invocation -> {
+                invocation.<Runnable>getArgument(1).run();
+                return true;
+            });
+            return jobRunner;
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO accounts (id, username, password, status) VALUES (1, 'teacher1', 'x', 'ACTIVE')");
+        jdbcTemplate.update("""
+                INSERT INTO users (id, account_id, role, full_name, email, token_version)
+                VALUES (1, 1, 'TEACHER', 'Teacher One', 'teacher1@example.com', 0)
+                """);
+        jdbcTemplate.update("INSERT INTO teachers (id, user_id) VALUES (1, 1)");
+        jdbcTemplate.update("INSERT INTO subjects (id, name, code) VALUES (1, 'Subject', 'SUB')");
+        jdbcTemplate.update("""
+                INSERT INTO classes (id, teacher_id, subject_id, class_name, start_date, end_date)
+                VALUES (?, 1, 1, 'Class 1', ?, ?)
+                """, CLASS_ID, Date.valueOf(LocalDate.of(2025, 9, 1)), Date.valueOf(LocalDate.of(2025, 12, 31)));
+
+        for (int i = 0; i < ENROLLMENTS.size(); i++) {
+            long studentId = i + 1;
+            long userId = studentId + 1;
+            jdbcTemplate.update("INSERT INTO accounts (id, username, password, status) VALUES (?, ?, 'x', 'ACTIVE')",
+                    userId, "student" + studentId);
+            jdbcTemplate.update("""
+                    INSERT INTO users (id, account_id, role, full_name, email, token_version)
+                    VALUES (?, ?, 'STUDENT', ?, ?, 0)
+                    """, userId, userId, "Student " + studentId, "student" + studentId + "@example.com");
+            jdbcTemplate.update("INSERT INTO students (id, user_id) VALUES (?, ?)", studentId, userId);
+            jdbcTemplate.update("""
+                    INSERT INTO class_student (id, student_id, class_id, status, absence_count) VALUES (?, ?, ?, 'ENROLLED', 0)
+                    """, ENROLLMENTS.get(i), studentId, CLASS_ID);
+        }
+        for (long session : new long[]{FIRST_SESSION, SECOND_SESSION}) {
+            jdbcTemplate.update("INSERT INTO attendances (id, class_id, type, date) VALUES (?, ?, 'MANUAL', ?)",
+                    session, CLASS_ID, Date.valueOf(LocalDate.of(2025, 9, (int) session)));
+        }
+    }
+
+    @Test
+    void firstSubmissionCountsAbsentAndLate() {
+        List<AbsenceCountChange> changes = attendanceBatchWriter.upsert(FIRST_SESSION,
+                statuses(ABSENT, LATE, PRESENT, EXCUSED));
+
+        assertThat(absenceCounts()).containsExactly(1, 1, 0, 0);
+        assertThat(changes).containsExactlyInAnyOrder(
+                new AbsenceCountChange(1L, 0, 1),
+                new AbsenceCountChange(2L, 0, 1));
+    }
+
+    @Test
+    void resubmissionOverwritesAndAdjustsOnlyTheDifference() {
+        attendanceBatchWriter.upsert(FIRST_SESSION, statuses(ABSENT, LATE, PRESENT, EXCUSED));
+
+        List<AbsenceCountChange> changes = attendanceBatchWriter.upsert(FIRST_SESSION,
+                statuses(PRESENT, ABSENT, LATE, EXCUSED));
+
+        assertThat(absenceCounts()).containsExactly(0, 1, 1, 0);
+        assertThat(changes).containsExactlyInAnyOrder(
+                new AbsenceCountChange(1L, 1, 0),
+                new AbsenceCountChange(3L, 0, 1));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendance_hist", Integer.class))
+                .isEqualTo(ENROLLMENTS.size());
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT status FROM attendance_hist WHERE attendance_id = ? ORDER BY class_student_id",
+                String.class, FIRST_SESSION)).containsExactly("PRESENT", "ABSENT", "LATE", "EXCUSED");
+    }
+
+    @Test
+    void sessionsAddUp() {
+        attendanceBatchWriter.upsert(FIRST_SESSION, statuses(ABSENT, LATE, PRESENT, ABSENT));
+        List<AbsenceCountChange> changes = attendanceBatchWriter.upsert(SECOND_SESSION,
+                statuses(ABSENT, PRESENT, PRESENT, LATE));
+
+        assertThat(absenceCounts()).containsExactly(2, 1, 0, 2);
+        assertThat(changes).containsExactlyInAnyOrder(
+                new AbsenceCountChange(1L, 1, 2),
+                new AbsenceCountChange(ENROLLMENTS.get(3), 1, 2));
+    }
+
+    @Test
+    void reconcilerRepairsDriftedCounters() {
+        attendanceBatchWriter.upsert(FIRST_SESSION, statuses(ABSENT, LATE, PRESENT, ABSENT));
+        attendanceBatchWriter.upsert(SECOND_SESSION, statuses(ABSENT, PRESENT, PRESENT, LATE));
+        jdbcTemplate.update("UPDATE class_student SET absence_count = 7 WHERE id IN (1, 3)");
+        jdbcTemplate.update("UPDATE class_student SET absence_count = 0 WHERE id = ?", ENROLLMENTS.get(3));
+
+        absenceCounterReconciler.reconcile();
+
+        assertThat(absenceCounts()).containsExactly(2, 1, 0, 2);
+    }
+
+    private static Map<Long, AttendanceStatus> statuses(AttendanceStatus... statuses) {
+        Map<Long, AttendanceStatus> byEnrollment = new LinkedHashMap<>();
+        for (int i = 0; i < statuses.length; i++) {
+            byEnrollment.put(ENROLLMENTS.get(i), statuses[i]);
+        }
+        return byEnrollment;
+    }
+
+    private List<Integer> absenceCounts() {
+        Map<Long, Integer> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT id, absence_count FROM class_student",
+                rs -> {
+                    counts.put(rs.getLong("id"), rs.getInt("absence_count"));
+                });
+        return ENROLLMENTS.stream().map(counts::get).toList();
+    }
+}
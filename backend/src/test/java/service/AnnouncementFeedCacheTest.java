@@ -0,0 +1,128 @@
+package service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import controller.business.student.StudentAnnouncementController;
+import dto.response.BaseResponse;
+import dto.response.student.StudentAnnouncementListResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.enums.AnnouncementTarget;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import service.AnnouncementFeedCache.Feed;
+import service.AnnouncementFeedCache.FeedKey;
+import service.student.StudentAnnouncementService;
+import util.Paging;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Feeds are loaded once per key until an admin write evicts their target, and their ETag is the
+ * same on every instance for the same data, so a client's conditional GET gets a 304.
+ */
+class AnnouncementFeedCacheTest {
+
+    private static final FeedKey STUDENT_PAGE = FeedKey.page(AnnouncementTarget.STUDENT, 0, 10);
+    private static final FeedKey TEACHER_PAGE = FeedKey.page(AnnouncementTarget.TEACHER, 0, 10);
+
+    private final AnnouncementFeedCache feedCache = newCache();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void feedIsLoadedOnceAndErrorsAreNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<BaseResponse<List<String>>> loader = () -> {
+            loads.incrementAndGet();
+            return feed("Exam week");
+        };
+
+        Feed<List<String>> first = feedCache.get(STUDENT_PAGE, loader);
+        Feed<List<String>> second = feedCache.get(STUDENT_PAGE, loader);
+        feedCache.get(TEACHER_PAGE, () -> BaseResponse.<List<String>>badRequest("Invalid page", null, null));
+        Feed<List<String>> teacher = feedCache.get(TEACHER_PAGE, loader);
+
+        assertThat(second).isSameAs(first);
+        assertThat(teacher.response().getCode()).isEqualTo(200);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void etagDependsOnlyOnDataAndPaging() {
+        String etag = feedCache.get(STUDENT_PAGE, () -> feed("Exam week")).etag();
+
+        // another instance, loaded at another time
+        assertThat(newCache().get(STUDENT_PAGE, () -> feed("Exam week")).etag()).isEqualTo(etag);
+        assertThat(newCache().get(STUDENT_PAGE, () -> BaseResponse.ok(List.of("Exam week"), "Other message",
+                Paging.of(0, 10, 1))).etag()).isEqualTo(etag);
+        assertThat(newCache().get(STUDENT_PAGE, () -> feed("Holiday")).etag()).isNotEqualTo(etag);
+        assertThat(newCache().get(STUDENT_PAGE, () -> BaseResponse.ok(List.of("Exam week"), "OK",
+                Paging.of(0, 10, 11))).etag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void evictionDropsOnlyTheGivenTargetsAndRepeatsAfterCommit() {
+        feedCache.get(STUDENT_PAGE, () -> feed("Exam week"));
+        Feed<List<String>> teacher = feedCache.get(TEACHER_PAGE, () -> feed("Staff meeting"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        feedCache.evict(AnnouncementTarget.STUDENT);
+        // a request reloads the old rows before the write commits
+        feedCache.get(STUDENT_PAGE, () -> feed("Exam week"));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(feedCache.get(STUDENT_PAGE, () -> feed("Holiday")).response().getData()).containsExactly("Holiday");
+        assertThat(feedCache.get(TEACHER_PAGE, () -> feed("Holiday"))).isSameAs(teacher);
+    }
+
+    @Test
+    void conditionalGetIsAnsweredWithNotModified() throws Exception {
+        StudentAnnouncementService announcementService = Mockito.mock(StudentAnnouncementService.class);
+        Mockito.when(announcementService.getAllAnnouncements(0, 10)).thenReturn(BaseResponse.ok(
+                List.of(StudentAnnouncementListResponse.builder().id(1L).title("Exam week").build()),
+                "OK", Paging.of(0, 10, 1)));
+        MockMvc mockMvc = MockMvcBuilders
+                .standaloneSetup(new StudentAnnouncementController(announcementService, feedCache))
+                .build();
+
+        String etag = mockMvc.perform(get("/student/announcement/all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].title").value("Exam week"))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/student/announcement/all").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        feedCache.evict(AnnouncementTarget.STUDENT);
+        mockMvc.perform(get("/student/announcement/all").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        Mockito.verify(announcementService, Mockito.times(2)).getAllAnnouncements(0, 10);
+    }
+
+    private static AnnouncementFeedCache newCache() {
+        return new AnnouncementFeedCache(new ObjectMapper().findAndRegisterModules(), 100, Duration.ofMinutes(5),
+                new SimpleMeterRegistry());
+    }
+
+    private static BaseResponse<List<String>> feed(String title) {
+        return BaseResponse.ok(List.of(title), "OK", Paging.of(0, 10, 1));
+    }
+}
@@ -0,0 +1,122 @@
+package service;
+
+import dto.response.admin.ClassListResponse;
+import exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import repository.ClassRepository;
+import support.JpaTestConfiguration;
+import util.IdPagination;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Class list paging as the admin endpoint composes it: ids are paged or seeked in the database,
+ * then the rows of one page are loaded by id.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfiguration.class)
+@Import(ClassRosterService.class)
+class ClassListPaginationTest {
+
+    private static final int PAGE_SIZE = 3;
+    // ids are not contiguous, the cursor must seek past gaps
+    private static final List<Long> CLASS_IDS = List.of(2L, 3L, 5L, 8L, 13L, 21L, 34L);
+
+    @Autowired
+    private ClassRosterService classRosterService;
+    @Autowired
+    private ClassRepository classRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO accounts (id, username, password, status) VALUES (1, 'teacher1', 'x', 'ACTIVE')");
+        jdbcTemplate.update("""
+                INSERT INTO users (id, account_id, role, full_name, email, token_version)
+                VALUES (1, 1, 'TEACHER', 'Teacher One', 'teacher1@example.com', 0)
+                """);
+        jdbcTemplate.update("INSERT INTO teachers (id, user_id) VALUES (1, 1)");
+        jdbcTemplate.update("INSERT INTO subjects (id, name, code) VALUES (1, 'Subject', 'SUB')");
+
+        Date start = Date.valueOf(LocalDate.of(2025, 9, 1));
+        Date end = Date.valueOf(LocalDate.of(2025, 12, 31));
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO classes (id, teacher_id, subject_id, class_name, start_date, end_date)
+                VALUES (?, 1, 1, ?, ?, ?)
+                """, CLASS_IDS.stream().map(id -> new Object[]{id, "Class " + id, start, end}).toList());
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO class_schedule (id, class_id, day_of_week, period_start, period_end, room)
+                VALUES (?, ?, 'MON', 1, 3, 'R1')
+                """, CLASS_IDS.stream().map(id -> new Object[]{id, id}).toList());
+    }
+
+    @Test
+    void cursorWalksEveryClassOnceInIdOrder() {
+        List<Long> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = "";
+        do {
+            IdPagination.KeysetPage<ClassListResponse> page = keysetPage(cursor);
+            page.content().forEach(row -> seen.add(row.getId()));
+            pageSizes.add(page.content().size());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(CLASS_IDS);
+        assertThat(pageSizes).containsExactly(3, 3, 1);
+    }
+
+    @Test
+    void fullLastPageHasNoCursor() {
+        IdPagination.KeysetPage<ClassListResponse> page = keysetPage(IdPagination.encodeCursor(8L));
+
+        assertThat(page.content()).extracting(ClassListResponse::getId).containsExactly(13L, 21L, 34L);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void offsetPageContinuesWithItsCursor() {
+        Page<Long> first = classRepository.findPageIds(PageRequest.of(0, PAGE_SIZE));
+        String cursor = IdPagination.encodeCursor(first.getContent().get(first.getContent().size() - 1));
+
+        assertThat(first.getTotalElements()).isEqualTo(CLASS_IDS.size());
+        assertThat(classRosterService.getClassList(first.getContent()))
+                .extracting(ClassListResponse::getId).containsExactly(2L, 3L, 5L);
+        assertThat(keysetPage(cursor).content())
+                .extracting(ClassListResponse::getId).containsExactly(8L, 13L, 21L);
+    }
+
+    @Test
+    void cursorRoundTripsAndRejectsGarbage() {
+        LongStream.of(1L, 34L, Long.MAX_VALUE).forEach(id ->
+                assertThat(IdPagination.decodeCursor(IdPagination.encodeCursor(id))).isEqualTo(id));
+        assertThat(IdPagination.decodeCursor(null)).isZero();
+        assertThat(IdPagination.decodeCursor(" ")).isZero();
+        assertThatThrownBy(() -> IdPagination.decodeCursor("not a cursor"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private IdPagination.KeysetPage<ClassListResponse> keysetPage(String cursor) {
+        return IdPagination.keyset(
+                classRepository.findIdsAfter(IdPagination.decodeCursor(cursor), PageRequest.of(0, PAGE_SIZE + 1)),
+                PAGE_SIZE, classRosterService::getClassList, ClassListResponse::getId);
+    }
+}
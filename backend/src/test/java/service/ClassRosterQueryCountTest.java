@@ -0,0 +1,133 @@
+package service;
+
+import dto.response.admin.ClassDetailResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import support.JpaTestConfiguration;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The class detail must cost the same number of statements whatever the class size.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfiguration.class)
+@Import(ClassRosterService.class)
+class ClassRosterQueryCountTest {
+
+    private static final long SMALL_CLASS = 1;
+    private static final long LARGE_CLASS = 2;
+    private static final int LARGE_CLASS_SIZE = 60;
+    private static final Long NO_TUITION_ENROLLMENT = LARGE_CLASS_SIZE + 2L;
+
+    @Autowired
+    private ClassRosterService classRosterService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+        List<Object[]> accounts = new ArrayList<>();
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= LARGE_CLASS_SIZE + 1; id++) {
+            accounts.add(new Object[]{id, "user" + id, "x", "ACTIVE"});
+            users.add(new Object[]{id, id, id == 1 ? "TEACHER" : "STUDENT", "User " + id, "user" + id + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO accounts (id, username, password, status) VALUES (?, ?, ?, ?)", accounts);
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO users (id, account_id, role, full_name, email, token_version) VALUES (?, ?, ?, ?, ?, 0)
+                """, users);
+        jdbcTemplate.update("INSERT INTO teachers (id, user_id) VALUES (1, 1)");
+        jdbcTemplate.update("INSERT INTO subjects (id, name, code) VALUES (1, 'Subject', 'SUB')");
+
+        Date start = Date.valueOf(LocalDate.of(2025, 9, 1));
+        Date end = Date.valueOf(LocalDate.of(2025, 12, 31));
+        for (long classId : new long[]{SMALL_CLASS, LARGE_CLASS}) {
+            jdbcTemplate.update("""
+                    INSERT INTO classes (id, teacher_id, subject_id, class_name, start_date, end_date)
+                    VALUES (?, 1, 1, ?, ?, ?)
+                    """, classId, "Class " + classId, start, end);
+            jdbcTemplate.update("""
+                    INSERT INTO class_schedule (id, class_id, day_of_week, period_start, period_end, room)
+                    VALUES (?, ?, 'MON', 1, 3, 'R1')
+                    """, classId, classId);
+            jdbcTemplate.update("INSERT INTO examinations (id, class_id, type, date) VALUES (?, ?, 'MIDTERM', ?)",
+                    classId * 10, classId, start);
+            jdbcTemplate.update("INSERT INTO examinations (id, class_id, type, date) VALUES (?, ?, 'FINAL', ?)",
+                    classId * 10 + 1, classId, end);
+        }
+
+        List<Object[]> students = new ArrayList<>();
+        List<Object[]> enrollments = new ArrayList<>();
+        for (long studentId = 1; studentId <= LARGE_CLASS_SIZE; studentId++) {
+            students.add(new Object[]{studentId, studentId + 1});
+            enrollments.add(new Object[]{studentId, studentId, LARGE_CLASS, LARGE_CLASS * 10});
+        }
+        enrollments.add(new Object[]{LARGE_CLASS_SIZE + 1L, 1L, SMALL_CLASS, SMALL_CLASS * 10});
+        enrollments.add(new Object[]{NO_TUITION_ENROLLMENT, 2L, SMALL_CLASS, SMALL_CLASS * 10});
+        jdbcTemplate.batchUpdate("INSERT INTO students (id, user_id) VALUES (?, ?)", students);
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO class_student (id, student_id, class_id, status, absence_count) VALUES (?, ?, ?, 'ENROLLED', 0)
+                """, enrollments.stream().map(row -> new Object[]{row[0], row[1], row[2]}).toList());
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO tuition_records (class_student_id, status, method) VALUES (?, 'PAID', 'CASH')
+                """, enrollments.stream()
+                .filter(row -> !row[0].equals(NO_TUITION_ENROLLMENT))
+                .map(row -> new Object[]{row[0]})
+                .toList());
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO student_examination (examination_id, class_student_id, grade, is_absent) VALUES (?, ?, 8.5, FALSE)
+                """, enrollments.stream().map(row -> new Object[]{row[3], row[0]}).toList());
+    }
+
+    @Test
+    void classDetailQueryCountDoesNotGrowWithClassSize() {
+        long smallClassStatements = statementsFor(SMALL_CLASS, 2);
+        long largeClassStatements = statementsFor(LARGE_CLASS, LARGE_CLASS_SIZE);
+
+        assertThat(largeClassStatements).isEqualTo(smallClassStatements);
+    }
+
+    private long statementsFor(long classId, int expectedStudents) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ClassDetailResponse detail = classRosterService.getClassDetail(classId, true);
+
+        assertThat(detail.getClassStudentResponses()).hasSize(expectedStudents);
+        assertThat(detail.getClassStudentResponses())
+                .allSatisfy(student -> assertThat(student.getMidtermGrade()).isEqualTo(8.5));
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void enrollmentWithoutTuitionRecordIsListed() {
+        ClassDetailResponse detail = classRosterService.getClassDetail(SMALL_CLASS, true);
+
+        assertThat(detail.getClassStudentResponses())
+                .filteredOn(student -> student.getId().equals(NO_TUITION_ENROLLMENT))
+                .singleElement()
+                .satisfies(student -> assertThat(student.getTuitionStatus()).isNull());
+    }
+}
@@ -0,0 +1,142 @@
+package service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.enums.PaymentMethod;
+import model.enums.TuitionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import service.admin.AdminClassServiceImpl;
+import support.JpaTestConfiguration;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk enrollment writes rows with JDBC batches and maps each student to the id generated for it;
+ * a wrong mapping would attach a tuition record to another student's enrollment.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfiguration.class)
+@Import({EnrollmentBatchWriter.class, AdminClassServiceImpl.class, ClassRosterService.class, ReferenceDataCache.class,
+        EnrollmentBatchWriterTest.Beans.class})
+class EnrollmentBatchWriterTest {
+
+    private static final long MONDAY_CLASS = 1;
+    private static final long OVERLAPPING_CLASS = 2;
+    private static final long TUESDAY_CLASS = 3;
+    // more than two batches, the last one partial
+    private static final int STUDENTS = EnrollmentBatchWriter.BATCH_SIZE * 2 + 3;
+
+    @Autowired
+    private EnrollmentBatchWriter enrollmentBatchWriter;
+    @Autowired
+    private AdminClassServiceImpl adminClassService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestConfiguration
+    static class Beans {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO accounts (id, username, password, status) VALUES (1, 'teacher1', 'x', 'ACTIVE')");
+        jdbcTemplate.update("""
+                INSERT INTO users (id, account_id, role, full_name, email, token_version)
+                VALUES (1, 1, 'TEACHER', 'Teacher One', 'teacher1@example.com', 0)
+                """);
+        jdbcTemplate.update("INSERT INTO teachers (id, user_id) VALUES (1, 1)");
+        jdbcTemplate.update("INSERT INTO subjects (id, name, code) VALUES (1, 'Subject', 'SUB')");
+
+        Date start = Date.valueOf(LocalDate.of(2025, 9, 1));
+        Date end = Date.valueOf(LocalDate.of(2025, 12, 31));
+        Object[][] slots = {{MONDAY_CLASS, "MON", 1, 3}, {OVERLAPPING_CLASS, "MON", 3, 5}, {TUESDAY_CLASS, "TUES", 1, 3}};
+        for (Object[] slot : slots) {
+            jdbcTemplate.update("""
+                    INSERT INTO classes (id, teacher_id, subject_id, class_name, start_date, end_date)
+                    VALUES (?, 1, 1, ?, ?, ?)
+                    """, slot[0], "Class " + slot[0], start, end);
+            jdbcTemplate.update("""
+                    INSERT INTO class_schedule (id, class_id, day_of_week, period_start, period_end, room)
+                    VALUES (?, ?, ?, ?, ?, ?)
+                    """, slot[0], slot[0], slot[1], slot[2], slot[3], "R" + slot[0]);
+        }
+
+        // student n belongs to user n + 1
+        List<Object[]> students = LongStream.rangeClosed(1, STUDENTS).mapToObj(id -> new Object[]{id, id + 1}).toList();
+        jdbcTemplate.batchUpdate("INSERT INTO accounts (id, username, password, status) VALUES (?, ?, 'x', 'ACTIVE')",
+                students.stream().map(row -> new Object[]{row[1], "student" + row[0]}).toList());
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO users (id, account_id, role, full_name, email, token_version) VALUES (?, ?, 'STUDENT', ?, ?, 0)
+                """, students.stream()
+                .map(row -> new Object[]{row[1], row[1], "Student " + row[0], "student" + row[0] + "@example.com"})
+                .toList());
+        jdbcTemplate.batchUpdate("INSERT INTO students (id, user_id) VALUES (?, ?)", students);
+    }
+
+    @Test
+    void generatedIdsAreMappedToTheirStudents() {
+        // enrollments of the same students in another class must not be read back
+        List<Long> otherClass = List.of(5L, 7L, (long) STUDENTS);
+        enrollmentBatchWriter.enroll(TUESDAY_CLASS, otherClass, TuitionStatus.PAID, PaymentMethod.CASH);
+        List<Long> studentIds = LongStream.rangeClosed(1, STUDENTS).boxed().toList();
+
+        Map<Long, Long> enrollmentIds = enrollmentBatchWriter.enroll(MONDAY_CLASS, studentIds,
+                TuitionStatus.PROCESSING, PaymentMethod.CASH);
+
+        assertThat(enrollmentIds).hasSize(STUDENTS).containsOnlyKeys(studentIds);
+        assertThat(enrollmentIds).isEqualTo(enrollmentsOf(MONDAY_CLASS));
+        Map<Long, String> tuitionByEnrollment = new HashMap<>();
+        jdbcTemplate.query("SELECT class_student_id, status FROM tuition_records",
+                rs -> {
+                    tuitionByEnrollment.put(rs.getLong("class_student_id"), rs.getString("status"));
+                });
+        assertThat(tuitionByEnrollment).hasSize(STUDENTS + otherClass.size());
+        enrollmentIds.values().forEach(enrollmentId ->
+                assertThat(tuitionByEnrollment).containsEntry(enrollmentId, "PROCESSING"));
+    }
+
+    @Test
+    void bulkEnrollmentReportsConflictsAndWritesTheRest() {
+        enrollmentBatchWriter.enroll(MONDAY_CLASS, List.of(1L), TuitionStatus.PAID, PaymentMethod.CASH);
+
+        Map<String, Object> report = adminClassService.enrollStudentsBulk(OVERLAPPING_CLASS,
+                List.of(3L, 1L, 2L, 999_999L, 2L));
+
+        assertThat(report.get("addedStudents")).isEqualTo(List.of(3L, 2L));
+        assertThat(report.get("failedStudents")).isEqualTo(List.of(
+                Map.of("studentId", "1", "reason", "Schedule conflicts with class " + MONDAY_CLASS),
+                Map.of("studentId", "999999", "reason", "Student not found")));
+        assertThat(enrollmentsOf(OVERLAPPING_CLASS)).containsOnlyKeys(2L, 3L);
+    }
+
+    private Map<Long, Long> enrollmentsOf(long classId) {
+        Map<Long, Long> enrollments = new HashMap<>();
+        jdbcTemplate.query("SELECT id, student_id FROM class_student WHERE class_id = ?",
+                rs -> {
+                    enrollments.put(rs.getLong("student_id"), rs.getLong("id"));
+                }, classId);
+        return enrollments;
+    }
+}
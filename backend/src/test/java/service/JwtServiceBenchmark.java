@@ -0,0 +1,109 @@
+package service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import model.enums.Role;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cost of verifying one request's access token, before and after {@link JwtService#parse(String)}.
+ * <p>
+ * {@code legacy} does what the filter used to do per request: four signature verifications
+ * (extractUsername in the filter, then extractUsername and extractExpiration in isTokenValid), each
+ * decoding the secret and building a new parser. {@code parsedOnce} is the current path, a single
+ * verification with the parser built at startup.
+ * <p>
+ * Run with {@code mvn test -DskipTests=false -Dtest=JwtServiceBenchmark -Dgroups=benchmark -DexcludedGroups=};
+ * the average time per request is printed for both.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", TimeUnit.DAYS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpiration", TimeUnit.DAYS.toMillis(7));
+        jwtService.init();
+        token = jwtService.generateAccessToken(new TokenSubject(1L, "student1", Role.STUDENT, 0, "session"));
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        String username = legacyClaims(token).getSubject();
+        boolean valid = legacyClaims(token).getSubject().equals(username)
+                && !legacyClaims(token).getExpiration().before(new Date());
+        return valid && legacyClaims(token).get("role") != null;
+    }
+
+    @Benchmark
+    public boolean parsedOnce() {
+        ParsedToken parsed = jwtService.parse(token);
+        return parsed.subject().equals("student1") && !parsed.isExpired() && parsed.role() != null;
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Test
+    void parsingOnceIsCheaperPerRequest() throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getName())
+                .build()).run();
+
+        double legacy = score(results, "legacy");
+        double parsedOnce = score(results, "parsedOnce");
+        System.out.printf("Per request: legacy %.2f us, parsed once %.2f us%n", legacy, parsedOnce);
+        assertThat(parsedOnce).isLessThan(legacy);
+    }
+
+    private static double score(Collection<RunResult> results, String benchmark) {
+        return results.stream()
+                .filter(result -> result.getParams().getBenchmark().endsWith("." + benchmark))
+                .findFirst()
+                .orElseThrow()
+                .getPrimaryResult()
+                .getScore();
+    }
+}
@@ -0,0 +1,158 @@
+package service;
+
+import exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A login burst of 500/s for 2 s next to a steady 50/s of cheap other requests, all on 200 request
+ * threads as with Tomcat's defaults. The burst runs twice: hashing on {@link PasswordHashingService}
+ * with its default settings, and hashing on the request threads as before the pool existed.
+ * Latency is measured from each request's scheduled arrival, so time spent queued for a request
+ * thread is counted. BCrypt cost 8 keeps the unbounded run short on small machines.
+ * <p>
+ * Run with {@code mvn test -DskipTests=false -Dtest=PasswordHashingLoadTest -Dgroups=benchmark -DexcludedGroups=};
+ * the p99 of logins and of the other requests is printed for both runs and for the other requests alone.
+ */
+@Tag("benchmark")
+class PasswordHashingLoadTest {
+
+    private static final int LOGINS_PER_SECOND = 500;
+    private static final int OTHERS_PER_SECOND = 50;
+    private static final Duration BURST = Duration.ofSeconds(2);
+    private static final int REQUEST_THREADS = 200;
+    private static final int STRENGTH = 8;
+    private static final String PASSWORD = "correct horse battery staple";
+    private static final byte[] PAYLOAD = new byte[16 * 1024];
+
+    private static volatile byte sink;
+
+    @Test
+    void loginBurstLeavesOtherRequestsFast() throws InterruptedException {
+        PasswordHashingService pool = new PasswordHashingService(0, 64, 0, Duration.ofSeconds(10),
+                STRENGTH, false, 14, Duration.ofMillis(250), new SimpleMeterRegistry());
+        BCryptPasswordEncoder direct = new BCryptPasswordEncoder(STRENGTH);
+        String hash = direct.encode(PASSWORD);
+        try {
+            Result idle = run(null, hash);
+            Result bounded = run(pool, hash);
+            Result unbounded = run(direct, hash);
+            System.out.printf("No logins:           other p99 %6.1f ms%n", idle.otherP99Millis());
+            System.out.printf("Bounded pool:        other p99 %6.1f ms, login p99 %6.1f ms, %d of %d logins rejected%n",
+                    bounded.otherP99Millis(), bounded.loginP99Millis(), bounded.rejected(), bounded.logins());
+            System.out.printf("On request threads:  other p99 %6.1f ms, login p99 %6.1f ms%n",
+                    unbounded.otherP99Millis(), unbounded.loginP99Millis());
+
+            assertThat(bounded.otherP99Millis()).isLessThan(unbounded.otherP99Millis() / 4);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @param encoder null for other requests only
+     */
+    private static Result run(PasswordEncoder encoder, String hash) throws InterruptedException {
+        ThreadPoolExecutor requests = new ThreadPoolExecutor(REQUEST_THREADS, REQUEST_THREADS,
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        List<Long> logins = Collections.synchronizedList(new ArrayList<>());
+        List<Long> others = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger rejected = new AtomicInteger();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+
+        List<Thread> drivers = new ArrayList<>();
+        if (encoder != null) {
+            drivers.add(drive(requests, start, LOGINS_PER_SECOND, arrival -> {
+                try {
+                    encoder.matches(PASSWORD, hash);
+                    logins.add(System.nanoTime() - arrival);
+                } catch (ServiceBusyException e) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+        drivers.add(drive(requests, start, OTHERS_PER_SECOND, arrival -> {
+            otherWork();
+            others.add(System.nanoTime() - arrival);
+        }));
+        for (Thread driver : drivers) {
+            driver.join();
+        }
+        requests.shutdown();
+        assertThat(requests.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+
+        return new Result(p99(logins), logins.size() + rejected.get(), rejected.get(), p99(others));
+    }
+
+    /**
+     * Submits {@code perSecond} requests per second for the burst, each at its own arrival time
+     * whether or not earlier ones are done
+     */
+    private static Thread drive(ThreadPoolExecutor requests, long start, int perSecond, LongConsumer request) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / perSecond;
+        long count = BURST.toSeconds() * perSecond;
+        Thread driver = new Thread(() -> {
+            for (long i = 0; i < count; i++) {
+                long arrival = start + i * interval;
+                long wait;
+                while ((wait = arrival - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                requests.execute(() -> request.accept(arrival));
+            }
+        });
+        driver.start();
+        return driver;
+    }
+
+    // stands in for a cheap endpoint: well under a millisecond of CPU
+    private static void otherWork() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (int i = 0; i < 4; i++) {
+                digest.update(PAYLOAD);
+            }
+            sink = digest.digest()[0];
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long p99(List<Long> latencies) {
+        if (latencies.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+
+    private record Result(long loginP99Nanos, int logins, int rejected, long otherP99Nanos) {
+
+        double loginP99Millis() {
+            return loginP99Nanos / 1e6;
+        }
+
+        double otherP99Millis() {
+            return otherP99Nanos / 1e6;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package service;
+
+import configuration.SecondLevelCacheConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import model.Subject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import repository.SubjectRepository;
+import support.JpaTestConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reference entities and cacheable queries are served from the second-level cache after the first
+ * load, Hibernate invalidates them on its own writes, and {@link ReferenceDataCache} evicts them,
+ * after commit, for the JDBC writes Hibernate does not see. Runs without a test transaction, so
+ * every repository call has its own session as requests do.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfiguration.class)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache"
+})
+@Import({SecondLevelCacheConfig.class, ReferenceDataCache.class, ReferenceDataCacheTest.Beans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataCacheTest {
+
+    private static final long SUBJECT_ID = 1;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    @Autowired
+    private SubjectRepository subjectRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+
+    @TestConfiguration
+    static class Beans {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        jdbcTemplate.update("INSERT INTO subjects (id, name, code) VALUES (?, 'Mathematics', 'MATH')", SUBJECT_ID);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void clean() {
+        jdbcTemplate.update("DELETE FROM subjects");
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    @Test
+    void entityIsLoadedFromTheDatabaseOnce() {
+        subjectRepository.findById(SUBJECT_ID).orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+
+        Subject subject = subjectRepository.findById(SUBJECT_ID).orElseThrow();
+
+        assertThat(subject.getName()).isEqualTo("Mathematics");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getCacheRegionStatistics(Subject.class.getName()).getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedQueryIsRerunAfterAnEntityWrite() {
+        subjectRepository.findByCode("MATH").orElseThrow();
+        subjectRepository.findByCode("MATH").orElseThrow();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status ->
+                subjectRepository.findById(SUBJECT_ID).orElseThrow().setName("Algebra"));
+        long queryExecutions = statistics.getQueryExecutionCount();
+
+        assertThat(subjectRepository.findByCode("MATH")).hasValueSatisfying(subject ->
+                assertThat(subject.getName()).isEqualTo("Algebra"));
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(queryExecutions + 1);
+    }
+
+    @Test
+    void jdbcUpdateIsSeenOnceEvictedAfterCommit() {
+        subjectRepository.findById(SUBJECT_ID).orElseThrow();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE subjects SET name = 'Algebra' WHERE id = ?", SUBJECT_ID);
+            referenceDataCache.evictAfterCommit(Subject.class, SUBJECT_ID);
+            assertThat(sessionFactory.getCache().containsEntity(Subject.class, SUBJECT_ID)).isTrue();
+        });
+
+        assertThat(sessionFactory.getCache().containsEntity(Subject.class, SUBJECT_ID)).isFalse();
+        assertThat(subjectRepository.findById(SUBJECT_ID)).hasValueSatisfying(subject ->
+                assertThat(subject.getName()).isEqualTo("Algebra"));
+    }
+
+    @Test
+    void jdbcInsertIsListedOnceQueriesAreEvicted() {
+        assertThat(subjectRepository.findAllSubjects(PageRequest.of(0, 10))).hasSize(1);
+        jdbcTemplate.update("INSERT INTO subjects (id, name, code) VALUES (2, 'Physics', 'PHYS')");
+        // Hibernate did not see the insert, the cached result still answers
+        assertThat(subjectRepository.findAllSubjects(PageRequest.of(0, 10))).hasSize(1);
+
+        referenceDataCache.evictQueriesAfterCommit();
+
+        assertThat(subjectRepository.findAllSubjects(PageRequest.of(0, 10))).hasSize(2);
+    }
+}
@@ -0,0 +1,152 @@
+package service;
+
+import dto.request.shared.AuthenticationRequest;
+import dto.request.shared.RefreshTokenRequest;
+import dto.response.shared.AuthenticationResponse;
+import exception.AuthenticationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.enums.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import repository.TokenRepository;
+import support.JpaTestConfiguration;
+import util.Hashing;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Refresh rotation in table mode: the latest refresh token rotates, the token rotated away last is
+ * rejected without harm within the reuse grace, and an older replay ends only its own session.
+ * Runs without a test transaction, so each service call commits as it does in production and
+ * the grace check sees the rotation it races with.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfiguration.class)
+@Import({AuthenticationService.class, JwtService.class, TokenValidationCache.class, TokenVersionRegistry.class,
+        RefreshSessionStore.class, TokenRevocationFeed.class, RefreshTokenRotationTest.Beans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenRotationTest {
+
+    private static final String USERNAME = "student1";
+
+    @Autowired
+    private AuthenticationService authenticationService;
+    @Autowired
+    private TokenValidationCache tokenValidationCache;
+    @Autowired
+    private TokenRepository tokenRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestConfiguration
+    static class Beans {
+
+        @Bean
+        AuthenticationManager authenticationManager() {
+            return Mockito.mock(AuthenticationManager.class);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO accounts (id, username, password, status) VALUES (1, ?, 'x', 'ACTIVE')", USERNAME);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, account_id, role, full_name, email, token_version)
+                VALUES (1, 1, 'STUDENT', 'Student One', 'student1@example.com', 0)
+                """);
+    }
+
+    @AfterEach
+    void clean() {
+        for (String table : List.of("token_revocations", "tokens", "refresh_sessions", "users", "accounts")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void refreshRotatesAndRevokesOnlyTheSessionsAccessToken() {
+        AuthenticationResponse first = login();
+        AuthenticationResponse other = login();
+        tokenValidationCache.put(other.getAccessToken(), new AuthenticatedUser(1L, USERNAME, Role.STUDENT),
+                0, new Date(System.currentTimeMillis() + 60_000));
+
+        AuthenticationResponse refreshed = refresh(first.getRefreshToken());
+
+        assertThat(refreshed.getRefreshToken()).isNotEqualTo(first.getRefreshToken());
+        assertThat(isValid(first.getAccessToken())).isFalse();
+        assertThat(isValid(refreshed.getAccessToken())).isTrue();
+        assertThat(isValid(other.getAccessToken())).isTrue();
+        assertThat(tokenValidationCache.get(other.getAccessToken())).isNotNull();
+        assertThat(publishedRevocations()).containsExactly(Hashing.sha256Hex(first.getAccessToken()));
+    }
+
+    @Test
+    void tokenRotatedWithinGraceIsRejectedAndSessionStaysAlive() {
+        AuthenticationResponse login = login();
+        AuthenticationResponse refreshed = refresh(login.getRefreshToken());
+
+        assertThatThrownBy(() -> refresh(login.getRefreshToken()))
+                .isInstanceOf(AuthenticationException.class)
+                .hasMessage("Refresh token was already rotated");
+
+        assertThat(isValid(refreshed.getAccessToken())).isTrue();
+        assertThat(refresh(refreshed.getRefreshToken()).getAccessToken()).isNotNull();
+    }
+
+    @Test
+    void replayAfterGraceRevokesOnlyThatSession() {
+        AuthenticationResponse login = login();
+        AuthenticationResponse other = login();
+        AuthenticationResponse refreshed = refresh(login.getRefreshToken());
+        jdbcTemplate.update("UPDATE refresh_sessions SET rotated_at = DATEADD('MINUTE', -1, rotated_at)");
+
+        assertThatThrownBy(() -> refresh(login.getRefreshToken()))
+                .isInstanceOf(AuthenticationException.class)
+                .hasMessage("Invalid or expired refresh token");
+
+        assertThat(isValid(refreshed.getAccessToken())).isFalse();
+        assertThatThrownBy(() -> refresh(refreshed.getRefreshToken())).isInstanceOf(AuthenticationException.class);
+        assertThat(isValid(other.getAccessToken())).isTrue();
+        assertThat(refresh(other.getRefreshToken()).getAccessToken()).isNotNull();
+    }
+
+    private AuthenticationResponse login() {
+        return authenticationService.authenticate(new AuthenticationRequest(USERNAME, "secret"));
+    }
+
+    private AuthenticationResponse refresh(String refreshToken) {
+        return authenticationService.refreshToken(new RefreshTokenRequest(refreshToken));
+    }
+
+    private boolean isValid(String accessToken) {
+        return tokenRepository.existsValidByTokenHash(Hashing.sha256Hex(accessToken));
+    }
+
+    private List<String> publishedRevocations() {
+        return jdbcTemplate.queryForList("SELECT token_hash FROM token_revocations ORDER BY id", String.class);
+    }
+}
@@ -0,0 +1,172 @@
+package service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.JobCheckpoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import repository.JobCheckpointRepository;
+import service.job.JobRunner;
+import support.JpaTestConfiguration;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * The overdue sweep flips PROCESSING tuition of past-due classes to UNPAID, one class per chunk
+ * here, and leaves paid and not yet due tuition alone.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfiguration.class)
+@TestPropertySource(properties = "application.tuition.overdue-sweep.chunk-size=1")
+@Import({TuitionServiceImpl.class, TuitionOverdueSweepTest.Beans.class})
+class TuitionOverdueSweepTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final long OVERDUE_CLASS = 1;
+    private static final long OLDER_OVERDUE_CLASS = 2;
+    private static final long PAID_OVERDUE_CLASS = 3;
+    private static final long NOT_DUE_CLASS = 4;
+
+    @Autowired
+    private TuitionServiceImpl tuitionService;
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestConfiguration
+    static class Beans {
+
+        // the lease statements are MySQL-only, the job runs inline here
+        @Bean
+        JobRunner jobRunner() {
+            JobRunner jobRunner = Mockito.mock(JobRunner.class);
+            Mockito.when(jobRunner.runExclusive(anyString(), any())).thenAnswer(invocation -> {
+                invocation.<Runnable>getArgument(1).run();
+                return true;
+            });
+            return jobRunner;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO accounts (id, username, password, status) VALUES (1, 'teacher1', 'x', 'ACTIVE')");
+        jdbcTemplate.update("""
+                INSERT INTO users (id, account_id, role, full_name, email, token_version)
+                VALUES (1, 1, 'TEACHER', 'Teacher One', 'teacher1@example.com', 0)
+                """);
+        jdbcTemplate.update("INSERT INTO teachers (id, user_id) VALUES (1, 1)");
+        jdbcTemplate.update("INSERT INTO subjects (id, name, code) VALUES (1, 'Subject', 'SUB')");
+        for (long studentId = 1; studentId <= 2; studentId++) {
+            long userId = studentId + 1;
+            jdbcTemplate.update("INSERT INTO accounts (id, username, password, status) VALUES (?, ?, 'x', 'ACTIVE')",
+                    userId, "student" + studentId);
+            jdbcTemplate.update("""
+                    INSERT INTO users (id, account_id, role, full_name, email, token_version)
+                    VALUES (?, ?, 'STUDENT', ?, ?, 0)
+                    """, userId, userId, "Student " + studentId, "student" + studentId + "@example.com");
+            jdbcTemplate.update("INSERT INTO students (id, user_id) VALUES (?, ?)", studentId, userId);
+        }
+
+        createClass(OVERDUE_CLASS, TODAY.minusDays(1));
+        createClass(OLDER_OVERDUE_CLASS, TODAY.minusYears(1));
+        createClass(PAID_OVERDUE_CLASS, TODAY.minusDays(1));
+        createClass(NOT_DUE_CLASS, TODAY.plusDays(1));
+        // enrollment id = class id * 10 + student id
+        enroll(OVERDUE_CLASS, 1, "PROCESSING");
+        enroll(OVERDUE_CLASS, 2, "PAID");
+        enroll(OLDER_OVERDUE_CLASS, 1, "PROCESSING");
+        enroll(PAID_OVERDUE_CLASS, 1, "PAID");
+        enroll(NOT_DUE_CLASS, 1, "PROCESSING");
+    }
+
+    @Test
+    void marksOnlyOverdueProcessingTuitionUnpaid() {
+        tuitionService.updateOverdueTuitions();
+
+        assertThat(tuitionStatuses()).isEqualTo(Map.of(
+                11L, "UNPAID",
+                12L, "PAID",
+                21L, "UNPAID",
+                31L, "PAID",
+                41L, "PROCESSING"));
+        assertThat(checkpointRepository.findById(TuitionServiceImpl.JOB_NAME)).hasValueSatisfying(checkpoint -> {
+            assertThat(checkpoint.getRunKey()).isEqualTo(TODAY.toString());
+            assertThat(checkpoint.isCompleted()).isTrue();
+        });
+    }
+
+    @Test
+    void nextRunPicksUpTuitionLeftProcessingInAnOldClass() {
+        tuitionService.updateOverdueTuitions();
+        // a late enrollment into a class whose due date passed long ago
+        enroll(OLDER_OVERDUE_CLASS, 2, "PROCESSING");
+        JobCheckpoint yesterday = checkpointRepository.findById(TuitionServiceImpl.JOB_NAME).orElseThrow();
+        yesterday.setRunKey(TODAY.minusDays(1).toString());
+        checkpointRepository.save(yesterday);
+
+        tuitionService.updateOverdueTuitions();
+
+        assertThat(tuitionStatuses()).containsEntry(22L, "UNPAID").containsEntry(41L, "PROCESSING");
+    }
+
+    @Test
+    void completedRunIsNotRepeatedTheSameDay() {
+        tuitionService.updateOverdueTuitions();
+        enroll(OLDER_OVERDUE_CLASS, 2, "PROCESSING");
+
+        tuitionService.updateOverdueTuitions();
+
+        assertThat(tuitionStatuses()).containsEntry(22L, "PROCESSING");
+    }
+
+    private void createClass(long classId, LocalDate tuitionDueDate) {
+        jdbcTemplate.update("""
+                INSERT INTO classes (id, teacher_id, subject_id, class_name, start_date, end_date, tuition_due_date)
+                VALUES (?, 1, 1, ?, ?, ?, ?)
+                """, classId, "Class " + classId, Date.valueOf(tuitionDueDate.minusMonths(1)),
+                Date.valueOf(tuitionDueDate.plusMonths(3)), Date.valueOf(tuitionDueDate));
+    }
+
+    private void enroll(long classId, long studentId, String tuitionStatus) {
+        long enrollmentId = classId * 10 + studentId;
+        jdbcTemplate.update("""
+                INSERT INTO class_student (id, student_id, class_id, status, absence_count) VALUES (?, ?, ?, 'ENROLLED', 0)
+                """, enrollmentId, studentId, classId);
+        jdbcTemplate.update("INSERT INTO tuition_records (class_student_id, status, method) VALUES (?, ?, 'CASH')",
+                enrollmentId, tuitionStatus);
+    }
+
+    private Map<Long, String> tuitionStatuses() {
+        Map<Long, String> statuses = new HashMap<>();
+        jdbcTemplate.query("SELECT class_student_id, status FROM tuition_records",
+                rs -> {
+                    statuses.put(rs.getLong("class_student_id"), rs.getString("status"));
+                });
+        return statuses;
+    }
+}
@@ -0,0 +1,32 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UniquenessValidatorTest {
+
+    @Test
+    void namesTheDuplicateUsernameAndEmail() {
+        assertThat(UniquenessValidator.describeDuplicate(duplicate("Duplicate entry 'an' for key 'accounts.uk_accounts_username'")))
+                .contains("Username already exists: an");
+        assertThat(UniquenessValidator.describeDuplicate(duplicate("Duplicate entry 'an@example.com' for key 'uk_users_email'")))
+                .contains("Email already exists: an@example.com");
+    }
+
+    @Test
+    void leavesOtherUniqueKeysToTheConflictHandler() {
+        assertThat(UniquenessValidator.describeDuplicate(duplicate("Duplicate entry '7' for key 'users.UK6dotkott2kjsp8vw4d0m25fb7'")))
+                .isEmpty();
+        assertThat(UniquenessValidator.describeDuplicate(duplicate("Duplicate entry '3-5' for key 'class_student.uk_class_student_class_student'")))
+                .isEmpty();
+    }
+
+    private static DataIntegrityViolationException duplicate(String message) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException(message, "23000", 1062));
+    }
+}
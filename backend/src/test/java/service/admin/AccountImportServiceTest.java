@@ -0,0 +1,201 @@
+package service.admin;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import repository.AccountRepository;
+import repository.UserRepository;
+import service.AccountBatchWriter;
+import service.PasswordHashingService;
+import service.ReferenceDataCache;
+import service.UniquenessValidator;
+import service.search.SearchIndexService;
+import service.search.TypeaheadService;
+import support.JpaTestConfiguration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * The import report has one line per data row, in file order, whether the row failed validation,
+ * duplicated another row or an existing account, or was created. Chunks of two rows here, so
+ * in-file duplicates and the retry span chunks. Runs without a test transaction: a chunk that hits
+ * a unique key rolls back its own transaction and is retried row by row, as in production.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfiguration.class)
+@TestPropertySource(properties = {
+        "application.accounts.import.chunk-size=2",
+        "application.security.password-hashing.strength=4"
+})
+@Import({AccountImportService.class, AccountBatchWriter.class, PasswordHashingService.class, ReferenceDataCache.class,
+        AccountImportServiceTest.Beans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountImportServiceTest {
+
+    private static final String HEADER = "username,password,role,fullName,email,phoneNumber,gender,dob";
+
+    @Autowired
+    private AccountImportService accountImportService;
+    @Autowired
+    private UniquenessValidator uniquenessValidator;
+    @Autowired
+    private SearchIndexService searchIndexService;
+    @Autowired
+    private TypeaheadService typeaheadService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestConfiguration
+    static class Beans {
+
+        // real checks, stubbed in the race test to let a taken username through to the insert
+        @Bean
+        UniquenessValidator uniquenessValidator(AccountRepository accountRepository, UserRepository userRepository) {
+            return Mockito.spy(new UniquenessValidator(accountRepository, userRepository));
+        }
+
+        @Bean
+        SearchIndexService searchIndexService() {
+            return Mockito.mock(SearchIndexService.class);
+        }
+
+        @Bean
+        TypeaheadService typeaheadService() {
+            return Mockito.mock(TypeaheadService.class);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO accounts (id, username, password, status) VALUES (1000, 'taken', 'x', 'ACTIVE')");
+        jdbcTemplate.update("""
+                INSERT INTO users (id, account_id, role, full_name, email, token_version)
+                VALUES (1000, 1000, 'STUDENT', 'Taken', 'taken@example.com', 0)
+                """);
+    }
+
+    @AfterEach
+    void clean() {
+        Mockito.reset(uniquenessValidator, searchIndexService, typeaheadService);
+        for (String table : List.of("student_information", "teacher_information", "students", "teachers", "admins",
+                "users", "accounts")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void reportsEveryRowInFileOrder() throws IOException {
+        List<String> report = importCsv(
+                HEADER,
+                "student1,password1,student,Student One,student1@example.com,0912345678,MALE,2005-01-31",
+                "short,pass,STUDENT,Short Password,,,,",
+                "",
+                "teacher1,password1,TEACHER,Teacher One,teacher1@example.com,,,",
+                "nobody,password1,JANITOR,No Role,,,,",
+                "Student1,password1,STUDENT,Same Username,,,,",
+                "taken,password1,STUDENT,Existing Username,,,,",
+                "student2,password1,STUDENT,\"Two, Student\",taken@example.com,,,",
+                "student3,password1,STUDENT,Student Three,,,,bad-date");
+
+        assertThat(report).containsExactly(
+                "row,username,status,message",
+                "2,student1,CREATED,",
+                "3,short,FAILED,Password must be at least 8 characters long",
+                "5,teacher1,CREATED,",
+                "6,nobody,FAILED,Invalid value: No enum constant model.enums.Role.JANITOR",
+                "7,Student1,FAILED,Duplicate username in file: Student1",
+                "8,taken,FAILED,Username already exists: taken",
+                "9,student2,FAILED,Email already exists: taken@example.com",
+                "10,student3,FAILED,Invalid value: Text 'bad-date' could not be parsed at index 0");
+        assertThat(jdbcTemplate.queryForList("""
+                SELECT u.full_name FROM accounts a JOIN users u ON u.account_id = a.id
+                WHERE a.username IN ('student1', 'teacher1') ORDER BY a.username
+                """, String.class)).containsExactly("Student One", "Teacher One");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_information", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM teacher_information", Integer.class)).isEqualTo(1);
+        Mockito.verify(searchIndexService, Mockito.times(2)).indexUser(any());
+        Mockito.verify(typeaheadService).indexStudent(anyLong(), any());
+        Mockito.verify(typeaheadService).indexTeacher(anyLong(), any());
+    }
+
+    @Test
+    void usernameTakenAfterTheCheckFailsOnlyItsRow() throws IOException {
+        // as if another request created 'taken' between the check and the insert
+        Mockito.doReturn(Set.of()).when(uniquenessValidator).findTakenUsernames(anyCollection());
+
+        List<String> report = importCsv(
+                HEADER,
+                "student1,password1,STUDENT,Student One,,,,",
+                "taken,password1,STUDENT,Existing Username,,,,",
+                "student2,password1,STUDENT,Student Two,,,,");
+
+        assertThat(report).hasSize(4);
+        assertThat(report.get(1)).isEqualTo("2,student1,CREATED,");
+        assertThat(report.get(2)).startsWith("3,taken,FAILED,");
+        assertThat(report.get(3)).isEqualTo("4,student2,CREATED,");
+        assertThat(jdbcTemplate.queryForList("SELECT username FROM accounts ORDER BY username", String.class))
+                .containsExactly("student1", "student2", "taken");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students", Integer.class)).isEqualTo(2);
+        Mockito.verify(typeaheadService, Mockito.times(2)).indexStudent(anyLong(), any());
+        Mockito.verify(searchIndexService, Mockito.never()).indexUser(Mockito.argThat(user ->
+                "taken".equals(user.getAccount().getUsername())));
+    }
+
+    private List<String> importCsv(String... lines) throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "accounts.csv", "text/csv",
+                String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        accountImportService.importCsv(file).writeTo(report);
+        return records(report.toString(StandardCharsets.UTF_8));
+    }
+
+    // a database message may span lines inside its quoted field
+    private static List<String> records(String report) {
+        List<String> records = new ArrayList<>();
+        StringBuilder record = new StringBuilder();
+        boolean quoted = false;
+        for (char c : report.toCharArray()) {
+            if (c == '"') {
+                quoted = !quoted;
+            }
+            if (c == '\n' && !quoted) {
+                records.add(record.toString());
+                record.setLength(0);
+            } else {
+                record.append(c);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,31 @@
+package service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+
+    @Test
+    void bestMatchWinsEvenWhenItSortsAfterManyWeakerKeys() {
+        PrefixIndex<String> index = new PrefixIndex<>();
+        for (long id = 1; id <= 1_000; id++) {
+            // later-word matches, all keyed "ana..." and so ahead of "anz" in key order
+            index.put(id, "weak" + id, List.of("Tran Ana" + id));
+        }
+        index.put(5_000L, "best", List.of("Anz"));
+
+        assertThat(index.search("an", 5)).first().isEqualTo("best");
+    }
+
+    @Test
+    void eachDocumentIsReturnedOnceWithItsBestRank() {
+        PrefixIndex<String> index = new PrefixIndex<>();
+        index.put(1L, "email only", List.of("Le Minh", "an@example.com"));
+        index.put(2L, "name and email", List.of("An Nguyen", "an.nguyen@example.com"));
+
+        assertThat(index.search("an", 10)).containsExactly("name and email", "email only");
+    }
+}
@@ -0,0 +1,16 @@
+package support;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Entities and repositories only, for {@code @DataJpaTest} slices.
+ * {@code UniSysApplication} cannot be used there: its explicit component scan would pull every
+ * service, scheduler and filter into the slice.
+ */
+@SpringBootConfiguration
+@EntityScan("model")
+@EnableJpaRepositories("repository")
+public class JpaTestConfiguration {
+}